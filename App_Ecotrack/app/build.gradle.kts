@@ -1,7 +1,72 @@
+import java.sql.DriverManager
+
+buildscript {
+    repositories {
+        mavenCentral()
+    }
+    dependencies {
+        // SQLite JDBC driver used to prebuild the seed database at build time
+        classpath("org.xerial:sqlite-jdbc:3.45.1.0")
+    }
+}
+
 plugins {
     alias(libs.plugins.android.application)
 }
 
+/**
+ * Builds assets/databases/EcoTrack.db from ecotrack_database.sql so the app can copy a ready
+ * database on first launch instead of executing the seed script statement by statement.
+ */
+abstract class PrebuildDatabaseTask : DefaultTask() {
+    @get:InputFile
+    abstract val sqlFile: RegularFileProperty
+
+    // Must match DatabaseMigrations.BASE_VERSION; newer migrations run on device after the copy
+    @get:Input
+    abstract val schemaVersion: Property<Int>
+
+    @get:OutputDirectory
+    abstract val outputDir: DirectoryProperty
+
+    @TaskAction
+    fun build() {
+        val dbFile = outputDir.file("databases/EcoTrack.db").get().asFile
+        dbFile.parentFile.mkdirs()
+        dbFile.delete()
+
+        DriverManager.getConnection("jdbc:sqlite:" + dbFile.absolutePath).use { connection ->
+            connection.autoCommit = false
+            connection.createStatement().use { statement ->
+                val sql = StringBuilder()
+                sqlFile.get().asFile.forEachLine(Charsets.UTF_8) { raw ->
+                    val line = raw.trim()
+                    if (line.isEmpty() || line.startsWith("--")) return@forEachLine
+                    sql.append(line).append(' ')
+                    if (line.endsWith(";")) {
+                        statement.executeUpdate(sql.toString().trim())
+                        sql.setLength(0)
+                    }
+                }
+                statement.executeUpdate("PRAGMA user_version = " + schemaVersion.get())
+            }
+            connection.commit()
+        }
+    }
+}
+
+val prebuildDatabase = tasks.register<PrebuildDatabaseTask>("prebuildDatabase") {
+    sqlFile.set(layout.projectDirectory.file("src/main/assets/ecotrack_database.sql"))
+    schemaVersion.set(3)
+    outputDir.set(layout.buildDirectory.dir("generated/prebuiltDatabase"))
+}
+
+androidComponents {
+    onVariants { variant ->
+        variant.sources.assets?.addGeneratedSourceDirectory(prebuildDatabase, PrebuildDatabaseTask::outputDir)
+    }
+}
+
 android {
     namespace = "com.example.app_ecotrack"
     compileSdk = 36
@@ -25,10 +90,17 @@ android {
             )
         }
     }
+    buildFeatures {
+        buildConfig = true
+    }
     compileOptions {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    testOptions {
+        // Local unit tests exercise code that logs through android.util.Log
+        unitTests.isReturnDefaultValues = true
+    }
 }
 
 dependencies {
@@ -38,8 +110,10 @@ dependencies {
     implementation(libs.activity)
     implementation(libs.constraintlayout)
     testImplementation(libs.junit)
+    testImplementation("com.squareup.okhttp3:mockwebserver:4.12.0")
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
+    androidTestImplementation("com.squareup.okhttp3:mockwebserver:4.12.0")
     implementation("androidx.appcompat:appcompat:1.6.1")
     implementation("com.google.android.material:material:1.11.0")
     implementation("androidx.constraintlayout:constraintlayout:2.1.4")
@@ -47,6 +121,10 @@ dependencies {
     implementation("androidx.cardview:cardview:1.0.0")
     implementation("com.github.bumptech.glide:glide:4.16.0")
 
+    // Activity-scoped ViewModel shared by the main tabs
+    implementation("androidx.lifecycle:lifecycle-viewmodel:2.6.1")
+    implementation("androidx.lifecycle:lifecycle-livedata:2.6.1")
+
     // Retrofit for API calls
     implementation("com.squareup.retrofit2:retrofit:2.9.0")
     implementation("com.squareup.retrofit2:converter-gson:2.9.0")
@@ -0,0 +1,130 @@
+package com.example.app_ecotrack;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Kiểm tra AchievementEngine với bộ luật nhỏ trên database tạm (TestDatabase)
+ */
+@RunWith(AndroidJUnit4.class)
+public class AchievementEngineTest {
+    private static final String RULES = "["
+            + "{\"id\":\"start\",\"counter\":\"activities\",\"threshold\":0},"
+            + "{\"id\":\"first\",\"counter\":\"activities\",\"threshold\":1},"
+            + "{\"id\":\"three\",\"counter\":\"activities\",\"threshold\":3},"
+            + "{\"id\":\"points\",\"counter\":\"points\",\"threshold\":50},"
+            + "{\"id\":\"rider\",\"counter\":\"category.transport\",\"threshold\":2}]";
+    private static final String OWNER = "achievement-test-owner";
+
+    private DatabaseHelper db;
+    private AchievementRules rules;
+
+    @Before
+    public void setUp() {
+        db = TestDatabase.create();
+        rules = AchievementRules.parse(new StringReader(RULES));
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void newAccountHasOnlyThresholdZeroUnlocked() {
+        AchievementEngine engine = new AchievementEngine(db, rules);
+
+        List<Achievement> achievements = engine.getAchievements(OWNER);
+
+        assertEquals(5, achievements.size());
+        assertTrue(achievements.get(0).isUnlocked());
+        for (int i = 1; i < achievements.size(); i++) {
+            assertFalse(achievements.get(i).isUnlocked());
+        }
+    }
+
+    @Test
+    public void completionsMoveCountersAndUnlockOnce() {
+        AchievementEngine engine = new AchievementEngine(db, rules);
+
+        assertEquals(Arrays.asList("first"), ids(engine.recordCompletion(OWNER, "transport", 20, 1000L)));
+        assertEquals(Arrays.asList("rider"), ids(engine.recordCompletion(OWNER, "transport", 20, 2000L)));
+        assertEquals(Arrays.asList("three", "points"), ids(engine.recordCompletion(OWNER, "energy", 20, 3000L)));
+        assertTrue(engine.recordCompletion(OWNER, "transport", 20, 4000L).isEmpty());
+
+        Map<String, Long> counters = db.getCounters(OWNER, Arrays.asList(
+                AchievementRules.COUNTER_ACTIVITIES, AchievementRules.COUNTER_POINTS,
+                AchievementRules.categoryCounter("transport"), AchievementRules.categoryCounter("energy")));
+        assertEquals(Long.valueOf(4), counters.get(AchievementRules.COUNTER_ACTIVITIES));
+        assertEquals(Long.valueOf(80), counters.get(AchievementRules.COUNTER_POINTS));
+        assertEquals(Long.valueOf(3), counters.get(AchievementRules.categoryCounter("transport")));
+        assertEquals(Long.valueOf(1), counters.get(AchievementRules.categoryCounter("energy")));
+    }
+
+    @Test
+    public void unlockTimesSurviveANewEngine() {
+        new AchievementEngine(db, rules).recordCompletion(OWNER, "transport", 10, 1234L);
+
+        // Engine mới đọc lại từ database, như khi mở lại app
+        List<Achievement> achievements = new AchievementEngine(db, rules).getAchievements(OWNER);
+
+        assertEquals("first", achievements.get(1).getRule().getId());
+        assertEquals(1234L, achievements.get(1).getUnlockedAtMs());
+        assertFalse(achievements.get(2).isUnlocked());
+    }
+
+    @Test
+    public void syncTotalsOnlyRaisesCounters() {
+        AchievementEngine engine = new AchievementEngine(db, rules);
+        Map<String, Long> totals = new HashMap<>();
+        totals.put(AchievementRules.COUNTER_ACTIVITIES, 3L);
+        totals.put(AchievementRules.COUNTER_POINTS, 40L);
+
+        assertEquals(Arrays.asList("first", "three"), ids(engine.syncTotals(OWNER, totals, 5000L)));
+
+        // Tổng nhỏ hơn (server chưa nhận các lần hoàn thành đang chờ) không làm giảm bộ đếm
+        assertTrue(engine.syncTotals(OWNER,
+                Collections.singletonMap(AchievementRules.COUNTER_ACTIVITIES, 1L), 6000L).isEmpty());
+        assertEquals(Long.valueOf(3), db.getCounters(OWNER,
+                Collections.singletonList(AchievementRules.COUNTER_ACTIVITIES)).get(AchievementRules.COUNTER_ACTIVITIES));
+
+        assertEquals(Arrays.asList("points"), ids(engine.recordCompletion(OWNER, "waste", 10, 7000L)));
+    }
+
+    @Test
+    public void listIsReusedUntilSomethingUnlocks() {
+        AchievementEngine engine = new AchievementEngine(db, rules);
+        List<Achievement> first = engine.getAchievements(OWNER);
+
+        assertSame(first, engine.getAchievements(OWNER));
+
+        engine.recordCompletion(OWNER, "transport", 10, 1000L);
+        List<Achievement> afterUnlock = engine.getAchievements(OWNER);
+        assertNotSame(first, afterUnlock);
+        assertTrue(afterUnlock.get(1).isUnlocked());
+
+        engine.recordCompletion(OWNER, "waste", 10, 2000L);
+        assertSame(afterUnlock, engine.getAchievements(OWNER));
+    }
+
+    private static List<String> ids(List<Achievement> achievements) {
+        String[] ids = new String[achievements.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = achievements.get(i).getRule().getId();
+        }
+        return Arrays.asList(ids);
+    }
+}
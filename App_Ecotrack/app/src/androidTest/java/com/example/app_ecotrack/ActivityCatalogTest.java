@@ -0,0 +1,113 @@
+package com.example.app_ecotrack;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.app_ecotrack.api.ApiService;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Kiểm tra ActivityCatalog với MockWebServer đóng vai api/activities/catalog:
+ * lần đầu tải toàn bộ, các lần sau gửi watermark và chỉ áp dụng phần thay đổi.
+ */
+@RunWith(AndroidJUnit4.class)
+public class ActivityCatalogTest {
+    private MockWebServer server;
+    private DatabaseHelper db;
+    private ApiService api;
+
+    @Before
+    public void setUp() throws Exception {
+        db = TestDatabase.create();
+
+        server = new MockWebServer();
+        server.start();
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(ApiService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        db.close();
+    }
+
+    @Test
+    public void deltaSyncAppliesOnlyChanges() throws Exception {
+        ActivityCatalog catalog = new ActivityCatalog(db, api);
+
+        server.enqueue(catalog(new String[]{"a1", "a2", "a3"}, new String[0], "2026-10-01T00:00:00.000Z", true));
+        assertTrue(catalog.sync());
+        assertNull(server.takeRequest().getRequestUrl().queryParameter("since"));
+        assertEquals(3, db.getCatalogActivities().size());
+        assertEquals("2026-10-01T00:00:00.000Z", db.getCatalogWatermark());
+
+        // Chỉ a2 đổi tên và a3 bị xóa
+        server.enqueue(catalog(new String[]{"a2"}, new String[]{"a3"}, "2026-10-02T00:00:00.000Z", false));
+        assertTrue(catalog.sync());
+        RecordedRequest request = server.takeRequest();
+        assertEquals("2026-10-01T00:00:00.000Z", request.getRequestUrl().queryParameter("since"));
+        List<Activity> activities = db.getCatalogActivities();
+        assertEquals(2, activities.size());
+        assertEquals("a1", activities.get(0).getApiId());
+        assertEquals("Hoạt động a2", activities.get(1).getName());
+        assertEquals(activities.get(1).getApiId().hashCode(), activities.get(1).getId());
+        assertEquals("2026-10-02T00:00:00.000Z", db.getCatalogWatermark());
+
+        // Không có thay đổi: giữ nguyên catalog và watermark
+        server.enqueue(catalog(new String[0], new String[0], "2026-10-02T00:00:00.000Z", false));
+        assertFalse(catalog.sync());
+        assertEquals(2, db.getCatalogActivities().size());
+    }
+
+    @Test
+    public void completedTodayIsFetchedSeparately() throws Exception {
+        ActivityCatalog catalog = new ActivityCatalog(db, api);
+        server.enqueue(new MockResponse().setBody(new JSONObject()
+                .put("activityIds", new JSONArray().put("a1").put("a3")).toString()));
+
+        assertEquals(2, catalog.fetchCompletedToday().size());
+        assertEquals("/api/activities/completed-today", server.takeRequest().getPath());
+    }
+
+    private static MockResponse catalog(String[] ids, String[] removed, String watermark, boolean full) throws Exception {
+        JSONArray activities = new JSONArray();
+        for (String id : ids) {
+            activities.put(new JSONObject()
+                    .put("id", id)
+                    .put("name", "Hoạt động " + id)
+                    .put("description", "Mô tả " + id)
+                    .put("points", 10)
+                    .put("category", "energy")
+                    .put("icon", "⚡"));
+        }
+        JSONArray removedIds = new JSONArray();
+        for (String id : removed) {
+            removedIds.put(id);
+        }
+        return new MockResponse().setBody(new JSONObject()
+                .put("activities", activities)
+                .put("removed", removedIds)
+                .put("watermark", watermark)
+                .put("full", full)
+                .toString());
+    }
+}
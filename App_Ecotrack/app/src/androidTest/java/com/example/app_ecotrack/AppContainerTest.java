@@ -0,0 +1,32 @@
+package com.example.app_ecotrack;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Kiểm tra AppContainer trả về cùng một đối tượng cho mọi màn hình
+ */
+@RunWith(AndroidJUnit4.class)
+public class AppContainerTest {
+
+    @Test
+    public void sharesOneInstanceOfEachDependency() {
+        Context appContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        AppContainer container = AppContainer.from(appContext);
+
+        assertSame(container, AppContainer.from(appContext.getApplicationContext()));
+        assertSame(container.getDatabase(), container.getDatabase());
+        assertSame(container.getDatabase(), container.getRepository().getDatabase());
+        assertSame(container.getCompletionOutbox(), container.getCompletionOutbox());
+        assertSame(container.getActivityCatalog(), container.getActivityCatalog());
+        assertSame(container.getSearchExecutor(), container.getSearchExecutor());
+        assertSame(container.getApiService(), container.getApiService());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.app_ecotrack;
+
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Kiểm tra completeActivity khi nhiều luồng cùng ghi và đo số lần hoàn thành mỗi giây.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CompleteActivityTest {
+    private static final String TAG = "CompleteActivityTest";
+    private static final String TEST_USERNAME = "complete_activity_test";
+    private static final int THREADS = 4;
+    private static final int COMPLETIONS_PER_THREAD = 250;
+    private static final int POINTS = 10;
+
+    private DatabaseHelper db;
+    private int userId;
+    private int activityId;
+
+    @Before
+    public void setUp() {
+        db = TestDatabase.create();
+        assertTrue(db.insertUser(TEST_USERNAME, "test123", "Complete Activity Test", "test@ecotrack.com"));
+        activityId = TestDatabase.activityIds(db, 1)[0];
+        Cursor cursor = db.checkUser(TEST_USERNAME, "test123");
+        assertTrue(cursor.moveToFirst());
+        userId = cursor.getInt(cursor.getColumnIndexOrThrow("id"));
+        cursor.close();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void concurrentCompletionsDoNotLoseUpdates() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<Integer>> failures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        long elapsedNanos;
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                // Mỗi luồng trả về số lần completeActivity thất bại; assert ở luồng test
+                failures.add(pool.submit(() -> {
+                    int failed = 0;
+                    for (int i = 0; i < COMPLETIONS_PER_THREAD; i++) {
+                        if (!db.completeActivity(userId, activityId, POINTS)) {
+                            failed++;
+                        }
+                    }
+                    return failed;
+                }));
+            }
+            for (Future<Integer> failed : failures) {
+                assertEquals(0, (int) failed.get());
+            }
+            elapsedNanos = System.nanoTime() - start;
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int completions = THREADS * COMPLETIONS_PER_THREAD;
+        Log.i(TAG, String.format("%d completions in %d ms (%.0f completions/s)",
+                completions, elapsedNanos / 1_000_000, completions * 1e9 / elapsedNanos));
+
+        Cursor cursor = db.getUserById(userId);
+        assertTrue(cursor.moveToFirst());
+        int points = cursor.getInt(cursor.getColumnIndexOrThrow("points"));
+        int level = cursor.getInt(cursor.getColumnIndexOrThrow("level"));
+        cursor.close();
+
+        assertEquals(completions * POINTS, points);
+        assertEquals(points / 100 + 1, level);
+        assertEquals(completions, db.getTotalActivityCount(userId));
+        assertEquals(completions * POINTS, db.getTodayPoints(userId));
+    }
+
+    @Test
+    public void completionForMissingUserIsRolledBack() {
+        int before = db.getTotalCompletedActivities();
+        assertFalse(db.completeActivity(-1, activityId, POINTS));
+        assertEquals(before, db.getTotalCompletedActivities());
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.app_ecotrack;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.app_ecotrack.api.ApiService;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Kiểm tra CompletionOutbox với MockWebServer đóng vai api/activities/complete-batch:
+ * lỗi server thì hẹn gửi lại, lần gửi lại dùng đúng các client_id cũ; khi đổi tài khoản chỉ
+ * gửi và đếm các lần hoàn thành của tài khoản đang đăng nhập.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CompletionOutboxTest {
+    private static final String OWNER = "outbox-test-owner";
+    private static final String RULES = "[{\"id\":\"first\",\"counter\":\"activities\",\"threshold\":1}]";
+
+    private MockWebServer server;
+    private DatabaseHelper db;
+    private CompletionOutbox outbox;
+    private AchievementEngine achievements;
+
+    @Before
+    public void setUp() throws Exception {
+        db = TestDatabase.create();
+
+        server = new MockWebServer();
+        server.start();
+        ApiService api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(ApiService.class);
+        achievements = new AchievementEngine(db, AchievementRules.parse(new StringReader(RULES)));
+        outbox = new CompletionOutbox(db, api, () -> achievements);
+        // Hàng đợi còn trống nên lần gửi khi đổi tài khoản không gọi server
+        outbox.switchOwner(OWNER).get();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        db.close();
+    }
+
+    @Test
+    public void failedBatchIsRetriedWithSameIdempotencyKeys() throws Exception {
+        long now = System.currentTimeMillis();
+        String[] clientIds = {"outbox-test-1", "outbox-test-2", "outbox-test-3"};
+        for (String clientId : clientIds) {
+            assertTrue(db.enqueueCompletion(OWNER, clientId, "activity-" + clientId, 10, now));
+        }
+        // Cùng client_id thì không thêm bản ghi mới
+        assertFalse(db.enqueueCompletion(OWNER, clientIds[0], "activity-duplicate", 10, now));
+
+        server.enqueue(new MockResponse().setResponseCode(503));
+        assertEquals(0, outbox.drainOnce(now));
+        assertEquals(Arrays.asList(clientIds), clientIdsOf(server.takeRequest()));
+
+        // Đã hẹn lại: chưa đến hạn gửi, số lần thử tăng lên 1
+        assertTrue(db.getDueCompletions(OWNER, now, CompletionOutbox.BATCH_SIZE).isEmpty());
+        for (PendingCompletion completion : db.getPendingCompletions(OWNER)) {
+            assertEquals(1, completion.getAttempts());
+        }
+
+        JSONArray results = new JSONArray();
+        for (String clientId : clientIds) {
+            results.put(new JSONObject().put("clientId", clientId).put("status", "completed").put("pointsEarned", 10));
+        }
+        server.enqueue(new MockResponse().setBody(new JSONObject()
+                .put("results", results).put("totalPoints", 30).put("level", 1).toString()));
+
+        // Lần thử đầu hẹn sau 5 giây, cộng tối đa 20% ngẫu nhiên cho từng mục
+        assertTrue(db.getNextCompletionAttempt(OWNER) > now);
+        long later = now + 10_000;
+        assertEquals(3, outbox.drainOnce(later));
+        RecordedRequest retry = server.takeRequest();
+        assertEquals("/api/activities/complete-batch", retry.getPath());
+        assertEquals(Arrays.asList(clientIds), clientIdsOf(retry));
+        assertTrue(db.getPendingCompletions(OWNER).isEmpty());
+        assertEquals(-1, db.getNextCompletionAttempt(OWNER));
+    }
+
+    @Test
+    public void backOffUsesEachItemsOwnAttempts() throws Exception {
+        long now = System.currentTimeMillis();
+        assertTrue(db.enqueueCompletion(OWNER, "old-1", "activity-1", 10, now));
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+            now = db.getNextCompletionAttempt(OWNER);
+            outbox.drainOnce(now);
+        }
+        now = db.getNextCompletionAttempt(OWNER);
+        assertTrue(db.enqueueCompletion(OWNER, "new-2", "activity-2", 10, now));
+
+        // Cùng một lô thất bại: mục mới chờ 5 giây, mục đã lỗi 3 lần chờ 40 giây
+        server.enqueue(new MockResponse().setResponseCode(503));
+        outbox.drainOnce(now);
+        for (int i = 0; i < 3; i++) {
+            server.takeRequest();
+        }
+        assertEquals(Arrays.asList("old-1", "new-2"), clientIdsOf(server.takeRequest()));
+        List<PendingCompletion> due = db.getDueCompletions(OWNER, now + 10_000, CompletionOutbox.BATCH_SIZE);
+        assertEquals(1, due.size());
+        assertEquals("new-2", due.get(0).getClientId());
+        assertEquals(2, db.getDueCompletions(OWNER, now + 60_000, CompletionOutbox.BATCH_SIZE).size());
+    }
+
+    @Test
+    public void accountSwitchOnlySendsAndCountsOwnCompletions() throws Exception {
+        long now = System.currentTimeMillis();
+        assertTrue(db.enqueueCompletion("user-a", "a-1", "activity-1", 10, now));
+        assertTrue(db.enqueueCompletion("user-a", "a-2", "activity-2", 15, now));
+        assertTrue(db.enqueueCompletion("user-b", "b-1", "activity-3", 20, now));
+
+        // B đăng nhập: chỉ lần hoàn thành của B được gửi
+        server.enqueue(acknowledge(20, "b-1"));
+        outbox.switchOwner("user-b").get();
+        assertEquals(Arrays.asList("b-1"), clientIdsOf(server.takeRequest()));
+        assertEquals(0, outbox.getPendingPoints());
+        assertEquals(2, db.getPendingCompletions("user-a").size());
+
+        // A đăng nhập lại: các lần hoàn thành của A vẫn còn, được đếm và gửi (server lỗi thì giữ lại)
+        server.enqueue(new MockResponse().setResponseCode(503));
+        outbox.switchOwner("user-a").get();
+        assertEquals(Arrays.asList("a-1", "a-2"), clientIdsOf(server.takeRequest()));
+        assertEquals(25, outbox.getPendingPoints());
+        assertTrue(outbox.isPendingToday("activity-1"));
+
+        // Đăng xuất: không còn điểm chờ và không gửi gì nữa
+        outbox.switchOwner(null).get();
+        assertEquals(0, outbox.getPendingPoints());
+        assertFalse(outbox.isPendingToday("activity-1"));
+        assertEquals(2, server.getRequestCount());
+        assertEquals(2, db.getPendingCompletions("user-a").size());
+    }
+
+    @Test
+    public void rejectedBatchIsSplitAndRejectedItemDropped() throws Exception {
+        long now = System.currentTimeMillis();
+        for (String clientId : new String[]{"bad-1", "good-2", "good-3"}) {
+            assertTrue(db.enqueueCompletion(OWNER, clientId, "activity-" + clientId, 10, now));
+        }
+
+        server.enqueue(new MockResponse().setResponseCode(400));
+        server.enqueue(new MockResponse().setResponseCode(400));
+        server.enqueue(acknowledge(20, "good-2", "good-3"));
+        assertEquals(2, outbox.drainOnce(now));
+
+        assertEquals(Arrays.asList("bad-1", "good-2", "good-3"), clientIdsOf(server.takeRequest()));
+        assertEquals(Arrays.asList("bad-1"), clientIdsOf(server.takeRequest()));
+        assertEquals(Arrays.asList("good-2", "good-3"), clientIdsOf(server.takeRequest()));
+        // Mục bị từ chối không còn trong hàng đợi nên không chặn các lần gửi sau
+        assertTrue(db.getPendingCompletions(OWNER).isEmpty());
+    }
+
+    @Test
+    public void unauthorizedBatchWaitsForNextSignIn() throws Exception {
+        long now = System.currentTimeMillis();
+        assertTrue(db.enqueueCompletion(OWNER, "auth-1", "activity-1", 10, now));
+
+        server.enqueue(new MockResponse().setResponseCode(401));
+        assertEquals(0, outbox.drainOnce(now));
+        assertEquals(0, outbox.drainOnce(now + 60 * 60_000));
+        assertEquals(1, server.getRequestCount());
+        // Giữ nguyên dòng, không tính là một lần gửi thất bại
+        assertEquals(0, db.getPendingCompletions(OWNER).get(0).getAttempts());
+
+        // Đăng nhập lại thì gửi tiếp
+        server.enqueue(acknowledge(10, "auth-1"));
+        outbox.switchOwner(OWNER).get();
+        assertEquals(2, server.getRequestCount());
+        assertTrue(db.getPendingCompletions(OWNER).isEmpty());
+    }
+
+    @Test
+    public void onlyAcceptedCompletionsCountTowardsAchievements() throws Exception {
+        long now = System.currentTimeMillis();
+        assertTrue(db.enqueueCompletion(OWNER, "gone-1", "activity-removed", 10, now));
+        assertTrue(db.enqueueCompletion(OWNER, "ok-2", "activity-2", 15, now));
+
+        JSONArray results = new JSONArray()
+                .put(new JSONObject().put("clientId", "gone-1").put("status", "not_found"))
+                .put(new JSONObject().put("clientId", "ok-2").put("status", "completed").put("pointsEarned", 15));
+        server.enqueue(new MockResponse().setBody(new JSONObject()
+                .put("results", results).put("totalPoints", 15).put("level", 1).toString()));
+        assertEquals(2, outbox.drainOnce(now));
+
+        Map<String, Long> counters = db.getCounters(OWNER, Arrays.asList(
+                AchievementRules.COUNTER_ACTIVITIES, AchievementRules.COUNTER_POINTS));
+        assertEquals(Long.valueOf(1), counters.get(AchievementRules.COUNTER_ACTIVITIES));
+        assertEquals(Long.valueOf(15), counters.get(AchievementRules.COUNTER_POINTS));
+        assertTrue(achievements.getAchievements(OWNER).get(0).isUnlocked());
+    }
+
+    @Test
+    public void resetDatabaseKeepsQueuedCompletions() throws Exception {
+        long now = System.currentTimeMillis();
+        assertTrue(db.enqueueCompletion(OWNER, "reset-1", "activity-1", 10, now));
+
+        // Database đã ở version 12: reset chạy lại các migration trên bảng hàng đợi còn giữ lại
+        db.resetDatabase();
+
+        List<PendingCompletion> pending = db.getPendingCompletions(OWNER);
+        assertEquals(1, pending.size());
+        assertEquals("reset-1", pending.get(0).getClientId());
+        assertTrue(db.enqueueCompletion(OWNER, "reset-2", "activity-2", 10, now));
+    }
+
+    private static MockResponse acknowledge(int totalPoints, String... clientIds) throws Exception {
+        JSONArray results = new JSONArray();
+        for (String clientId : clientIds) {
+            results.put(new JSONObject().put("clientId", clientId).put("status", "completed").put("pointsEarned", 10));
+        }
+        return new MockResponse().setBody(new JSONObject()
+                .put("results", results).put("totalPoints", totalPoints).put("level", 1).toString());
+    }
+
+    private static List<String> clientIdsOf(RecordedRequest request) throws Exception {
+        JSONArray completions = new JSONObject(request.getBody().readUtf8()).getJSONArray("completions");
+        List<String> clientIds = new ArrayList<>();
+        for (int i = 0; i < completions.length(); i++) {
+            clientIds.add(completions.getJSONObject(i).getString("clientId"));
+        }
+        return clientIds;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.app_ecotrack;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.app_ecotrack.api.ApiService;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Kiểm tra HistoryPagingSource với MockWebServer đóng vai api/activities/history:
+ * trang sau gửi đúng con trỏ, trang đã đệm không gọi lại server, mất mạng thì đọc bản đệm.
+ */
+@RunWith(AndroidJUnit4.class)
+public class HistoryPagingSourceTest {
+    private static final String OWNER = "history-test-owner";
+
+    private MockWebServer server;
+    private DatabaseHelper db;
+    private ApiService api;
+
+    @Before
+    public void setUp() throws Exception {
+        db = TestDatabase.create();
+
+        server = new MockWebServer();
+        server.start();
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(ApiService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        db.close();
+    }
+
+    @Test
+    public void pagesFollowCursorAndAreServedFromCache() throws Exception {
+        HistoryPagingSource source = new HistoryPagingSource(db, api, OWNER, 2);
+
+        server.enqueue(page(new String[]{"c3", "c2"}, "2026-10-03T08:00:00.000Z", "c2"));
+        HistoryPagingSource.Page first = source.loadFirst();
+        assertEquals(2, first.items.size());
+        assertFalse(first.endReached);
+        assertEquals("/api/activities/history?limit=2", server.takeRequest().getPath());
+
+        // Bản đệm chưa có trang sau nên lấy từ server, bắt đầu ngay sau dòng cuối
+        server.enqueue(page(new String[]{"c1"}, null, null));
+        HistoryPagingSource.Page second = source.loadAfter(first.items.get(1));
+        assertEquals(1, second.items.size());
+        assertTrue(second.endReached);
+        RecordedRequest request = server.takeRequest();
+        assertEquals("2026-10-03T08:00:00.000Z", request.getRequestUrl().queryParameter("before"));
+        assertEquals("c2", request.getRequestUrl().queryParameter("beforeId"));
+        assertTrue(db.isHistoryCacheComplete(OWNER));
+
+        // Trang đầu mới nối liền với bản đệm: trang sau đọc từ SQLite, không gọi server
+        server.enqueue(page(new String[]{"c3", "c2"}, "2026-10-03T08:00:00.000Z", "c2"));
+        HistoryPagingSource.Page refreshed = source.loadFirst();
+        HistoryPagingSource.Page cached = source.loadAfter(refreshed.items.get(1));
+        assertTrue(cached.fromCache);
+        assertTrue(cached.endReached);
+        assertEquals("c1", cached.items.get(0).getApiId());
+        assertEquals(3, server.getRequestCount());
+
+        // Server lỗi: trang đầu lấy từ bản đệm
+        server.enqueue(new MockResponse().setResponseCode(503));
+        HistoryPagingSource.Page offline = source.loadFirst();
+        assertTrue(offline.fromCache);
+        assertEquals("c3", offline.items.get(0).getApiId());
+        assertEquals("c2", offline.items.get(1).getApiId());
+    }
+
+    // Các dòng cách nhau một ngày, id giảm dần theo thời gian giống thứ tự của server
+    private static MockResponse page(String[] ids, String cursorCompletedAt, String cursorId) throws Exception {
+        JSONArray history = new JSONArray();
+        for (String id : ids) {
+            int day = Integer.parseInt(id.substring(1));
+            history.put(new JSONObject()
+                    .put("id", id)
+                    .put("activity", new JSONObject().put("name", "Hoạt động " + id).put("category", "energy"))
+                    .put("pointsEarned", 10)
+                    .put("completedAt", String.format("2026-10-%02dT08:00:00.000Z", day)));
+        }
+        JSONObject body = new JSONObject().put("history", history);
+        body.put("nextCursor", cursorId == null ? JSONObject.NULL
+                : new JSONObject().put("completedAt", cursorCompletedAt).put("id", cursorId));
+        return new MockResponse().setBody(body.toString());
+    }
+}
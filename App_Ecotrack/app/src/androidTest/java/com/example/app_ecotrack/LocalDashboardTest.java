@@ -0,0 +1,75 @@
+package com.example.app_ecotrack;
+
+import android.database.Cursor;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.example.app_ecotrack.api.models.DashboardResponse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Kiểm tra LocalDashboard (bản thay thế api/dashboard) trên một user trong database tạm (TestDatabase)
+ */
+@RunWith(AndroidJUnit4.class)
+public class LocalDashboardTest {
+    private static final String USERNAME = "dashboard_test_user";
+    private static final String PASSWORD = "dashboard123";
+
+    private DatabaseHelper db;
+    private int userId;
+    private int[] activityIds;
+
+    @Before
+    public void setUp() {
+        db = TestDatabase.create();
+        activityIds = TestDatabase.activityIds(db, 2);
+        assertTrue(db.insertUser(USERNAME, PASSWORD, "Dashboard Test", "dashboard@test.local"));
+        Cursor cursor = db.checkUser(USERNAME, PASSWORD);
+        assertTrue(cursor.moveToFirst());
+        userId = cursor.getInt(cursor.getColumnIndexOrThrow("id"));
+        cursor.close();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void buildsSamePayloadAsServerContract() {
+        assertTrue(db.completeActivity(userId, activityIds[0], 20));
+        assertTrue(db.completeActivity(userId, activityIds[1], 15));
+
+        DashboardResponse dashboard = LocalDashboard.build(db, userId);
+
+        assertEquals(USERNAME, dashboard.user.username);
+        assertEquals(35, dashboard.user.points);
+        assertEquals(35, dashboard.today.points);
+        assertEquals(2, dashboard.today.activities);
+        assertEquals(35, dashboard.week.points);
+        assertEquals(2, dashboard.week.activities);
+        assertEquals(2, dashboard.totalActivities);
+        assertTrue(dashboard.rank >= 1);
+
+        assertEquals(7, dashboard.weeklyChart.size());
+        DashboardResponse.ChartDay today = dashboard.weeklyChart.get(6);
+        assertEquals(35, today.points);
+        assertEquals(2, today.count);
+        assertEquals(0, dashboard.weeklyChart.get(0).points);
+    }
+
+    @Test
+    public void missingUserHasNoProfile() {
+        DashboardResponse dashboard = LocalDashboard.build(db, -1);
+
+        assertNull(dashboard.user);
+        assertEquals(0, dashboard.today.points);
+        assertEquals(7, dashboard.weeklyChart.size());
+    }
+}
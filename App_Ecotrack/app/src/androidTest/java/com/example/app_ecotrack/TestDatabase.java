@@ -0,0 +1,39 @@
+package com.example.app_ecotrack;
+
+import android.content.Context;
+import android.database.Cursor;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+/**
+ * DatabaseHelper dùng chung cho các test: database trong bộ nhớ, tạo từ file SQL (schema gốc,
+ * dữ liệu mẫu và mọi migration) như lần cài đầu tiên. Mỗi test dùng một bản riêng và close()
+ * ở tearDown là xóa hết những gì test đã ghi, EcoTrack.db của app không bị đụng tới.
+ */
+final class TestDatabase {
+
+    private TestDatabase() {
+    }
+
+    static DatabaseHelper create() {
+        Context appContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        return new DatabaseHelper(appContext, null);
+    }
+
+    // Id của {@code count} hoạt động đầu tiên trong dữ liệu mẫu
+    static int[] activityIds(DatabaseHelper db, int count) {
+        int[] ids = new int[count];
+        Cursor cursor = db.getAllActivities();
+        try {
+            for (int i = 0; i < count; i++) {
+                if (!cursor.moveToNext()) {
+                    throw new IllegalStateException("Seed data has fewer than " + count + " activities");
+                }
+                ids[i] = cursor.getInt(cursor.getColumnIndexOrThrow("id"));
+            }
+        } finally {
+            cursor.close();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.app_ecotrack;
+
+import android.database.Cursor;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Kiểm tra UserStatsSnapshot và việc tăng DataVersion khi dữ liệu của user thay đổi
+ */
+@RunWith(AndroidJUnit4.class)
+public class UserStatsSnapshotTest {
+    private static final String USERNAME = "snapshot_test_user";
+    private static final String PASSWORD = "snapshot123";
+
+    private DatabaseHelper db;
+    private int userId;
+    private int[] activityIds;
+
+    @Before
+    public void setUp() {
+        db = TestDatabase.create();
+        activityIds = TestDatabase.activityIds(db, 2);
+        assertTrue(db.insertUser(USERNAME, PASSWORD, "Snapshot Test", "snapshot@test.local"));
+        Cursor cursor = db.checkUser(USERNAME, PASSWORD);
+        assertTrue(cursor.moveToFirst());
+        userId = cursor.getInt(cursor.getColumnIndexOrThrow("id"));
+        cursor.close();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void loadsEveryTabFromOnePass() {
+        assertTrue(db.completeActivity(userId, activityIds[0], 20));
+        assertTrue(db.completeActivity(userId, activityIds[1], 15));
+
+        UserStatsSnapshot snapshot = UserStatsSnapshot.load(db, userId, DataVersion.current());
+
+        assertEquals(USERNAME, snapshot.getUser().getUsername());
+        assertEquals(35, snapshot.getUser().getPoints());
+        assertEquals(2, snapshot.getTotalActivities());
+        assertTrue(snapshot.getRank() >= 1);
+        assertEquals(35, snapshot.getTodayPoints());
+        assertEquals(35, snapshot.getWeekPoints());
+        assertEquals(2, snapshot.getRecentActivities().size());
+
+        int[] week = snapshot.getDailyPoints(7);
+        assertEquals(7, week.length);
+        assertEquals(35, week[6]);
+        assertEquals(UserStatsSnapshot.CHART_DAYS, snapshot.getDailyPoints(365).length);
+    }
+
+    @Test
+    public void completionInvalidatesSnapshot() {
+        long version = DataVersion.current();
+        UserStatsSnapshot snapshot = UserStatsSnapshot.load(db, userId, version);
+        assertTrue(snapshot.isCurrent(userId, DataVersion.current()));
+
+        assertTrue(db.completeActivity(userId, activityIds[0], 20));
+
+        assertFalse(snapshot.isCurrent(userId, DataVersion.current()));
+        assertFalse(snapshot.isCurrent(userId + 1, version));
+    }
+
+    @Test
+    public void failedCompletionKeepsVersion() {
+        long version = DataVersion.current();
+
+        assertFalse(db.completeActivity(-1, activityIds[0], 20));
+
+        assertEquals(version, DataVersion.current());
+    }
+}
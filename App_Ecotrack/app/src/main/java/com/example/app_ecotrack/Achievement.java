@@ -0,0 +1,26 @@
+package com.example.app_ecotrack;
+
+/**
+ * Trạng thái một huy hiệu của user: luật khai báo và thời điểm mở khóa (0 = chưa mở khóa)
+ */
+public class Achievement {
+    private final AchievementRule rule;
+    private final long unlockedAtMs;
+
+    public Achievement(AchievementRule rule, long unlockedAtMs) {
+        this.rule = rule;
+        this.unlockedAtMs = unlockedAtMs;
+    }
+
+    public AchievementRule getRule() {
+        return rule;
+    }
+
+    public long getUnlockedAtMs() {
+        return unlockedAtMs;
+    }
+
+    public boolean isUnlocked() {
+        return unlockedAtMs > 0;
+    }
+}
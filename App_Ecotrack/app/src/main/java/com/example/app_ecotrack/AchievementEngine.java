@@ -0,0 +1,138 @@
+package com.example.app_ecotrack;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Huy hiệu theo luật khai báo trong AchievementRules.
+ *
+ * Mỗi tài khoản có các bộ đếm lưu trong user_counters (số hoạt động, tổng điểm, số lần theo
+ * từng danh mục). Mỗi lần hoàn thành chỉ cộng vào vài bộ đếm và xét các luật của đúng những bộ
+ * đếm đó, nên chi phí không phụ thuộc lịch sử hay số huy hiệu; huy hiệu vừa đạt được ghi cùng
+ * thời điểm mở khóa vào user_achievements. Danh sách huy hiệu được giữ trong bộ nhớ sau lần
+ * đọc đầu tiên, mở màn hình Hồ sơ không tốn truy vấn nào.
+ *
+ * Các phương thức đọc/ghi database, phải gọi trên luồng nền (qua DatabaseRepository).
+ * Dùng chung một bản cho cả app (AppContainer.getAchievementEngine()).
+ */
+public class AchievementEngine {
+    private final DatabaseHelper db;
+    private final AchievementRules rules;
+
+    // owner_id -> (id huy hiệu -> thời điểm mở khóa), nạp khi tài khoản được dùng lần đầu
+    private final Map<String, Map<String, Long>> unlocks = new HashMap<>();
+    // owner_id -> danh sách đã dựng cho UI, dựng lại chỉ khi có huy hiệu mới
+    private final Map<String, List<Achievement>> achievements = new HashMap<>();
+
+    public AchievementEngine(DatabaseHelper db, AchievementRules rules) {
+        this.db = db;
+        this.rules = rules;
+    }
+
+    /**
+     * Mọi huy hiệu theo thứ tự trong file luật. Trả về cùng một danh sách cho tới khi có huy hiệu
+     * mới, nên màn hình có thể so sánh tham chiếu để bỏ qua việc vẽ lại
+     */
+    public synchronized List<Achievement> getAchievements(String ownerId) {
+        List<Achievement> list = achievements.get(ownerId);
+        if (list == null) {
+            Map<String, Long> unlocked = unlocksOf(ownerId);
+            list = new ArrayList<>(rules.getAll().size());
+            for (AchievementRule rule : rules.getAll()) {
+                Long unlockedAt = unlocked.get(rule.getId());
+                list.add(new Achievement(rule, unlockedAt != null ? unlockedAt : 0));
+            }
+            list = Collections.unmodifiableList(list);
+            achievements.put(ownerId, list);
+        }
+        return list;
+    }
+
+    /**
+     * Ghi nhận một lần hoàn thành. Trả về các huy hiệu vừa mở khóa (thường là rỗng)
+     */
+    public synchronized List<Achievement> recordCompletion(String ownerId, String category, int points, long now) {
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        deltas.put(AchievementRules.COUNTER_ACTIVITIES, 1L);
+        deltas.put(AchievementRules.COUNTER_POINTS, (long) points);
+        if (category != null) {
+            deltas.put(AchievementRules.categoryCounter(category), 1L);
+        }
+
+        Map<String, Long> current = db.getCounters(ownerId, deltas.keySet());
+        Map<String, Long> updated = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> delta : deltas.entrySet()) {
+            updated.put(delta.getKey(), valueOf(current, delta.getKey()) + delta.getValue());
+        }
+        return save(ownerId, current, updated, now);
+    }
+
+    /**
+     * Đưa các bộ đếm lên ít nhất bằng tổng số server báo về (api/users/stats): lấy lại tiến độ
+     * có từ trước khi có bộ đếm hoặc từ thiết bị khác. Bộ đếm không bao giờ giảm.
+     * Trả về các huy hiệu vừa mở khóa
+     */
+    public synchronized List<Achievement> syncTotals(String ownerId, Map<String, Long> totals, long now) {
+        Map<String, Long> current = db.getCounters(ownerId, totals.keySet());
+        Map<String, Long> updated = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> total : totals.entrySet()) {
+            if (total.getValue() > valueOf(current, total.getKey())) {
+                updated.put(total.getKey(), total.getValue());
+            }
+        }
+        if (updated.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return save(ownerId, current, updated, now);
+    }
+
+    private List<Achievement> save(String ownerId, Map<String, Long> current, Map<String, Long> updated, long now) {
+        Map<String, Long> unlocked = unlocksOf(ownerId);
+        Map<String, Long> newUnlocks = new LinkedHashMap<>();
+        List<Achievement> reached = new ArrayList<>();
+        for (Map.Entry<String, Long> counter : updated.entrySet()) {
+            for (AchievementRule rule : rules.crossed(counter.getKey(), valueOf(current, counter.getKey()), counter.getValue())) {
+                if (!unlocked.containsKey(rule.getId()) && !newUnlocks.containsKey(rule.getId())) {
+                    newUnlocks.put(rule.getId(), now);
+                    reached.add(new Achievement(rule, now));
+                }
+            }
+        }
+
+        db.saveAchievementProgress(ownerId, updated, newUnlocks);
+        if (!newUnlocks.isEmpty()) {
+            unlocked.putAll(newUnlocks);
+            achievements.remove(ownerId);
+        }
+        return reached;
+    }
+
+    // Huy hiệu đã mở khóa của tài khoản; lần đầu còn mở khóa các huy hiệu có ngưỡng 0
+    private Map<String, Long> unlocksOf(String ownerId) {
+        Map<String, Long> unlocked = unlocks.get(ownerId);
+        if (unlocked == null) {
+            unlocked = db.getAchievementUnlocks(ownerId);
+            Map<String, Long> initial = new HashMap<>();
+            for (AchievementRule rule : rules.initial()) {
+                if (!unlocked.containsKey(rule.getId())) {
+                    initial.put(rule.getId(), System.currentTimeMillis());
+                }
+            }
+            if (!initial.isEmpty()) {
+                db.saveAchievementProgress(ownerId, Collections.<String, Long>emptyMap(), initial);
+                unlocked.putAll(initial);
+            }
+            unlocks.put(ownerId, unlocked);
+        }
+        return unlocked;
+    }
+
+    private static long valueOf(Map<String, Long> counters, String counter) {
+        Long value = counters.get(counter);
+        return value != null ? value : 0;
+    }
+}
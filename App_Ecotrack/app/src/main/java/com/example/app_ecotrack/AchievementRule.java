@@ -0,0 +1,53 @@
+package com.example.app_ecotrack;
+
+/**
+ * Một huy hiệu khai báo trong assets/achievements.json: mở khóa khi bộ đếm {@code counter}
+ * của user đạt {@code threshold} (threshold = 0: mở khóa ngay từ đầu).
+ */
+public class AchievementRule {
+    private String id;
+    private String icon;
+    private String name;
+    private String description;
+    private String counter;
+    private long threshold;
+
+    // Constructor rỗng
+    public AchievementRule() {
+    }
+
+    // Constructor đầy đủ
+    public AchievementRule(String id, String icon, String name, String description, String counter, long threshold) {
+        this.id = id;
+        this.icon = icon;
+        this.name = name;
+        this.description = description;
+        this.counter = counter;
+        this.threshold = threshold;
+    }
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+
+    public String getIcon() {
+        return icon;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getCounter() {
+        return counter;
+    }
+
+    public long getThreshold() {
+        return threshold;
+    }
+}
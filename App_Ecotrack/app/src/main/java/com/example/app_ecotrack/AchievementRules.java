@@ -0,0 +1,99 @@
+package com.example.app_ecotrack;
+
+import com.google.gson.Gson;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bộ luật huy hiệu đọc từ assets/achievements.json (một mảng AchievementRule), thêm huy hiệu
+ * chỉ cần sửa file này. Luật được nhóm theo bộ đếm và sắp theo ngưỡng tăng dần, nên khi một
+ * bộ đếm thay đổi chỉ cần xem các luật của bộ đếm đó.
+ *
+ * Đối tượng không đổi sau khi dựng, dùng được từ nhiều luồng.
+ */
+public class AchievementRules {
+    public static final String ASSET = "achievements.json";
+
+    // Tên bộ đếm dùng trong file luật
+    public static final String COUNTER_ACTIVITIES = "activities";
+    public static final String COUNTER_POINTS = "points";
+    public static final String CATEGORY_COUNTER_PREFIX = "category.";
+
+    private final List<AchievementRule> rules;
+    private final Map<String, List<AchievementRule>> byCounter = new HashMap<>();
+
+    public AchievementRules(List<AchievementRule> rules) {
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        for (AchievementRule rule : this.rules) {
+            List<AchievementRule> counterRules = byCounter.get(rule.getCounter());
+            if (counterRules == null) {
+                counterRules = new ArrayList<>();
+                byCounter.put(rule.getCounter(), counterRules);
+            }
+            counterRules.add(rule);
+        }
+        for (List<AchievementRule> counterRules : byCounter.values()) {
+            Collections.sort(counterRules, (a, b) -> Long.compare(a.getThreshold(), b.getThreshold()));
+        }
+    }
+
+    public static AchievementRules parse(Reader reader) {
+        AchievementRule[] rules = new Gson().fromJson(reader, AchievementRule[].class);
+        if (rules == null) {
+            return new AchievementRules(Collections.<AchievementRule>emptyList());
+        }
+        for (AchievementRule rule : rules) {
+            if (rule.getId() == null || rule.getCounter() == null) {
+                throw new IllegalArgumentException("Achievement rule needs an id and a counter");
+            }
+        }
+        return new AchievementRules(Arrays.asList(rules));
+    }
+
+    public static String categoryCounter(String category) {
+        return CATEGORY_COUNTER_PREFIX + category;
+    }
+
+    // Thứ tự như trong file luật
+    public List<AchievementRule> getAll() {
+        return rules;
+    }
+
+    /**
+     * Các luật của counter có ngưỡng nằm trong (from, to]: những huy hiệu vừa đạt khi bộ đếm
+     * tăng từ from lên to
+     */
+    public List<AchievementRule> crossed(String counter, long from, long to) {
+        List<AchievementRule> counterRules = byCounter.get(counter);
+        if (counterRules == null || to <= from) {
+            return Collections.emptyList();
+        }
+        List<AchievementRule> crossed = new ArrayList<>();
+        for (AchievementRule rule : counterRules) {
+            if (rule.getThreshold() > to) {
+                break;
+            }
+            if (rule.getThreshold() > from) {
+                crossed.add(rule);
+            }
+        }
+        return crossed;
+    }
+
+    // Luật có ngưỡng 0: mở khóa ngay khi tài khoản bắt đầu dùng
+    public List<AchievementRule> initial() {
+        List<AchievementRule> initial = new ArrayList<>();
+        for (AchievementRule rule : rules) {
+            if (rule.getThreshold() <= 0) {
+                initial.add(rule);
+            }
+        }
+        return initial;
+    }
+}
@@ -27,6 +27,19 @@ public class Activity {
         this.completed = false;
     }
 
+    // Constructor sao chép: danh sách gửi cho ActivityAdapter phải là bản chụp không bị sửa sau đó
+    public Activity(Activity other) {
+        this.id = other.id;
+        this.apiId = other.apiId;
+        this.name = other.name;
+        this.description = other.description;
+        this.points = other.points;
+        this.category = other.category;
+        this.icon = other.icon;
+        this.createdAt = other.createdAt;
+        this.completed = other.completed;
+    }
+
     // Getters
     public int getId() {
         return id;
@@ -0,0 +1,151 @@
+package com.example.app_ecotrack;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.app_ecotrack.api.ApiService;
+import com.example.app_ecotrack.api.models.ActivityCatalogResponse;
+import com.example.app_ecotrack.api.models.ActivityData;
+import com.example.app_ecotrack.api.models.CompletedTodayResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import retrofit2.Response;
+
+/**
+ * Catalog hoạt động cho màn hình Hoạt động, lưu trong bảng activity_catalog.
+ * load() hiển thị ngay bản lưu local, sau đó chỉ hỏi server các thay đổi từ mốc watermark
+ * (api/activities/catalog?since=...), nên dung lượng tải và thời gian hiển thị không tăng theo
+ * kích thước catalog. Trạng thái "đã hoàn thành hôm nay" của user được lấy riêng và không lưu lại.
+ *
+ * load() gọi trên luồng UI, kết quả trả về trên luồng UI.
+ * Dùng chung một bản cho cả app (AppContainer.getActivityCatalog()).
+ */
+public class ActivityCatalog {
+    private static final String TAG = "ActivityCatalog";
+
+    public interface Callback {
+        // fromCache = true: bản lưu local; gọi lại với fromCache = false nếu server có thay đổi
+        void onCatalog(List<Activity> activities, boolean fromCache);
+
+        void onCompletedToday(Set<String> activityIds);
+
+        // Chỉ gọi khi không có gì để hiển thị (catalog local trống và không gọi được server)
+        void onError(Exception e);
+    }
+
+    private final DatabaseHelper db;
+    private final ApiService api;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ecotrack-catalog");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Chỉ đọc/ghi trên luồng UI
+    private int generation;
+
+    public ActivityCatalog(DatabaseHelper db, ApiService api) {
+        this.db = db;
+        this.api = api;
+    }
+
+    public void load(Callback callback) {
+        int requestGeneration = ++generation;
+        executor.execute(() -> {
+            List<Activity> local = db.getCatalogActivities();
+            if (!local.isEmpty()) {
+                post(requestGeneration, () -> callback.onCatalog(local, true));
+            }
+
+            try {
+                if (sync()) {
+                    List<Activity> synced = db.getCatalogActivities();
+                    post(requestGeneration, () -> callback.onCatalog(synced, false));
+                } else if (local.isEmpty()) {
+                    post(requestGeneration, () -> callback.onCatalog(local, false));
+                }
+            } catch (IOException | RuntimeException e) {
+                Log.w(TAG, "Cannot sync activity catalog", e);
+                if (local.isEmpty()) {
+                    post(requestGeneration, () -> callback.onError(e));
+                    return;
+                }
+            }
+
+            try {
+                Set<String> completed = fetchCompletedToday();
+                post(requestGeneration, () -> callback.onCompletedToday(completed));
+            } catch (IOException | RuntimeException e) {
+                Log.w(TAG, "Cannot load today's completions", e);
+            }
+        });
+    }
+
+    // Bỏ kết quả của lần load đang chạy, khi màn hình đã gọi load() bị đóng
+    public void cancel() {
+        generation++;
+    }
+
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void post(int requestGeneration, Runnable delivery) {
+        mainHandler.post(() -> {
+            // Kết quả của lần load trước thì bỏ đi
+            if (requestGeneration == generation) {
+                delivery.run();
+            }
+        });
+    }
+
+    /**
+     * Lấy các thay đổi từ watermark đã lưu và ghi vào activity_catalog.
+     * Trả về true nếu catalog local có thay đổi
+     */
+    boolean sync() throws IOException {
+        String since = db.getCatalogWatermark();
+        Response<ActivityCatalogResponse> response = api.getActivityCatalog(since).execute();
+        ActivityCatalogResponse body = response.body();
+        if (!response.isSuccessful() || body == null || body.activities == null) {
+            throw new IOException("HTTP " + response.code());
+        }
+
+        List<String> removed = body.removed != null ? body.removed : Collections.<String>emptyList();
+        if (!body.full && body.activities.isEmpty() && removed.isEmpty()) {
+            return false;
+        }
+
+        List<Activity> changed = new ArrayList<>(body.activities.size());
+        for (ActivityData data : body.activities) {
+            if (data.id == null) {
+                continue;
+            }
+            Activity activity = new Activity(data.id.hashCode(), data.name, data.description,
+                    data.points, data.category, data.icon);
+            activity.setApiId(data.id);
+            changed.add(activity);
+        }
+        db.applyCatalogChanges(changed, removed, body.watermark != null ? body.watermark : since, body.full);
+        return true;
+    }
+
+    Set<String> fetchCompletedToday() throws IOException {
+        Response<CompletedTodayResponse> response = api.getCompletedToday().execute();
+        CompletedTodayResponse body = response.body();
+        if (!response.isSuccessful() || body == null || body.activityIds == null) {
+            throw new IOException("HTTP " + response.code());
+        }
+        return new HashSet<>(body.activityIds);
+    }
+}
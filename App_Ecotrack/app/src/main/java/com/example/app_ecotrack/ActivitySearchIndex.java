@@ -0,0 +1,197 @@
+package com.example.app_ecotrack;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Chỉ mục tìm kiếm cho catalog hoạt động, dựng một lần mỗi khi catalog thay đổi (trên luồng nền).
+ *
+ * Tên và mô tả được bỏ dấu tiếng Việt ("Đi xe đạp" -> "di xe dap"), tách từ, và mọi tiền tố của
+ * mỗi từ được đưa vào bảng băm, nên một truy vấn chỉ tra vài danh sách posting thay vì quét cả
+ * catalog. Mỗi từ của truy vấn phải khớp (là tiền tố của một từ trong tên hoặc mô tả); kết quả
+ * xếp theo chất lượng khớp: khớp cả cụm trong tên > khớp nguyên từ > khớp tiền tố, tên > mô tả.
+ *
+ * Đối tượng không đổi sau khi dựng, dùng được từ nhiều luồng.
+ */
+public class ActivitySearchIndex {
+    // Điểm cho một từ truy vấn, lấy mức cao nhất trong một hoạt động
+    static final int NAME_EXACT = 8;
+    static final int NAME_PREFIX = 4;
+    static final int DESCRIPTION_EXACT = 2;
+    static final int DESCRIPTION_PREFIX = 1;
+    // Cộng thêm khi cả truy vấn xuất hiện liền nhau trong tên
+    static final int NAME_PHRASE = 16;
+
+    private static final Postings EMPTY = new Postings(new int[0], new int[0]);
+
+    private final List<Activity> activities;
+    // Các từ (đã bỏ dấu) trong tên, để chấm điểm khớp cả cụm
+    private final String[][] nameWords;
+    // tiền tố -> các hoạt động có từ bắt đầu bằng tiền tố đó, tăng dần theo vị trí
+    private final Map<String, Postings> index;
+
+    private static class Postings {
+        final int[] docs;
+        final int[] scores;
+
+        Postings(int[] docs, int[] scores) {
+            this.docs = docs;
+            this.scores = scores;
+        }
+    }
+
+    public ActivitySearchIndex(List<Activity> activities) {
+        this.activities = new ArrayList<>(activities);
+        this.nameWords = new String[this.activities.size()][];
+
+        Map<String, Map<Integer, Integer>> building = new HashMap<>();
+        for (int doc = 0; doc < this.activities.size(); doc++) {
+            Activity activity = this.activities.get(doc);
+            nameWords[doc] = tokenize(fold(activity.getName()));
+            addTokens(building, doc, nameWords[doc], NAME_EXACT, NAME_PREFIX);
+            addTokens(building, doc, tokenize(fold(activity.getDescription())), DESCRIPTION_EXACT, DESCRIPTION_PREFIX);
+        }
+
+        index = new HashMap<>(building.size() * 2);
+        for (Map.Entry<String, Map<Integer, Integer>> entry : building.entrySet()) {
+            Integer[] docs = entry.getValue().keySet().toArray(new Integer[0]);
+            Arrays.sort(docs);
+            int[] docArray = new int[docs.length];
+            int[] scoreArray = new int[docs.length];
+            for (int i = 0; i < docs.length; i++) {
+                docArray[i] = docs[i];
+                scoreArray[i] = entry.getValue().get(docs[i]);
+            }
+            index.put(entry.getKey(), new Postings(docArray, scoreArray));
+        }
+    }
+
+    public int size() {
+        return activities.size();
+    }
+
+    /**
+     * Các hoạt động khớp với query, tốt nhất trước; cùng điểm thì giữ thứ tự catalog.
+     * Query rỗng trả về toàn bộ catalog
+     */
+    public List<Activity> search(String query) {
+        String foldedQuery = fold(query);
+        String[] terms = tokenize(foldedQuery);
+        if (terms.length == 0) {
+            return Collections.unmodifiableList(activities);
+        }
+
+        // Giao các danh sách posting, bắt đầu từ danh sách ngắn nhất
+        Postings[] postings = new Postings[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            Postings p = index.get(terms[i]);
+            postings[i] = p != null ? p : EMPTY;
+        }
+        Arrays.sort(postings, (a, b) -> Integer.compare(a.docs.length, b.docs.length));
+
+        Postings shortest = postings[0];
+        int[] matchDocs = new int[shortest.docs.length];
+        int[] matchScores = new int[shortest.docs.length];
+        int matches = 0;
+        for (int i = 0; i < shortest.docs.length; i++) {
+            int doc = shortest.docs[i];
+            int score = shortest.scores[i];
+            for (int t = 1; t < postings.length && score > 0; t++) {
+                int position = Arrays.binarySearch(postings[t].docs, doc);
+                score = position >= 0 ? score + postings[t].scores[position] : 0;
+            }
+            if (score > 0) {
+                if (terms.length > 1 && containsPhrase(nameWords[doc], terms)) {
+                    score += NAME_PHRASE;
+                }
+                matchDocs[matches] = doc;
+                matchScores[matches] = score;
+                matches++;
+            }
+        }
+
+        Integer[] order = new Integer[matches];
+        for (int i = 0; i < matches; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> matchScores[a] != matchScores[b]
+                ? Integer.compare(matchScores[b], matchScores[a])
+                : Integer.compare(matchDocs[a], matchDocs[b]));
+
+        List<Activity> results = new ArrayList<>(matches);
+        for (Integer i : order) {
+            results.add(activities.get(matchDocs[i]));
+        }
+        return results;
+    }
+
+    private static void addTokens(Map<String, Map<Integer, Integer>> building, int doc, String[] tokens,
+                                  int exactScore, int prefixScore) {
+        for (String token : tokens) {
+            for (int length = 1; length <= token.length(); length++) {
+                String prefix = token.substring(0, length);
+                int score = length == token.length() ? exactScore : prefixScore;
+                Map<Integer, Integer> docs = building.get(prefix);
+                if (docs == null) {
+                    docs = new HashMap<>();
+                    building.put(prefix, docs);
+                }
+                Integer current = docs.get(doc);
+                if (current == null || current < score) {
+                    docs.put(doc, score);
+                }
+            }
+        }
+    }
+
+    // Các từ của truy vấn liền nhau trong tên (từ cuối có thể chỉ là tiền tố)
+    private static boolean containsPhrase(String[] words, String[] terms) {
+        for (int start = 0; start + terms.length <= words.length; start++) {
+            boolean match = true;
+            for (int t = 0; t < terms.length && match; t++) {
+                String word = words[start + t];
+                match = t == terms.length - 1 ? word.startsWith(terms[t]) : word.equals(terms[t]);
+            }
+            if (match) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Chữ thường, bỏ dấu tiếng Việt (kể cả đ -> d); ký tự không phải chữ/số thành khoảng trắng
+     */
+    static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (c == 'đ') {
+                folded.append('d');
+            } else if (Character.isLetterOrDigit(c)) {
+                folded.append(c);
+            } else {
+                folded.append(' ');
+            }
+        }
+        return folded.toString();
+    }
+
+    private static String[] tokenize(String folded) {
+        String trimmed = folded.trim();
+        return trimmed.isEmpty() ? new String[0] : trimmed.split(" +");
+    }
+}
@@ -12,7 +12,7 @@ import androidx.cardview.widget.CardView;
 public class AdminActivity extends AppCompatActivity {
     private TextView tvAdminName, tvTotalUsers, tvTotalActivities, tvTotalCompleted, tvTotalPoints;
     private CardView cardManageActivities, cardManageUsers, cardStatistics, cardDatabaseManager, cardLogout;
-    private DatabaseHelper db;
+    private DatabaseRepository repository;
     private int adminId;
 
     @Override
@@ -20,7 +20,7 @@ public class AdminActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_admin);
 
-        db = new DatabaseHelper(this);
+        repository = AppContainer.from(this).getRepository();
         
         // Get admin info from session
         SharedPreferences prefs = getSharedPreferences("EcoTrackPrefs", MODE_PRIVATE);
@@ -49,23 +49,30 @@ public class AdminActivity extends AppCompatActivity {
     }
 
     private void loadStatistics() {
-        // Count total users (excluding admin)
-        int totalUsers = db.getTotalUsers();
-        tvTotalUsers.setText(String.valueOf(totalUsers));
-
-        // Count total activities
-        Cursor activitiesCursor = db.getAllActivities();
-        int totalActivities = activitiesCursor != null ? activitiesCursor.getCount() : 0;
-        tvTotalActivities.setText(String.valueOf(totalActivities));
-        if (activitiesCursor != null) activitiesCursor.close();
-
-        // Count completed activities
-        int totalCompleted = db.getTotalCompletedActivities();
-        tvTotalCompleted.setText(String.valueOf(totalCompleted));
-        
-        // Total points of all users
-        int totalPoints = db.getTotalPointsAllUsers();
-        tvTotalPoints.setText(String.valueOf(totalPoints));
+        repository.execute(db -> {
+            int[] stats = new int[4];
+            // Count total users (excluding admin)
+            stats[0] = db.getTotalUsers();
+
+            // Count total activities
+            Cursor activitiesCursor = db.getAllActivities();
+            stats[1] = activitiesCursor != null ? activitiesCursor.getCount() : 0;
+            if (activitiesCursor != null) activitiesCursor.close();
+
+            // Count completed activities
+            stats[2] = db.getTotalCompletedActivities();
+
+            // Total points of all users
+            stats[3] = db.getTotalPointsAllUsers();
+            return stats;
+        }, stats -> {
+            if (isFinishing()) return;
+
+            tvTotalUsers.setText(String.valueOf(stats[0]));
+            tvTotalActivities.setText(String.valueOf(stats[1]));
+            tvTotalCompleted.setText(String.valueOf(stats[2]));
+            tvTotalPoints.setText(String.valueOf(stats[3]));
+        });
     }
 
     private void setupListeners() {
@@ -93,6 +100,7 @@ public class AdminActivity extends AppCompatActivity {
     }
 
     private void logout() {
+        AppContainer.from(this).getCompletionOutbox().setOwner(null);
         SharedPreferences prefs = getSharedPreferences("EcoTrackPrefs", MODE_PRIVATE);
         SharedPreferences.Editor editor = prefs.edit();
         editor.clear();
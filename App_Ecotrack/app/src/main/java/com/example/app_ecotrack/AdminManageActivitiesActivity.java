@@ -12,7 +12,7 @@ public class AdminManageActivitiesActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_admin_manage_activities);
 
-        db = new DatabaseHelper(this);
+        db = AppContainer.from(this).getDatabase();
         
         // Setup toolbar with back button
         Toolbar toolbar = findViewById(R.id.toolbar);
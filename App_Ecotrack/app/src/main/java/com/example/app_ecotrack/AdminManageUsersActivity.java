@@ -12,7 +12,7 @@ public class AdminManageUsersActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_admin_manage_users);
 
-        db = new DatabaseHelper(this);
+        db = AppContainer.from(this).getDatabase();
         
         Toolbar toolbar = findViewById(R.id.toolbar);
         if (toolbar != null) {
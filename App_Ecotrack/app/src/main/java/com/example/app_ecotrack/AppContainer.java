@@ -0,0 +1,142 @@
+package com.example.app_ecotrack;
+
+import android.content.Context;
+
+import com.example.app_ecotrack.api.ApiClient;
+import com.example.app_ecotrack.api.ApiService;
+import com.example.app_ecotrack.api.AsyncApiService;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Các đối tượng dùng chung cho toàn app, do EcoTrackApplication giữ và chỉ dựng khi được dùng lần đầu:
+ * một DatabaseHelper (một connection pool cho file EcoTrack.db, chỉ giữ application context),
+ * ApiService, các executor nền và các bộ đệm (catalog hoạt động, hàng đợi hoàn thành, huy hiệu).
+ *
+ * Activity và fragment lấy phụ thuộc qua {@code AppContainer.from(context)} thay vì tự tạo;
+ * không ai được close() các đối tượng này, chúng sống cùng tiến trình.
+ * Các getter an toàn khi gọi từ nhiều luồng; mỗi phụ thuộc được dựng dưới khóa riêng.
+ */
+public class AppContainer {
+    private final Context appContext;
+
+    // Mỗi phụ thuộc có khóa riêng: đang dựng một thứ (vd. hàng đợi hoàn thành trên luồng nền)
+    // không bắt luồng UI chờ khi lấy thứ khác
+    private final Lazy<DatabaseHelper> database = new Lazy<>(() -> new DatabaseHelper(this.appContext));
+    private final Lazy<DatabaseRepository> repository =
+            new Lazy<>(() -> new DatabaseRepository(getDatabase(), getDatabaseExecutor()));
+    // Truy vấn SQLite của DatabaseRepository
+    private final Lazy<ExecutorService> databaseExecutor =
+            new Lazy<>(() -> Executors.newFixedThreadPool(2, runnable -> newThread(runnable, "ecotrack-db")));
+    // Dựng chỉ mục và chạy truy vấn tìm kiếm hoạt động, lần lượt từng việc
+    private final Lazy<ExecutorService> searchExecutor =
+            new Lazy<>(() -> Executors.newSingleThreadExecutor(runnable -> newThread(runnable, "ecotrack-search")));
+    private final Lazy<CompletionOutbox> completionOutbox = new Lazy<>(this::createCompletionOutbox);
+    private final Lazy<ActivityCatalog> activityCatalog =
+            new Lazy<>(() -> new ActivityCatalog(getDatabase(), getApiService()));
+    private final Lazy<AchievementEngine> achievementEngine = new Lazy<>(this::createAchievementEngine);
+
+    AppContainer(Context context) {
+        this.appContext = context.getApplicationContext();
+    }
+
+    public static AppContainer from(Context context) {
+        return ((EcoTrackApplication) context.getApplicationContext()).getContainer();
+    }
+
+    public DatabaseHelper getDatabase() {
+        return database.get();
+    }
+
+    public ApiService getApiService() {
+        // ApiClient giữ Retrofit và bộ đệm HTTP; init() trước để bộ đệm có hiệu lực ngay lần gọi đầu
+        ApiClient.init(appContext);
+        return ApiClient.getApiService();
+    }
+
+    public AsyncApiService getAsyncApiService() {
+        ApiClient.init(appContext);
+        return ApiClient.getAsyncApiService();
+    }
+
+    public DatabaseRepository getRepository() {
+        return repository.get();
+    }
+
+    public ExecutorService getDatabaseExecutor() {
+        return databaseExecutor.get();
+    }
+
+    public ExecutorService getSearchExecutor() {
+        return searchExecutor.get();
+    }
+
+    // Dựng DatabaseHelper, đọc SharedPreferences và đăng ký theo dõi mạng ở lần gọi đầu: EcoTrackApplication
+    // gọi trước trên databaseExecutor, nên activity trên luồng chính nhận lại bản đã dựng sẵn
+    public CompletionOutbox getCompletionOutbox() {
+        return completionOutbox.get();
+    }
+
+    public ActivityCatalog getActivityCatalog() {
+        return activityCatalog.get();
+    }
+
+    // Đọc file luật từ assets ở lần gọi đầu: gọi trên luồng nền
+    public AchievementEngine getAchievementEngine() {
+        return achievementEngine.get();
+    }
+
+    private CompletionOutbox createCompletionOutbox() {
+        CompletionOutbox outbox = new CompletionOutbox(getDatabase(), getApiService(), this::getAchievementEngine);
+        outbox.watchConnectivity(appContext);
+        // Tài khoản đã đăng nhập từ lần chạy trước; LoginActivity/đăng xuất đổi lại sau đó
+        outbox.setOwner(appContext.getSharedPreferences("EcoTrackPrefs", Context.MODE_PRIVATE)
+                .getString("userId", null));
+        return outbox;
+    }
+
+    private AchievementEngine createAchievementEngine() {
+        try (Reader reader = new InputStreamReader(appContext.getAssets().open(AchievementRules.ASSET),
+                StandardCharsets.UTF_8)) {
+            return new AchievementEngine(getDatabase(), AchievementRules.parse(reader));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read " + AchievementRules.ASSET, e);
+        }
+    }
+
+    // Dựng giá trị ở lần get() đầu tiên, dưới khóa của riêng nó; các lần sau chỉ đọc field volatile
+    private static final class Lazy<T> {
+        private final Supplier<T> factory;
+        private volatile T value;
+
+        Lazy(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        T get() {
+            T result = value;
+            if (result == null) {
+                synchronized (this) {
+                    result = value;
+                    if (result == null) {
+                        result = factory.get();
+                        value = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    private static Thread newThread(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.app_ecotrack;
+
+public class CategoryStat {
+    private String category;
+    private int count;
+    private int points;
+
+    // Constructor rỗng
+    public CategoryStat() {
+    }
+
+    // Constructor đầy đủ
+    public CategoryStat(String category, int count, int points) {
+        this.category = category;
+        this.count = count;
+        this.points = points;
+    }
+
+    // Getters
+    public String getCategory() {
+        return category;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    // Setters
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public void setPoints(int points) {
+        this.points = points;
+    }
+}
@@ -0,0 +1,373 @@
+package com.example.app_ecotrack;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.app_ecotrack.api.ApiService;
+import com.example.app_ecotrack.api.models.BatchCompleteRequest;
+import com.example.app_ecotrack.api.models.BatchCompleteResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import retrofit2.Response;
+
+/**
+ * Hàng đợi (lưu trong SQLite) các lần hoàn thành hoạt động chưa gửi lên server.
+ * UI ghi nhận ngay, một luồng nền gửi theo lô qua api/activities/complete-batch, thử lại với
+ * thời gian chờ tăng dần khi lỗi mạng/server và gửi ngay khi có mạng trở lại. Lô bị từ chối (4xx)
+ * thì không gửi lại: mục lỗi bị bỏ, còn 401/403 thì chờ tới lần đăng nhập sau.
+ * Mỗi lần hoàn thành có client_id riêng nên gửi lại nhiều lần cũng không bị cộng điểm trùng.
+ * Bộ đếm huy hiệu chỉ được cộng khi server nhận lần hoàn thành (completed/duplicate).
+ *
+ * Mỗi dòng thuộc về tài khoản đã ghi nhận nó (owner_id = userId trên server). Hàng đợi chỉ
+ * gửi, đếm điểm và tra cứu các dòng của tài khoản đang đăng nhập (setOwner); dòng của tài
+ * khoản khác được giữ lại tới khi tài khoản đó đăng nhập lại.
+ * Chỉ có một hàng đợi cho cả app, lấy qua AppContainer.getCompletionOutbox().
+ */
+public class CompletionOutbox {
+    private static final String TAG = "CompletionOutbox";
+    static final int BATCH_SIZE = 20;
+    private static final long BASE_BACKOFF_MS = 5_000;
+    private static final long MAX_BACKOFF_MS = 15 * 60_000;
+    // send() trả về giá trị này khi phải dừng lượt gửi hiện tại
+    private static final int STOP = -1;
+
+    public interface Listener {
+        // Gọi trên luồng UI sau khi server xác nhận một lô, kèm tổng điểm/level mới
+        void onCompletionsSynced(int totalPoints, int level);
+
+        // Gọi trên luồng UI khi các lần hoàn thành server vừa nhận mở khóa huy hiệu mới
+        default void onAchievementsUnlocked(List<Achievement> unlocked) {
+        }
+    }
+
+    private final DatabaseHelper db;
+    private final ApiService api;
+    // Dựng ở lần dùng đầu trên luồng của hàng đợi (đọc file luật từ assets)
+    private final Supplier<AchievementEngine> achievements;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ecotrack-outbox");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Random random = new Random();
+
+    // Tài khoản đang đăng nhập, null khi đã đăng xuất
+    private volatile String ownerId;
+    // Tài khoản có token bị server từ chối (401/403): ngừng gửi tới khi đăng nhập lại
+    private volatile String pausedOwner;
+    // Bản sao trong bộ nhớ (chỉ các dòng của ownerId) để UI tra cứu không cần đọc database
+    private final Map<String, PendingCompletion> pending = new HashMap<>();
+    private ScheduledFuture<?> scheduledDrain;
+
+    CompletionOutbox(DatabaseHelper db, ApiService api, Supplier<AchievementEngine> achievements) {
+        this.db = db;
+        this.api = api;
+        this.achievements = achievements;
+    }
+
+    /**
+     * Đổi tài khoản đang đăng nhập (null khi đăng xuất). Điểm chờ của tài khoản cũ biến mất
+     * khỏi UI ngay; các dòng của tài khoản mới được nạp và gửi trên luồng nền
+     */
+    public void setOwner(String ownerId) {
+        switchOwner(ownerId);
+    }
+
+    Future<?> switchOwner(String ownerId) {
+        synchronized (pending) {
+            this.ownerId = ownerId;
+            this.pausedOwner = null;
+            pending.clear();
+        }
+        return executor.submit(() -> {
+            if (ownerId != null) {
+                db.claimUnownedCompletions(ownerId);
+                List<PendingCompletion> completions = db.getPendingCompletions(ownerId);
+                synchronized (pending) {
+                    // Bỏ qua nếu tài khoản đã đổi lần nữa trong lúc đọc
+                    if (ownerId.equals(this.ownerId)) {
+                        for (PendingCompletion completion : completions) {
+                            pending.put(completion.getClientId(), completion);
+                        }
+                    }
+                }
+            }
+            drain();
+        });
+    }
+
+    void watchConnectivity(Context context) {
+        ConnectivityManager connectivityManager =
+                (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (connectivityManager == null) {
+            return;
+        }
+        connectivityManager.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+            @Override
+            public void onAvailable(Network network) {
+                requestDrain();
+            }
+        });
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Ghi nhận một lần hoàn thành của tài khoản đang đăng nhập và trả về client_id (khóa idempotency) của nó
+     */
+    public String enqueue(String activityApiId, int points) {
+        PendingCompletion completion = new PendingCompletion(UUID.randomUUID().toString(), activityApiId,
+                points, System.currentTimeMillis(), 0);
+        String owner;
+        synchronized (pending) {
+            owner = ownerId;
+            if (owner == null) {
+                throw new IllegalStateException("No signed-in account to record the completion for");
+            }
+            pending.put(completion.getClientId(), completion);
+        }
+        executor.execute(() -> {
+            db.enqueueCompletion(owner, completion.getClientId(), activityApiId, points, completion.getCompletedAtMs());
+            DataVersion.bump();
+            drain();
+        });
+        return completion.getClientId();
+    }
+
+    // Tổng điểm của các lần hoàn thành chưa được server xác nhận
+    public int getPendingPoints() {
+        int points = 0;
+        synchronized (pending) {
+            for (PendingCompletion completion : pending.values()) {
+                points += completion.getPoints();
+            }
+        }
+        return points;
+    }
+
+    // Hoạt động đã được hoàn thành hôm nay nhưng chưa gửi lên server
+    public boolean isPendingToday(String activityApiId) {
+        long today = DatabaseHelper.toEpochDay(System.currentTimeMillis());
+        synchronized (pending) {
+            for (PendingCompletion completion : pending.values()) {
+                if (completion.getActivityApiId().equals(activityApiId)
+                        && DatabaseHelper.toEpochDay(completion.getCompletedAtMs()) == today) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public void requestDrain() {
+        executor.execute(this::drain);
+    }
+
+    private void drain() {
+        drainOnce(System.currentTimeMillis());
+        scheduleNextDrain();
+    }
+
+    private void scheduleNextDrain() {
+        if (scheduledDrain != null) {
+            scheduledDrain.cancel(false);
+            scheduledDrain = null;
+        }
+        String owner = ownerId;
+        long next = owner != null && !owner.equals(pausedOwner) ? db.getNextCompletionAttempt(owner) : -1;
+        if (next >= 0) {
+            long delay = Math.max(0, next - System.currentTimeMillis());
+            scheduledDrain = executor.schedule(this::drain, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Gửi lần lượt các lô đã đến hạn của tài khoản đang đăng nhập cho tới khi hàng đợi trống,
+     * gặp lỗi hoặc tài khoản thay đổi. Chạy trên luồng gọi; trả về số lần hoàn thành đã được
+     * server xác nhận.
+     */
+    int drainOnce(long now) {
+        String owner = ownerId;
+        int synced = 0;
+        while (owner != null && owner.equals(ownerId) && !owner.equals(pausedOwner)) {
+            List<PendingCompletion> batch = db.getDueCompletions(owner, now, BATCH_SIZE);
+            if (batch.isEmpty()) {
+                return synced;
+            }
+            int acknowledged = send(owner, batch, now);
+            if (acknowledged == STOP) {
+                return synced;
+            }
+            synced += acknowledged;
+        }
+        return synced;
+    }
+
+    /**
+     * Gửi một lô và xử lý kết quả. Trả về số mục được server xác nhận, hoặc STOP khi lỗi mạng,
+     * lỗi tạm thời của server (5xx, 408, 429) hay token bị từ chối
+     */
+    private int send(String owner, List<PendingCompletion> batch, long now) {
+        BatchCompleteRequest request = new BatchCompleteRequest();
+        for (PendingCompletion completion : batch) {
+            request.completions.add(new BatchCompleteRequest.Completion(
+                    completion.getClientId(), completion.getActivityApiId(), completion.getCompletedAtMs()));
+        }
+
+        Response<BatchCompleteResponse> response;
+        try {
+            response = api.completeActivities(request).execute();
+        } catch (IOException e) {
+            Log.d(TAG, "Batch upload failed, retrying later: " + e.getMessage());
+            backOff(batch, now);
+            return STOP;
+        }
+
+        int code = response.code();
+        if (code == 401 || code == 403) {
+            // Gửi lại với cùng token cũng bị từ chối: giữ nguyên các dòng, gửi tiếp khi đăng nhập lại
+            Log.w(TAG, "Batch upload rejected with HTTP " + code + ", waiting for the next sign-in");
+            pausedOwner = owner;
+            return STOP;
+        }
+        if (code >= 400 && code < 500 && code != 408 && code != 429) {
+            return reject(owner, batch, now, code);
+        }
+
+        BatchCompleteResponse body = response.body();
+        if (!response.isSuccessful() || body == null || body.results == null) {
+            Log.w(TAG, "Batch upload failed with HTTP " + code + ", retrying later");
+            backOff(batch, now);
+            return STOP;
+        }
+
+        // Mọi trạng thái server trả về đều là kết quả cuối cùng; mục không có trong kết quả thì gửi lại sau
+        List<String> acknowledged = new ArrayList<>();
+        for (BatchCompleteResponse.Result result : body.results) {
+            if (result.clientId != null) {
+                acknowledged.add(result.clientId);
+            }
+        }
+        remove(acknowledged);
+        recordAccepted(owner, batch, body.results, now);
+
+        List<PendingCompletion> missing = new ArrayList<>();
+        for (PendingCompletion completion : batch) {
+            if (!acknowledged.contains(completion.getClientId())) {
+                missing.add(completion);
+            }
+        }
+        if (!missing.isEmpty()) {
+            backOff(missing, now);
+        }
+
+        if (!acknowledged.isEmpty()) {
+            // Không có mục nào được xác nhận thì totalPoints/level trả về chưa chắc phản ánh gì mới
+            notifySynced(body.totalPoints, body.level);
+        }
+        return acknowledged.size();
+    }
+
+    /**
+     * Server từ chối cả lô (4xx): gửi lại thì vẫn bị từ chối, nên chia đôi lô để tìm mục lỗi
+     * và bỏ hẳn mục bị từ chối khi gửi riêng, thay vì hẹn gửi lại mãi và chặn cả hàng đợi
+     */
+    private int reject(String owner, List<PendingCompletion> batch, long now, int code) {
+        if (batch.size() == 1) {
+            Log.w(TAG, "Dropping completion " + batch.get(0).getClientId() + " rejected with HTTP " + code);
+            remove(Collections.singletonList(batch.get(0).getClientId()));
+            return 0;
+        }
+        int middle = batch.size() / 2;
+        int first = send(owner, batch.subList(0, middle), now);
+        if (first == STOP) {
+            return STOP;
+        }
+        int second = send(owner, batch.subList(middle, batch.size()), now);
+        return second == STOP ? STOP : first + second;
+    }
+
+    // Cộng bộ đếm huy hiệu cho các lần hoàn thành server đã nhận; not_found/invalid không được tính
+    private void recordAccepted(String owner, List<PendingCompletion> batch, List<BatchCompleteResponse.Result> results,
+                                long now) {
+        Map<String, PendingCompletion> byClientId = new HashMap<>();
+        for (PendingCompletion completion : batch) {
+            byClientId.put(completion.getClientId(), completion);
+        }
+        List<Achievement> unlocked = new ArrayList<>();
+        for (BatchCompleteResponse.Result result : results) {
+            PendingCompletion completion = byClientId.get(result.clientId);
+            if (completion == null || !("completed".equals(result.status) || "duplicate".equals(result.status))) {
+                continue;
+            }
+            String category = db.getCatalogCategory(completion.getActivityApiId());
+            unlocked.addAll(achievements.get().recordCompletion(owner, category, result.pointsEarned, now));
+        }
+        if (!unlocked.isEmpty()) {
+            for (Listener listener : listeners) {
+                mainHandler.post(() -> listener.onAchievementsUnlocked(unlocked));
+            }
+        }
+    }
+
+    // Xóa các mục đã có kết quả cuối cùng khỏi database và khỏi bản sao trong bộ nhớ
+    private void remove(List<String> clientIds) {
+        if (clientIds.isEmpty()) {
+            return;
+        }
+        db.deleteCompletions(clientIds);
+        synchronized (pending) {
+            for (String clientId : clientIds) {
+                pending.remove(clientId);
+            }
+        }
+        DataVersion.bump();
+    }
+
+    /**
+     * Hẹn gửi lại từng mục sau BASE_BACKOFF_MS * 2^attempts của chính mục đó (tối đa MAX_BACKOFF_MS),
+     * cộng thêm tới 20% ngẫu nhiên để nhiều máy không cùng thử lại một lúc
+     */
+    private void backOff(List<PendingCompletion> batch, long now) {
+        Map<String, Long> nextAttempts = new HashMap<>();
+        for (PendingCompletion completion : batch) {
+            long delay = Math.min(MAX_BACKOFF_MS, BASE_BACKOFF_MS << Math.min(completion.getAttempts(), 20));
+            delay += (long) (delay * 0.2 * random.nextDouble());
+            nextAttempts.put(completion.getClientId(), now + delay);
+        }
+        db.rescheduleCompletions(nextAttempts);
+    }
+
+    private void notifySynced(int totalPoints, int level) {
+        for (Listener listener : listeners) {
+            mainHandler.post(() -> listener.onCompletionsSynced(totalPoints, level));
+        }
+    }
+}
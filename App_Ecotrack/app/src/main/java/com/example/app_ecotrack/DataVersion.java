@@ -0,0 +1,23 @@
+package com.example.app_ecotrack;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Phiên bản dữ liệu thống kê của user trong tiến trình.
+ * Tăng mỗi khi một lần hoàn thành, một lần đồng bộ hoặc thao tác quản trị làm thay đổi điểm,
+ * lịch sử hay xếp hạng; UserStatsViewModel chỉ tính lại UserStatsSnapshot khi số này đổi.
+ */
+public final class DataVersion {
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    private DataVersion() {
+    }
+
+    public static long current() {
+        return VERSION.get();
+    }
+
+    public static void bump() {
+        VERSION.incrementAndGet();
+    }
+}
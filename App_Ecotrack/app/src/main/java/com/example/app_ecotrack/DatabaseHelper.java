@@ -4,31 +4,156 @@ import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
 import android.util.Log;
 import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
 
 public class DatabaseHelper extends SQLiteOpenHelper {
     private static final String DATABASE_NAME = "EcoTrack.db";
-    private static final int DATABASE_VERSION = 3; // Tăng version để trigger onUpgrade và load từ SQL file
+    private static final int DATABASE_VERSION = 12; // Tăng version và thêm bước mới trong DatabaseMigrations
     private static final String TAG = "DatabaseHelper";
 
     // Tables
     private static final String TABLE_USERS = "users";
     private static final String TABLE_ACTIVITIES = "activities";
     private static final String TABLE_USER_ACTIVITIES = "user_activities";
+
+    // Bảng tổng hợp điểm theo ngày / tuần ISO / tháng, cập nhật mỗi lần hoàn thành hoạt động
+    static final String TABLE_DAILY_STATS = "user_daily_stats";
+    static final String TABLE_WEEKLY_STATS = "user_weekly_stats";
+    static final String TABLE_MONTHLY_STATS = "user_monthly_stats";
+
+    // Các lần hoàn thành đang chờ gửi lên server, theo tài khoản đã ghi nhận. Không bị xóa khi reset database
+    static final String TABLE_COMPLETION_OUTBOX = "completion_outbox";
+
+    // Bản đệm lịch sử hoạt động lấy từ server, theo từng tài khoản. Không bị xóa khi reset database
+    static final String TABLE_HISTORY_CACHE = "history_cache";
+    static final String TABLE_HISTORY_CACHE_STATE = "history_cache_state";
+
+    // Catalog hoạt động từ server theo id chuỗi, đồng bộ delta theo mốc updatedAt. Không bị xóa khi reset database
+    static final String TABLE_ACTIVITY_CATALOG = "activity_catalog";
+    static final String TABLE_ACTIVITY_CATALOG_STATE = "activity_catalog_state";
+
+    // Bộ đếm và huy hiệu đã mở khóa của từng tài khoản (AchievementEngine). Không bị xóa khi reset database
+    static final String TABLE_USER_COUNTERS = "user_counters";
+    static final String TABLE_USER_ACHIEVEMENTS = "user_achievements";
+
+    static final String[] CATEGORIES = {"transport", "energy", "water", "waste", "green", "consumption"};
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
     
     private Context context;
 
+    // Câu lệnh biên dịch sẵn cho completeActivity
+    private SQLiteStatement categoryLookupStatement;
+    private SQLiteStatement insertCompletionStatement;
+    private SQLiteStatement addPointsStatement;
+    private SQLiteStatement[] insertStatsStatements;
+    private SQLiteStatement[] updateStatsStatements;
+
+    private static final String PREBUILT_DATABASE_ASSET = "databases/" + DATABASE_NAME;
+    private static final Object INSTALL_LOCK = new Object();
+
+    // Chỉ file EcoTrack.db mới dùng database dựng sẵn; đã kiểm tra thì không xem lại file nữa
+    private final boolean usesPrebuiltDatabase;
+    private volatile boolean prebuiltDatabaseChecked;
+
     public DatabaseHelper(Context context) {
-        super(context, DATABASE_NAME, null, DATABASE_VERSION);
-        this.context = context;
+        this(context, DATABASE_NAME);
+    }
+
+    /**
+     * {@code name} = null: database trong bộ nhớ, tạo từ file SQL và mất khi close() (dùng cho test)
+     */
+    DatabaseHelper(Context context, String name) {
+        super(context, name, null, DATABASE_VERSION);
+        // Chỉ giữ application context để helper không giữ lại Activity đã đóng
+        this.context = context.getApplicationContext();
+        this.usesPrebuiltDatabase = DATABASE_NAME.equals(name);
+        // WAL: đọc thống kê không phải chờ các lần ghi completeActivity
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    // Việc sao chép database dựng sẵn đi cùng lần mở database đầu tiên (trên luồng nền của
+    // DatabaseRepository), không nằm trong constructor vốn có thể chạy trên main thread
+    @Override
+    public SQLiteDatabase getWritableDatabase() {
+        ensurePrebuiltDatabase();
+        return super.getWritableDatabase();
+    }
+
+    @Override
+    public SQLiteDatabase getReadableDatabase() {
+        ensurePrebuiltDatabase();
+        return super.getReadableDatabase();
+    }
+
+    private void ensurePrebuiltDatabase() {
+        if (usesPrebuiltDatabase && !prebuiltDatabaseChecked) {
+            installPrebuiltDatabase(context);
+            prebuiltDatabaseChecked = true;
+        }
+    }
+
+    /**
+     * Lần chạy đầu tiên: sao chép database dựng sẵn lúc build (schema gốc + dữ liệu mẫu) từ assets,
+     * ngay trước khi database được mở. Các migration mới hơn sẽ chạy trong onUpgrade sau đó.
+     * Nếu không có asset thì onCreate sẽ tạo database từ file SQL như cũ.
+     */
+    private static void installPrebuiltDatabase(Context context) {
+        File dbFile = context.getDatabasePath(DATABASE_NAME);
+        if (dbFile.exists()) {
+            return;
+        }
+
+        synchronized (INSTALL_LOCK) {
+            if (dbFile.exists()) {
+                return;
+            }
+
+            File parent = dbFile.getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            File tempFile = new File(dbFile.getPath() + ".tmp");
+            try (InputStream in = context.getAssets().open(PREBUILT_DATABASE_ASSET);
+                 OutputStream out = new FileOutputStream(tempFile)) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                Log.d(TAG, "No prebuilt database, creating from SQL file: " + e.getMessage());
+                tempFile.delete();
+                return;
+            }
+
+            if (!tempFile.renameTo(dbFile)) {
+                Log.e(TAG, "Could not install prebuilt database");
+                tempFile.delete();
+            }
+        }
     }
 
     @Override
@@ -44,45 +169,56 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             // Fallback: tạo database theo cách cũ
             createDatabaseManually(db);
         }
+
+        // Áp dụng các migration từ schema gốc lên version hiện tại
+        DatabaseMigrations.migrate(db, DatabaseMigrations.BASE_VERSION, DATABASE_VERSION);
     }
     
     /**
-     * Đọc và thực thi file SQL từ thư mục assets
+     * Đọc và thực thi file SQL từ thư mục assets. onCreate đã chạy trong transaction của
+     * SQLiteOpenHelper nên cả file vẫn được ghi một lần, không mở transaction lồng ở đây.
+     * File được đọc hết trước khi thực thi: lỗi đọc file xảy ra khi database còn trống nên
+     * createDatabaseManually vẫn chạy được; lỗi của từng câu lệnh chỉ được ghi log.
      */
     private void executeSqlFromAssets(SQLiteDatabase db, String sqlFileName) throws IOException {
-        InputStream inputStream = context.getAssets().open(sqlFileName);
-        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
-        
-        StringBuilder sqlBuilder = new StringBuilder();
-        String line;
-        
-        while ((line = reader.readLine()) != null) {
-            // Bỏ qua comment và dòng trống
-            line = line.trim();
-            if (line.isEmpty() || line.startsWith("--")) {
-                continue;
-            }
-            
-            sqlBuilder.append(line).append(" ");
-            
-            // Nếu gặp dấu ; thì thực thi câu lệnh SQL
-            if (line.endsWith(";")) {
-                String sql = sqlBuilder.toString().trim();
-                if (!sql.isEmpty()) {
-                    try {
-                        db.execSQL(sql);
-                        Log.d(TAG, "Executed SQL: " + sql.substring(0, Math.min(50, sql.length())) + "...");
-                    } catch (Exception e) {
-                        Log.e(TAG, "Error executing SQL: " + sql);
-                        Log.e(TAG, "Error: " + e.getMessage());
+        List<String> statements = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(context.getAssets().open(sqlFileName)))) {
+            StringBuilder sqlBuilder = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Bỏ qua comment và dòng trống
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("--")) {
+                    continue;
+                }
+
+                sqlBuilder.append(line).append(" ");
+
+                // Nếu gặp dấu ; thì kết thúc một câu lệnh SQL
+                if (line.endsWith(";")) {
+                    String sql = sqlBuilder.toString().trim();
+                    if (!sql.isEmpty()) {
+                        statements.add(sql);
                     }
+                    sqlBuilder.setLength(0); // Clear builder
                 }
-                sqlBuilder.setLength(0); // Clear builder
             }
         }
-        
-        reader.close();
-        inputStream.close();
+
+        int executed = 0;
+        int failed = 0;
+        for (String sql : statements) {
+            try {
+                db.execSQL(sql);
+                executed++;
+            } catch (Exception e) {
+                failed++;
+                Log.e(TAG, "Error executing SQL: " + sql);
+                Log.e(TAG, "Error: " + e.getMessage());
+            }
+        }
+
+        Log.d(TAG, "Executed " + executed + " SQL statements (" + failed + " failed)");
     }
     
     /**
@@ -189,14 +325,35 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
         Log.d(TAG, "Upgrading database from version " + oldVersion + " to " + newVersion);
-        
-        // Xóa các bảng cũ
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_USER_ACTIVITIES);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_ACTIVITIES);
-        db.execSQL("DROP TABLE IF EXISTS " + TABLE_USERS);
-        
-        // Tạo lại database
-        onCreate(db);
+
+        if (oldVersion < DatabaseMigrations.BASE_VERSION) {
+            // Các version cũ hơn schema gốc không có migration, phải tạo lại database
+            recreateDatabase(db);
+            return;
+        }
+
+        // Nâng cấp từng bước, giữ nguyên dữ liệu người dùng
+        DatabaseMigrations.migrate(db, oldVersion, newVersion);
+    }
+
+    /**
+     * Xóa toàn bộ bảng và tạo lại từ file SQL
+     */
+    private void recreateDatabase(SQLiteDatabase db) {
+        db.beginTransaction();
+        try {
+            db.execSQL("DROP TABLE IF EXISTS " + TABLE_DAILY_STATS);
+            db.execSQL("DROP TABLE IF EXISTS " + TABLE_WEEKLY_STATS);
+            db.execSQL("DROP TABLE IF EXISTS " + TABLE_MONTHLY_STATS);
+            db.execSQL("DROP TABLE IF EXISTS " + TABLE_USER_ACTIVITIES);
+            db.execSQL("DROP TABLE IF EXISTS " + TABLE_ACTIVITIES);
+            db.execSQL("DROP TABLE IF EXISTS " + TABLE_USERS);
+
+            onCreate(db);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
     }
     
     /**
@@ -204,7 +361,8 @@ public class DatabaseHelper extends SQLiteOpenHelper {
      */
     public void resetDatabase() {
         SQLiteDatabase db = this.getWritableDatabase();
-        onUpgrade(db, DATABASE_VERSION, DATABASE_VERSION);
+        recreateDatabase(db);
+        DataVersion.bump();
     }
     
     /**
@@ -267,7 +425,11 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         values.put("created_at", getCurrentDateTime());
 
         long result = db.insert(TABLE_USERS, null, values);
-        return result != -1;
+        if (result == -1) {
+            return false;
+        }
+        DataVersion.bump();
+        return true;
     }
 
     public Cursor checkUser(String username, String password) {
@@ -283,25 +445,20 @@ public class DatabaseHelper extends SQLiteOpenHelper {
 
     public boolean updateUserPoints(int userId, int points) {
         SQLiteDatabase db = this.getWritableDatabase();
-        Cursor cursor = getUserById(userId);
-        if (cursor != null && cursor.moveToFirst()) {
-            int currentPoints = cursor.getInt(cursor.getColumnIndexOrThrow("points"));
-            int newPoints = currentPoints + points;
-            int newLevel = calculateLevel(newPoints);
-
-            ContentValues values = new ContentValues();
-            values.put("points", newPoints);
-            values.put("level", newLevel);
-
-            cursor.close();
-            int result = db.update(TABLE_USERS, values, "id=?", new String[]{String.valueOf(userId)});
-            return result > 0;
+        // Cộng điểm và tính level ngay trong SQL, không cần đọc điểm hiện tại ra trước
+        SQLiteStatement statement = db.compileStatement("UPDATE " + TABLE_USERS +
+                " SET points = points + ?1, level = (points + ?1) / 100 + 1 WHERE id=?2");
+        try {
+            statement.bindLong(1, points);
+            statement.bindLong(2, userId);
+            boolean updated = statement.executeUpdateDelete() > 0;
+            if (updated) {
+                DataVersion.bump();
+            }
+            return updated;
+        } finally {
+            statement.close();
         }
-        return false;
-    }
-
-    private int calculateLevel(int points) {
-        return (points / 100) + 1;
     }
 
     // Activity methods
@@ -343,53 +500,405 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     }
 
     // User Activity methods
-    public boolean completeActivity(int userId, int activityId, int pointsEarned) {
+
+    /**
+     * Ghi nhận một lần hoàn thành: thêm lịch sử, cộng điểm/level và cập nhật bảng tổng hợp
+     * trong cùng một transaction. Điểm được cộng trực tiếp bằng SQL nên các lần hoàn thành
+     * đồng thời (UI và đồng bộ) không ghi đè lên nhau.
+     */
+    public synchronized boolean completeActivity(int userId, int activityId, int pointsEarned) {
         SQLiteDatabase db = this.getWritableDatabase();
-        ContentValues values = new ContentValues();
-        values.put("user_id", userId);
-        values.put("activity_id", activityId);
-        values.put("completed_date", getCurrentDateTime());
-        values.put("points_earned", pointsEarned);
-
-        long result = db.insert(TABLE_USER_ACTIVITIES, null, values);
-        if (result != -1) {
-            updateUserPoints(userId, pointsEarned);
+        Date now = new Date();
+        long epochDay = toEpochDay(now.getTime());
+        String week = getIsoWeek(now);
+        String month = new SimpleDateFormat("yyyy-MM", Locale.US).format(now);
+        prepareCompletionStatements(db);
+
+        db.beginTransaction();
+        try {
+            categoryLookupStatement.bindLong(1, activityId);
+            String category;
+            try {
+                category = categoryLookupStatement.simpleQueryForString();
+            } catch (SQLiteDoneException e) {
+                category = null;
+            }
+
+            insertCompletionStatement.bindLong(1, userId);
+            insertCompletionStatement.bindLong(2, activityId);
+            insertCompletionStatement.bindString(3, formatDateTime(now));
+            insertCompletionStatement.bindLong(4, pointsEarned);
+            insertCompletionStatement.bindLong(5, now.getTime());
+            insertCompletionStatement.bindLong(6, epochDay);
+            if (insertCompletionStatement.executeInsert() == -1) {
+                return false;
+            }
+
+            addPointsStatement.bindLong(1, pointsEarned);
+            addPointsStatement.bindLong(2, userId);
+            if (addPointsStatement.executeUpdateDelete() == 0) {
+                // User không tồn tại: hủy cả bản ghi lịch sử vừa thêm
+                return false;
+            }
+
+            Object[] periods = {epochDay, week, month};
+            for (int i = 0; i < periods.length; i++) {
+                insertStatsStatements[i].bindLong(1, userId);
+                bindPeriod(insertStatsStatements[i], 2, periods[i]);
+                insertStatsStatements[i].executeInsert();
+
+                updateStatsStatements[i].bindLong(1, pointsEarned);
+                if (category != null) {
+                    updateStatsStatements[i].bindString(2, category);
+                } else {
+                    updateStatsStatements[i].bindNull(2);
+                }
+                updateStatsStatements[i].bindLong(3, userId);
+                bindPeriod(updateStatsStatements[i], 4, periods[i]);
+                updateStatsStatements[i].executeUpdateDelete();
+            }
+
+            db.setTransactionSuccessful();
+            DataVersion.bump();
             return true;
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static void bindPeriod(SQLiteStatement statement, int index, Object period) {
+        if (period instanceof Long) {
+            statement.bindLong(index, (Long) period);
+        } else {
+            statement.bindString(index, (String) period);
+        }
+    }
+
+    /**
+     * Biên dịch sẵn các câu lệnh dùng khi hoàn thành hoạt động (chỉ một lần cho mỗi kết nối)
+     */
+    private void prepareCompletionStatements(SQLiteDatabase db) {
+        if (addPointsStatement != null) {
+            return;
+        }
+
+        categoryLookupStatement = db.compileStatement("SELECT category FROM " + TABLE_ACTIVITIES + " WHERE id=?");
+        insertCompletionStatement = db.compileStatement("INSERT INTO " + TABLE_USER_ACTIVITIES +
+                " (user_id, activity_id, completed_date, points_earned, completed_at_ms, epoch_day) VALUES (?, ?, ?, ?, ?, ?)");
+        addPointsStatement = db.compileStatement("UPDATE " + TABLE_USERS +
+                " SET points = points + ?1, level = (points + ?1) / 100 + 1 WHERE id=?2");
+
+        String[][] periods = {
+                {TABLE_DAILY_STATS, "epoch_day"},
+                {TABLE_WEEKLY_STATS, "week"},
+                {TABLE_MONTHLY_STATS, "month"}
+        };
+        StringBuilder categoryUpdates = new StringBuilder();
+        for (String category : CATEGORIES) {
+            categoryUpdates.append(", ").append(category).append("_count = ").append(category)
+                    .append("_count + (CASE ?2 WHEN '").append(category).append("' THEN 1 ELSE 0 END)");
+        }
+        insertStatsStatements = new SQLiteStatement[periods.length];
+        updateStatsStatements = new SQLiteStatement[periods.length];
+        for (int i = 0; i < periods.length; i++) {
+            insertStatsStatements[i] = db.compileStatement("INSERT OR IGNORE INTO " + periods[i][0] +
+                    " (user_id, " + periods[i][1] + ") VALUES (?, ?)");
+            updateStatsStatements[i] = db.compileStatement("UPDATE " + periods[i][0] +
+                    " SET points = points + ?1, activity_count = activity_count + 1" + categoryUpdates +
+                    " WHERE user_id=?3 AND " + periods[i][1] + "=?4");
+        }
+    }
+
+    private void releaseCompletionStatements() {
+        if (addPointsStatement == null) {
+            return;
+        }
+
+        categoryLookupStatement.close();
+        insertCompletionStatement.close();
+        addPointsStatement.close();
+        for (int i = 0; i < insertStatsStatements.length; i++) {
+            insertStatsStatements[i].close();
+            updateStatsStatements[i].close();
+        }
+        addPointsStatement = null;
+    }
+
+    @Override
+    public synchronized void close() {
+        releaseCompletionStatements();
+        super.close();
+    }
+
+    /**
+     * Số ngày kể từ 1970-01-01 theo giờ địa phương của thiết bị (cột epoch_day)
+     */
+    static long toEpochDay(long millis) {
+        return Math.floorDiv(millis + TimeZone.getDefault().getOffset(millis), DAY_MILLIS);
+    }
+
+    /**
+     * Tuần theo ISO 8601 dạng yyyy-Www, khớp với biểu thức SQL trong rebuildStats
+     */
+    private static String getIsoWeek(Date date) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setFirstDayOfWeek(Calendar.MONDAY);
+        calendar.setMinimalDaysInFirstWeek(4);
+        calendar.setTime(date);
+        return String.format(Locale.US, "%04d-W%02d", calendar.getWeekYear(), calendar.get(Calendar.WEEK_OF_YEAR));
+    }
+
+    /**
+     * Tính lại toàn bộ bảng tổng hợp từ lịch sử user_activities
+     */
+    public void rebuildStats() {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            rebuildStats(db);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        DataVersion.bump();
+    }
+
+    static void rebuildStats(SQLiteDatabase db) {
+        // epoch_day đã là ngày địa phương nên tính tuần/tháng theo UTC không bị lệch múi giờ
+        String day = "ua.epoch_day * 86400, 'unixepoch'";
+        String thursday = "date(" + day + ", '-3 days', 'weekday 4')";
+        String[][] periods = {
+                {TABLE_DAILY_STATS, "epoch_day", "ua.epoch_day"},
+                {TABLE_WEEKLY_STATS, "week", "printf('%s-W%02d', strftime('%Y', " + thursday + "), " +
+                        "(CAST(strftime('%j', " + thursday + ") AS INTEGER) - 1) / 7 + 1)"},
+                {TABLE_MONTHLY_STATS, "month", "strftime('%Y-%m', " + day + ")"}
+        };
+
+        StringBuilder categoryColumns = new StringBuilder();
+        StringBuilder categorySums = new StringBuilder();
+        for (String category : CATEGORIES) {
+            categoryColumns.append(", ").append(category).append("_count");
+            categorySums.append(", SUM(CASE WHEN a.category = '").append(category).append("' THEN 1 ELSE 0 END)");
+        }
+
+        for (String[] period : periods) {
+            db.execSQL("DELETE FROM " + period[0]);
+            db.execSQL("INSERT INTO " + period[0] + " (user_id, " + period[1] + ", points, activity_count" + categoryColumns + ") " +
+                    "SELECT ua.user_id, " + period[2] + " AS period, SUM(ua.points_earned), COUNT(*)" + categorySums +
+                    " FROM " + TABLE_USER_ACTIVITIES + " ua LEFT JOIN " + TABLE_ACTIVITIES + " a ON ua.activity_id = a.id" +
+                    " WHERE ua.epoch_day IS NOT NULL GROUP BY ua.user_id, period");
         }
-        return false;
     }
 
     public Cursor getUserActivities(int userId) {
         SQLiteDatabase db = this.getReadableDatabase();
         String query = "SELECT ua.*, a.name, a.description, a.category FROM " + TABLE_USER_ACTIVITIES +
-                " ua INNER JOIN " + TABLE_ACTIVITIES + " a ON ua.activity_id = a.id WHERE ua.user_id=? ORDER BY ua.completed_date DESC";
+                " ua INNER JOIN " + TABLE_ACTIVITIES + " a ON ua.activity_id = a.id WHERE ua.user_id=? ORDER BY ua.completed_at_ms DESC";
         return db.rawQuery(query, new String[]{String.valueOf(userId)});
     }
 
+    /**
+     * Thống kê số lần và tổng điểm theo từng danh mục của user trong một truy vấn
+     */
+    public Map<String, CategoryStat> getCategoryStats(int userId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String query = "SELECT a.category, COUNT(*) AS count, SUM(ua.points_earned) AS points FROM " + TABLE_USER_ACTIVITIES +
+                " ua INNER JOIN " + TABLE_ACTIVITIES + " a ON ua.activity_id = a.id WHERE ua.user_id=? GROUP BY a.category";
+        Map<String, CategoryStat> stats = new LinkedHashMap<>();
+        Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(userId)});
+        if (cursor != null) {
+            while (cursor.moveToNext()) {
+                String category = cursor.getString(0);
+                stats.put(category, new CategoryStat(category, cursor.getInt(1), cursor.getInt(2)));
+            }
+            cursor.close();
+        }
+        return stats;
+    }
+
+    public int getCategoryCount(int userId, String category) {
+        for (String c : CATEGORIES) {
+            if (c.equals(category)) {
+                return queryInt("SELECT SUM(" + c + "_count) FROM " + TABLE_MONTHLY_STATS + " WHERE user_id=?",
+                        new String[]{String.valueOf(userId)});
+            }
+        }
+        return 0;
+    }
+
     public Cursor getTodayActivities(int userId) {
         SQLiteDatabase db = this.getReadableDatabase();
-        String today = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(new Date());
         String query = "SELECT ua.*, a.name, a.points FROM " + TABLE_USER_ACTIVITIES +
                 " ua INNER JOIN " + TABLE_ACTIVITIES + " a ON ua.activity_id = a.id " +
-                "WHERE ua.user_id=? AND DATE(ua.completed_date)=? ORDER BY ua.completed_date DESC";
-        return db.rawQuery(query, new String[]{String.valueOf(userId), today});
+                "WHERE ua.user_id=? AND ua.epoch_day=? ORDER BY ua.completed_at_ms DESC";
+        return db.rawQuery(query, new String[]{String.valueOf(userId), String.valueOf(today())});
     }
 
     public int getTodayPoints(int userId) {
-        Cursor cursor = getTodayActivities(userId);
-        int totalPoints = 0;
+        return queryInt("SELECT points FROM " + TABLE_DAILY_STATS + " WHERE user_id=? AND epoch_day=?",
+                new String[]{String.valueOf(userId), String.valueOf(today())});
+    }
+
+    public int getTodayActivityCount(int userId) {
+        return queryInt("SELECT activity_count FROM " + TABLE_DAILY_STATS + " WHERE user_id=? AND epoch_day=?",
+                new String[]{String.valueOf(userId), String.valueOf(today())});
+    }
+
+    // Điểm của 7 ngày gần nhất (hôm nay và 6 ngày trước), cộng từ bảng tổng hợp ngày
+    public int getWeekPoints(int userId) {
+        return queryInt("SELECT SUM(points) FROM " + TABLE_DAILY_STATS + " WHERE user_id=? AND epoch_day BETWEEN ? AND ?",
+                lastWeekArgs(userId));
+    }
+
+    public int getWeekActivityCount(int userId) {
+        return queryInt("SELECT SUM(activity_count) FROM " + TABLE_DAILY_STATS + " WHERE user_id=? AND epoch_day BETWEEN ? AND ?",
+                lastWeekArgs(userId));
+    }
+
+    private static String[] lastWeekArgs(int userId) {
+        long to = today();
+        return new String[]{String.valueOf(userId), String.valueOf(to - 6), String.valueOf(to)};
+    }
+
+    public int getMonthPoints(int userId) {
+        String month = new SimpleDateFormat("yyyy-MM", Locale.US).format(new Date());
+        return queryInt("SELECT points FROM " + TABLE_MONTHLY_STATS + " WHERE user_id=? AND month=?",
+                new String[]{String.valueOf(userId), month});
+    }
+
+    // Tổng số hoạt động đã hoàn thành của user, cộng từ bảng tổng hợp theo tháng
+    public int getTotalActivityCount(int userId) {
+        return queryInt("SELECT SUM(activity_count) FROM " + TABLE_MONTHLY_STATS + " WHERE user_id=?",
+                new String[]{String.valueOf(userId)});
+    }
+
+    private static long today() {
+        return toEpochDay(System.currentTimeMillis());
+    }
+
+    private int queryInt(String query, String[] args) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery(query, args);
+        int value = 0;
+        if (cursor != null) {
+            if (cursor.moveToFirst()) {
+                value = cursor.getInt(0);
+            }
+            cursor.close();
+        }
+        return value;
+    }
+
+    /**
+     * Lấy tổng điểm theo từng ngày trong {@code days} ngày gần nhất (phần tử cuối là hôm nay).
+     * Quét theo khóa chính (user_id, epoch_day) của bảng tổng hợp ngày, vị trí trong mảng
+     * chính là epoch_day - ngày đầu tiên.
+     */
+    public int[] getDailyPoints(int userId, int days) {
+        return getDailyColumn(userId, days, "points");
+    }
+
+    // Số hoạt động theo từng ngày, cùng cách sắp xếp như getDailyPoints
+    public int[] getDailyActivityCounts(int userId, int days) {
+        return getDailyColumn(userId, days, "activity_count");
+    }
+
+    private int[] getDailyColumn(int userId, int days, String column) {
+        int[] values = new int[Math.max(days, 0)];
+        if (days <= 0) {
+            return values;
+        }
+
+        long to = today();
+        long from = to - (days - 1);
+
+        SQLiteDatabase db = this.getReadableDatabase();
+        String query = "SELECT epoch_day, " + column + " FROM " + TABLE_DAILY_STATS +
+                " WHERE user_id=? AND epoch_day BETWEEN ? AND ?";
+        Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(userId), String.valueOf(from), String.valueOf(to)});
         if (cursor != null) {
             while (cursor.moveToNext()) {
-                totalPoints += cursor.getInt(cursor.getColumnIndexOrThrow("points_earned"));
+                values[(int) (cursor.getLong(0) - from)] = cursor.getInt(1);
             }
             cursor.close();
         }
-        return totalPoints;
+        return values;
     }
 
     public Cursor getLeaderboard() {
         SQLiteDatabase db = this.getReadableDatabase();
-        return db.query(TABLE_USERS, null, "role=?", new String[]{"user"}, null, null, "points DESC", "10");
+        return db.query(TABLE_USERS, null, "role=?", new String[]{"user"}, null, null, "points DESC, id ASC", "10");
+    }
+
+    /**
+     * Hạng chính xác của user cùng tối đa {@code neighbours} user đứng ngay trên/dưới.
+     * Xếp theo điểm giảm dần, bằng điểm thì user có id nhỏ hơn (đăng ký trước) đứng trên.
+     * Mọi truy vấn đều là tìm kiếm theo khoảng trên index users(role, points), không đọc cả bảng.
+     * Trả về null nếu user không tồn tại.
+     */
+    public UserRank getUserRank(int userId, int neighbours) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String id = String.valueOf(userId);
+        Cursor cursor = db.query(TABLE_USERS, new String[]{"points"}, "id=?", new String[]{id}, null, null, null);
+        String points;
+        try {
+            if (!cursor.moveToFirst()) {
+                return null;
+            }
+            points = String.valueOf(cursor.getInt(0));
+        } finally {
+            cursor.close();
+        }
+
+        int higher = queryInt("SELECT (SELECT COUNT(*) FROM " + TABLE_USERS + " WHERE role='user' AND points > ?1) + " +
+                "(SELECT COUNT(*) FROM " + TABLE_USERS + " WHERE role='user' AND points = ?1 AND id < ?2)",
+                new String[]{points, id});
+
+        UserRank rank = new UserRank();
+        rank.setRank(higher + 1);
+        if (neighbours > 0) {
+            // Phía trên: lấy từ gần đến xa rồi đảo lại theo thứ tự hạng
+            List<User> above = new ArrayList<>();
+            addRankNeighbours(db, above, "points = ? AND id < ?", new String[]{points, id}, "id DESC", neighbours);
+            addRankNeighbours(db, above, "points > ?", new String[]{points}, "points ASC, id DESC", neighbours);
+            Collections.reverse(above);
+            rank.setAbove(above);
+
+            List<User> below = new ArrayList<>();
+            addRankNeighbours(db, below, "points = ? AND id > ?", new String[]{points, id}, "id ASC", neighbours);
+            addRankNeighbours(db, below, "points < ?", new String[]{points}, "points DESC, id ASC", neighbours);
+            rank.setBelow(below);
+        }
+        return rank;
+    }
+
+    private void addRankNeighbours(SQLiteDatabase db, List<User> out, String where, String[] args,
+                                   String orderBy, int limit) {
+        int remaining = limit - out.size();
+        if (remaining <= 0) {
+            return;
+        }
+
+        Cursor cursor = db.rawQuery("SELECT * FROM " + TABLE_USERS + " WHERE role='user' AND " + where +
+                " ORDER BY " + orderBy + " LIMIT " + remaining, args);
+        try {
+            while (cursor.moveToNext()) {
+                out.add(cursorToUser(cursor));
+            }
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static User cursorToUser(Cursor cursor) {
+        return new User(cursor.getInt(cursor.getColumnIndexOrThrow("id")),
+                cursor.getString(cursor.getColumnIndexOrThrow("username")),
+                cursor.getString(cursor.getColumnIndexOrThrow("fullname")),
+                cursor.getString(cursor.getColumnIndexOrThrow("email")),
+                cursor.getString(cursor.getColumnIndexOrThrow("role")),
+                cursor.getInt(cursor.getColumnIndexOrThrow("points")),
+                cursor.getInt(cursor.getColumnIndexOrThrow("level")),
+                cursor.getString(cursor.getColumnIndexOrThrow("created_at")));
     }
 
     public Cursor getAllUsers() {
@@ -420,16 +929,25 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     }
 
     private String getCurrentDateTime() {
-        return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault()).format(new Date());
+        return formatDateTime(new Date());
+    }
+
+    // Luôn dùng chữ số ASCII (Locale.US): migration và rebuildStats đọc lại chuỗi này
+    private static String formatDateTime(Date date) {
+        return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US).format(date);
     }
 
     // Xóa user theo ID
     public boolean deleteUser(int userId) {
         SQLiteDatabase db = this.getWritableDatabase();
-        // Xóa các hoạt động của user trước
+        // Xóa các hoạt động và thống kê của user trước
         db.delete(TABLE_USER_ACTIVITIES, "user_id=?", new String[]{String.valueOf(userId)});
+        db.delete(TABLE_DAILY_STATS, "user_id=?", new String[]{String.valueOf(userId)});
+        db.delete(TABLE_WEEKLY_STATS, "user_id=?", new String[]{String.valueOf(userId)});
+        db.delete(TABLE_MONTHLY_STATS, "user_id=?", new String[]{String.valueOf(userId)});
         // Xóa user
         int result = db.delete(TABLE_USERS, "id=?", new String[]{String.valueOf(userId)});
+        DataVersion.bump();
         return result > 0;
     }
 
@@ -441,6 +959,9 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         values.put("email", email);
         values.put("role", role);
         int result = db.update(TABLE_USERS, values, "id=?", new String[]{String.valueOf(userId)});
+        if (result > 0) {
+            DataVersion.bump();
+        }
         return result > 0;
     }
 
@@ -477,4 +998,384 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         }
         return total;
     }
+
+    // Completion outbox methods
+
+    /**
+     * Lưu một lần hoàn thành của tài khoản ownerId (userId trên server) vào hàng đợi. Trùng client_id thì bỏ qua
+     */
+    public boolean enqueueCompletion(String ownerId, String clientId, String activityApiId, int points, long completedAtMs) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        ContentValues values = new ContentValues();
+        values.put("owner_id", ownerId);
+        values.put("client_id", clientId);
+        values.put("activity_api_id", activityApiId);
+        values.put("points", points);
+        values.put("completed_at_ms", completedAtMs);
+        return db.insertWithOnConflict(TABLE_COMPLETION_OUTBOX, null, values, SQLiteDatabase.CONFLICT_IGNORE) != -1;
+    }
+
+    /**
+     * Các lần hoàn thành của ownerId đã đến lượt gửi (next_attempt_at_ms <= now), cũ nhất trước
+     */
+    public List<PendingCompletion> getDueCompletions(String ownerId, long now, int limit) {
+        return queryPendingCompletions("owner_id=? AND next_attempt_at_ms <= ?",
+                new String[]{ownerId, String.valueOf(now)}, String.valueOf(limit));
+    }
+
+    public List<PendingCompletion> getPendingCompletions(String ownerId) {
+        return queryPendingCompletions("owner_id=?", new String[]{ownerId}, null);
+    }
+
+    /**
+     * Gán các dòng ghi từ trước version 12 (chưa có owner_id) cho ownerId: tài khoản đăng nhập
+     * đầu tiên sau khi cập nhật là tài khoản đã ghi nhận chúng
+     */
+    public void claimUnownedCompletions(String ownerId) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        ContentValues values = new ContentValues();
+        values.put("owner_id", ownerId);
+        db.update(TABLE_COMPLETION_OUTBOX, values, "owner_id IS NULL", null);
+    }
+
+    private List<PendingCompletion> queryPendingCompletions(String selection, String[] args, String limit) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        List<PendingCompletion> completions = new ArrayList<>();
+        Cursor cursor = db.query(TABLE_COMPLETION_OUTBOX,
+                new String[]{"client_id", "activity_api_id", "points", "completed_at_ms", "attempts"},
+                selection, args, null, null, "id ASC", limit);
+        try {
+            while (cursor.moveToNext()) {
+                completions.add(new PendingCompletion(cursor.getString(0), cursor.getString(1),
+                        cursor.getInt(2), cursor.getLong(3), cursor.getInt(4)));
+            }
+        } finally {
+            cursor.close();
+        }
+        return completions;
+    }
+
+    // Thời điểm sớm nhất có lần hoàn thành của ownerId cần gửi lại, -1 nếu không còn dòng nào
+    public long getNextCompletionAttempt(String ownerId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery("SELECT MIN(next_attempt_at_ms) FROM " + TABLE_COMPLETION_OUTBOX + " WHERE owner_id=?",
+                new String[]{ownerId});
+        try {
+            return cursor.moveToFirst() && !cursor.isNull(0) ? cursor.getLong(0) : -1;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    public void deleteCompletions(List<String> clientIds) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (String clientId : clientIds) {
+                db.delete(TABLE_COMPLETION_OUTBOX, "client_id=?", new String[]{clientId});
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Tăng số lần thử và hẹn lần gửi tiếp theo (theo client_id) cho các lần hoàn thành gửi thất bại
+     */
+    public void rescheduleCompletions(Map<String, Long> nextAttemptAtMs) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (Map.Entry<String, Long> entry : nextAttemptAtMs.entrySet()) {
+                db.execSQL("UPDATE " + TABLE_COMPLETION_OUTBOX + " SET attempts = attempts + 1, next_attempt_at_ms = ? " +
+                        "WHERE client_id = ?", new Object[]{entry.getValue(), entry.getKey()});
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // History cache methods
+    // Các dòng đệm của một tài khoản luôn là một đoạn liên tục tính từ dòng mới nhất,
+    // sắp xếp theo (completed_at_ms, api_id) giảm dần giống thứ tự của server
+
+    /**
+     * Tối đa limit dòng đệm cũ hơn after (null = từ dòng mới nhất).
+     * Tìm theo index (owner_id, completed_at_ms, api_id) nên chi phí không phụ thuộc độ sâu của trang
+     */
+    public List<HistoryEntry> getCachedHistory(String ownerId, HistoryEntry after, int limit) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        String selection;
+        String[] args;
+        if (after == null) {
+            selection = "owner_id=?";
+            args = new String[]{ownerId};
+        } else {
+            String afterMs = String.valueOf(after.getCompletedAtMs());
+            // "completed_at_ms <= ?" là điều kiện khoảng trên index (SQLite của API 24 chưa có so sánh row value)
+            selection = "owner_id=? AND completed_at_ms <= ? AND (completed_at_ms < ? OR api_id < ?)";
+            args = new String[]{ownerId, afterMs, afterMs, after.getApiId()};
+        }
+
+        List<HistoryEntry> entries = new ArrayList<>();
+        Cursor cursor = db.query(TABLE_HISTORY_CACHE,
+                new String[]{"api_id", "activity_name", "category", "icon", "points_earned", "completed_at", "completed_at_ms"},
+                selection, args, null, null, "completed_at_ms DESC, api_id DESC", String.valueOf(limit));
+        try {
+            while (cursor.moveToNext()) {
+                entries.add(new HistoryEntry(cursor.getString(0), cursor.getString(1), cursor.getString(2),
+                        cursor.getString(3), cursor.getInt(4), cursor.getString(5), cursor.getLong(6)));
+            }
+        } finally {
+            cursor.close();
+        }
+        return entries;
+    }
+
+    public boolean isCachedHistory(String ownerId, String apiId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery("SELECT 1 FROM " + TABLE_HISTORY_CACHE + " WHERE owner_id=? AND api_id=?",
+                new String[]{ownerId, apiId});
+        try {
+            return cursor.moveToFirst();
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Đã đệm tới dòng cũ nhất của tài khoản hay chưa
+    public boolean isHistoryCacheComplete(String ownerId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery("SELECT reached_end FROM " + TABLE_HISTORY_CACHE_STATE + " WHERE owner_id=?",
+                new String[]{ownerId});
+        try {
+            return cursor.moveToFirst() && cursor.getInt(0) == 1;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Lưu một trang lấy từ server. replace = true xóa bản đệm cũ trước (khi trang mới không nối
+     * liền với bản đệm); reachedEnd = true khi đây là trang cuối cùng
+     */
+    public void cacheHistoryPage(String ownerId, List<HistoryEntry> entries, boolean replace, boolean reachedEnd) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            if (replace) {
+                db.delete(TABLE_HISTORY_CACHE, "owner_id=?", new String[]{ownerId});
+            }
+            SQLiteStatement insert = db.compileStatement("INSERT OR REPLACE INTO " + TABLE_HISTORY_CACHE +
+                    " (owner_id, api_id, activity_name, category, icon, points_earned, completed_at, completed_at_ms)" +
+                    " VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+            try {
+                for (HistoryEntry entry : entries) {
+                    insert.clearBindings();
+                    insert.bindString(1, ownerId);
+                    insert.bindString(2, entry.getApiId());
+                    bindNullable(insert, 3, entry.getActivityName());
+                    bindNullable(insert, 4, entry.getCategory());
+                    bindNullable(insert, 5, entry.getIcon());
+                    insert.bindLong(6, entry.getPointsEarned());
+                    insert.bindString(7, entry.getCompletedAt());
+                    insert.bindLong(8, entry.getCompletedAtMs());
+                    insert.executeInsert();
+                }
+            } finally {
+                insert.close();
+            }
+
+            if (replace || reachedEnd) {
+                ContentValues values = new ContentValues();
+                values.put("owner_id", ownerId);
+                values.put("reached_end", reachedEnd ? 1 : 0);
+                db.insertWithOnConflict(TABLE_HISTORY_CACHE_STATE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Activity catalog methods
+
+    /**
+     * Catalog đã lưu, theo thứ tự của server (category, name). completed luôn là false:
+     * trạng thái hôm nay của user được lấy riêng
+     */
+    public List<Activity> getCatalogActivities() {
+        SQLiteDatabase db = this.getReadableDatabase();
+        List<Activity> activities = new ArrayList<>();
+        Cursor cursor = db.query(TABLE_ACTIVITY_CATALOG,
+                new String[]{"api_id", "name", "description", "points", "category", "icon"},
+                null, null, null, null, "category ASC, name ASC");
+        try {
+            while (cursor.moveToNext()) {
+                String apiId = cursor.getString(0);
+                Activity activity = new Activity(apiId.hashCode(), cursor.getString(1), cursor.getString(2),
+                        cursor.getInt(3), cursor.getString(4), cursor.getString(5));
+                activity.setApiId(apiId);
+                activities.add(activity);
+            }
+        } finally {
+            cursor.close();
+        }
+        return activities;
+    }
+
+    // Danh mục của một hoạt động trong catalog đã lưu, null nếu không có
+    public String getCatalogCategory(String apiId) {
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery("SELECT category FROM " + TABLE_ACTIVITY_CATALOG + " WHERE api_id=?",
+                new String[]{apiId});
+        try {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Mốc updatedAt của lần đồng bộ catalog gần nhất, null nếu chưa đồng bộ lần nào
+    public String getCatalogWatermark() {
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery("SELECT watermark FROM " + TABLE_ACTIVITY_CATALOG_STATE + " WHERE id=1", null);
+        try {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Áp dụng một lần đồng bộ catalog trong một transaction: full = true thay toàn bộ catalog,
+     * ngược lại ghi đè các hoạt động thay đổi và xóa các id trong removed. Sau đó lưu mốc mới
+     */
+    public void applyCatalogChanges(List<Activity> changed, List<String> removed, String watermark, boolean full) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            if (full) {
+                db.delete(TABLE_ACTIVITY_CATALOG, null, null);
+            }
+            SQLiteStatement upsert = db.compileStatement("INSERT OR REPLACE INTO " + TABLE_ACTIVITY_CATALOG +
+                    " (api_id, name, description, points, category, icon) VALUES (?, ?, ?, ?, ?, ?)");
+            try {
+                for (Activity activity : changed) {
+                    upsert.clearBindings();
+                    upsert.bindString(1, activity.getApiId());
+                    bindNullable(upsert, 2, activity.getName());
+                    bindNullable(upsert, 3, activity.getDescription());
+                    upsert.bindLong(4, activity.getPoints());
+                    bindNullable(upsert, 5, activity.getCategory());
+                    bindNullable(upsert, 6, activity.getIcon());
+                    upsert.executeInsert();
+                }
+            } finally {
+                upsert.close();
+            }
+            for (String apiId : removed) {
+                db.delete(TABLE_ACTIVITY_CATALOG, "api_id=?", new String[]{apiId});
+            }
+
+            ContentValues values = new ContentValues();
+            values.put("id", 1);
+            values.put("watermark", watermark);
+            db.insertWithOnConflict(TABLE_ACTIVITY_CATALOG_STATE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Achievement methods
+
+    // Giá trị hiện tại của các bộ đếm (bộ đếm chưa có dòng thì không có trong kết quả)
+    public Map<String, Long> getCounters(String ownerId, Collection<String> counters) {
+        Map<String, Long> values = new HashMap<>();
+        if (counters.isEmpty()) {
+            return values;
+        }
+        String[] args = new String[counters.size() + 1];
+        args[0] = ownerId;
+        StringBuilder placeholders = new StringBuilder();
+        int i = 1;
+        for (String counter : counters) {
+            placeholders.append(i == 1 ? "?" : ", ?");
+            args[i++] = counter;
+        }
+
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery("SELECT counter, value FROM " + TABLE_USER_COUNTERS +
+                " WHERE owner_id=? AND counter IN (" + placeholders + ")", args);
+        try {
+            while (cursor.moveToNext()) {
+                values.put(cursor.getString(0), cursor.getLong(1));
+            }
+        } finally {
+            cursor.close();
+        }
+        return values;
+    }
+
+    // Huy hiệu đã mở khóa: id -> thời điểm mở khóa
+    public Map<String, Long> getAchievementUnlocks(String ownerId) {
+        Map<String, Long> unlocks = new HashMap<>();
+        SQLiteDatabase db = this.getReadableDatabase();
+        Cursor cursor = db.rawQuery("SELECT achievement_id, unlocked_at_ms FROM " + TABLE_USER_ACHIEVEMENTS +
+                " WHERE owner_id=?", new String[]{ownerId});
+        try {
+            while (cursor.moveToNext()) {
+                unlocks.put(cursor.getString(0), cursor.getLong(1));
+            }
+        } finally {
+            cursor.close();
+        }
+        return unlocks;
+    }
+
+    /**
+     * Ghi giá trị mới của các bộ đếm và các huy hiệu vừa mở khóa trong một transaction.
+     * Huy hiệu đã mở khóa trước đó giữ nguyên thời điểm cũ
+     */
+    public void saveAchievementProgress(String ownerId, Map<String, Long> counters, Map<String, Long> unlocks) {
+        SQLiteDatabase db = this.getWritableDatabase();
+        db.beginTransaction();
+        try {
+            SQLiteStatement counter = db.compileStatement("INSERT OR REPLACE INTO " + TABLE_USER_COUNTERS +
+                    " (owner_id, counter, value) VALUES (?, ?, ?)");
+            SQLiteStatement unlock = db.compileStatement("INSERT OR IGNORE INTO " + TABLE_USER_ACHIEVEMENTS +
+                    " (owner_id, achievement_id, unlocked_at_ms) VALUES (?, ?, ?)");
+            try {
+                for (Map.Entry<String, Long> entry : counters.entrySet()) {
+                    counter.bindString(1, ownerId);
+                    counter.bindString(2, entry.getKey());
+                    counter.bindLong(3, entry.getValue());
+                    counter.executeInsert();
+                }
+                for (Map.Entry<String, Long> entry : unlocks.entrySet()) {
+                    unlock.bindString(1, ownerId);
+                    unlock.bindString(2, entry.getKey());
+                    unlock.bindLong(3, entry.getValue());
+                    unlock.executeInsert();
+                }
+            } finally {
+                counter.close();
+                unlock.close();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    private static void bindNullable(SQLiteStatement statement, int index, String value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindString(index, value);
+        }
+    }
 }
\ No newline at end of file
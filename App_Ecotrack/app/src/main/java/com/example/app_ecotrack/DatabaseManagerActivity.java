@@ -9,17 +9,19 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 
+import com.example.app_ecotrack.api.ApiClient;
+
 public class DatabaseManagerActivity extends AppCompatActivity {
     private TextView tvDatabaseInfo, tvUsersList, tvActivitiesList;
-    private Button btnResetDatabase, btnRefreshData;
-    private DatabaseHelper db;
+    private Button btnResetDatabase, btnRefreshData, btnNetworkStats;
+    private DatabaseRepository repository;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_database_manager);
 
-        db = new DatabaseHelper(this);
+        repository = AppContainer.from(this).getRepository();
         
         initViews();
         setupToolbar();
@@ -33,6 +35,7 @@ public class DatabaseManagerActivity extends AppCompatActivity {
         tvActivitiesList = findViewById(R.id.tvActivitiesList);
         btnResetDatabase = findViewById(R.id.btnResetDatabase);
         btnRefreshData = findViewById(R.id.btnRefreshData);
+        btnNetworkStats = findViewById(R.id.btnNetworkStats);
     }
 
     private void setupToolbar() {
@@ -46,6 +49,7 @@ public class DatabaseManagerActivity extends AppCompatActivity {
 
     private void setupListeners() {
         btnRefreshData.setOnClickListener(v -> loadDatabaseInfo());
+        btnNetworkStats.setOnClickListener(v -> showNetworkStats());
         
         btnResetDatabase.setOnClickListener(v -> {
             new AlertDialog.Builder(this)
@@ -59,19 +63,32 @@ public class DatabaseManagerActivity extends AppCompatActivity {
         });
     }
 
+    // Độ trễ p50/p99 theo từng API từ lúc mở ứng dụng
+    private void showNetworkStats() {
+        new AlertDialog.Builder(this)
+                .setTitle("📶 Thống kê mạng")
+                .setMessage(ApiClient.getMetrics().summary())
+                .setPositiveButton("Đóng", null)
+                .setNeutralButton("Xóa", (dialog, which) -> ApiClient.getMetrics().reset())
+                .show();
+    }
+
     private void loadDatabaseInfo() {
-        // Hiển thị thông tin tổng quan
-        String info = db.getDatabaseInfo();
-        tvDatabaseInfo.setText(info);
+        repository.execute(db -> new String[]{db.getDatabaseInfo(), getUsersList(db), getActivitiesList(db)}, lists -> {
+            if (isFinishing()) return;
+
+            // Hiển thị thông tin tổng quan
+            tvDatabaseInfo.setText(lists[0]);
 
-        // Hiển thị danh sách users
-        loadUsersList();
+            // Hiển thị danh sách users
+            tvUsersList.setText(lists[1]);
 
-        // Hiển thị danh sách activities
-        loadActivitiesList();
+            // Hiển thị danh sách activities
+            tvActivitiesList.setText(lists[2]);
+        });
     }
 
-    private void loadUsersList() {
+    private String getUsersList(DatabaseHelper db) {
         StringBuilder usersList = new StringBuilder();
         usersList.append("📋 DANH SÁCH NGƯỜI DÙNG:\n\n");
 
@@ -94,10 +111,10 @@ public class DatabaseManagerActivity extends AppCompatActivity {
             usersList.append("Không có dữ liệu người dùng.\n");
         }
 
-        tvUsersList.setText(usersList.toString());
+        return usersList.toString();
     }
 
-    private void loadActivitiesList() {
+    private String getActivitiesList(DatabaseHelper db) {
         StringBuilder activitiesList = new StringBuilder();
         activitiesList.append("🎯 DANH SÁCH HOẠT ĐỘNG:\n\n");
 
@@ -118,7 +135,7 @@ public class DatabaseManagerActivity extends AppCompatActivity {
             activitiesList.append("Không có dữ liệu hoạt động.\n");
         }
 
-        tvActivitiesList.setText(activitiesList.toString());
+        return activitiesList.toString();
     }
 
     private String getCategoryIcon(String category) {
@@ -134,13 +151,21 @@ public class DatabaseManagerActivity extends AppCompatActivity {
     }
 
     private void resetDatabase() {
-        try {
+        repository.execute(db -> {
             db.resetDatabase();
-            Toast.makeText(this, "✅ Database đã được reset thành công!", Toast.LENGTH_SHORT).show();
-            loadDatabaseInfo();
-        } catch (Exception e) {
-            Toast.makeText(this, "❌ Lỗi khi reset database: " + e.getMessage(), Toast.LENGTH_LONG).show();
-        }
+            return true;
+        }, new DatabaseRepository.Callback<Boolean>() {
+            @Override
+            public void onResult(Boolean result) {
+                Toast.makeText(DatabaseManagerActivity.this, "✅ Database đã được reset thành công!", Toast.LENGTH_SHORT).show();
+                loadDatabaseInfo();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Toast.makeText(DatabaseManagerActivity.this, "❌ Lỗi khi reset database: " + e.getMessage(), Toast.LENGTH_LONG).show();
+            }
+        });
     }
 
     @Override
@@ -0,0 +1,344 @@
+package com.example.app_ecotrack;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Danh sách các bước migration của database, mỗi bước nâng schema lên đúng một version.
+ * Khi thay đổi cấu trúc: thêm một Migration mới với version kế tiếp và tăng DATABASE_VERSION.
+ */
+public class DatabaseMigrations {
+    private static final String TAG = "DatabaseMigrations";
+
+    // Version của schema trong file ecotrack_database.sql
+    public static final int BASE_VERSION = 3;
+
+    public abstract static class Migration {
+        final int version;
+
+        Migration(int version) {
+            this.version = version;
+        }
+
+        abstract void migrate(SQLiteDatabase db);
+    }
+
+    private static final List<Migration> MIGRATIONS = new ArrayList<>();
+
+    static {
+        // Version 4: index cho các truy vấn lọc theo user_id/completed_date, bảng xếp hạng và danh sách user
+        MIGRATIONS.add(new Migration(4) {
+            @Override
+            void migrate(SQLiteDatabase db) {
+                db.execSQL("CREATE INDEX IF NOT EXISTS idx_user_activities_user_date " +
+                        "ON user_activities(user_id, completed_date, points_earned)");
+                db.execSQL("CREATE INDEX IF NOT EXISTS idx_users_role_points ON users(role, points)");
+                db.execSQL("CREATE INDEX IF NOT EXISTS idx_users_created_at ON users(created_at)");
+            }
+        });
+
+        // Version 5: bảng tổng hợp điểm theo ngày / tuần ISO / tháng, tính lại từ lịch sử hiện có
+        MIGRATIONS.add(new Migration(5) {
+            @Override
+            void migrate(SQLiteDatabase db) {
+                createStatsTable(db, DatabaseHelper.TABLE_DAILY_STATS, "day", "TEXT");
+                createStatsTable(db, DatabaseHelper.TABLE_WEEKLY_STATS, "week", "TEXT");
+                createStatsTable(db, DatabaseHelper.TABLE_MONTHLY_STATS, "month", "TEXT");
+                rebuildTextKeyedStats(db);
+            }
+        });
+
+        // Version 6: thời điểm hoàn thành dạng số (completed_at_ms, epoch_day theo giờ địa phương)
+        // để lọc theo ngày/khoảng thời gian bằng index; bảng tổng hợp ngày đổi khóa sang epoch_day
+        MIGRATIONS.add(new Migration(6) {
+            @Override
+            void migrate(SQLiteDatabase db) {
+                db.execSQL("ALTER TABLE user_activities ADD COLUMN completed_at_ms INTEGER");
+                db.execSQL("ALTER TABLE user_activities ADD COLUMN epoch_day INTEGER");
+                backfillCompletionTimes(db);
+
+                db.execSQL("DROP INDEX IF EXISTS idx_user_activities_user_date");
+                db.execSQL("DROP INDEX IF EXISTS idx_user_activities_date");
+                db.execSQL("CREATE INDEX IF NOT EXISTS idx_user_activities_user_day " +
+                        "ON user_activities(user_id, epoch_day, points_earned)");
+                db.execSQL("CREATE INDEX IF NOT EXISTS idx_user_activities_user_time " +
+                        "ON user_activities(user_id, completed_at_ms)");
+
+                db.execSQL("DROP TABLE IF EXISTS " + DatabaseHelper.TABLE_DAILY_STATS);
+                createStatsTable(db, DatabaseHelper.TABLE_DAILY_STATS, "epoch_day", "INTEGER");
+                DatabaseHelper.rebuildStats(db);
+            }
+        });
+
+        // Version 7: hàng đợi các lần hoàn thành chưa gửi lên server (dùng khi offline)
+        MIGRATIONS.add(new Migration(7) {
+            @Override
+            void migrate(SQLiteDatabase db) {
+                db.execSQL("CREATE TABLE IF NOT EXISTS " + DatabaseHelper.TABLE_COMPLETION_OUTBOX + " (" +
+                        "id INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                        "client_id TEXT NOT NULL UNIQUE, " +
+                        "activity_api_id TEXT NOT NULL, " +
+                        "points INTEGER NOT NULL DEFAULT 0, " +
+                        "completed_at_ms INTEGER NOT NULL, " +
+                        "attempts INTEGER NOT NULL DEFAULT 0, " +
+                        "next_attempt_at_ms INTEGER NOT NULL DEFAULT 0)");
+                db.execSQL("CREATE INDEX IF NOT EXISTS idx_completion_outbox_next_attempt " +
+                        "ON " + DatabaseHelper.TABLE_COMPLETION_OUTBOX + "(next_attempt_at_ms)");
+            }
+        });
+
+        // Version 8: bản đệm lịch sử hoạt động từ server, đọc theo con trỏ (completed_at_ms, api_id)
+        MIGRATIONS.add(new Migration(8) {
+            @Override
+            void migrate(SQLiteDatabase db) {
+                db.execSQL("CREATE TABLE IF NOT EXISTS " + DatabaseHelper.TABLE_HISTORY_CACHE + " (" +
+                        "owner_id TEXT NOT NULL, " +
+                        "api_id TEXT NOT NULL, " +
+                        "activity_name TEXT, " +
+                        "category TEXT, " +
+                        "icon TEXT, " +
+                        "points_earned INTEGER NOT NULL DEFAULT 0, " +
+                        "completed_at TEXT NOT NULL, " +
+                        "completed_at_ms INTEGER NOT NULL, " +
+                        "PRIMARY KEY(owner_id, api_id))");
+                db.execSQL("CREATE INDEX IF NOT EXISTS idx_history_cache_owner_time " +
+                        "ON " + DatabaseHelper.TABLE_HISTORY_CACHE + "(owner_id, completed_at_ms, api_id)");
+                db.execSQL("CREATE TABLE IF NOT EXISTS " + DatabaseHelper.TABLE_HISTORY_CACHE_STATE + " (" +
+                        "owner_id TEXT PRIMARY KEY, " +
+                        "reached_end INTEGER NOT NULL DEFAULT 0)");
+            }
+        });
+
+        // Version 9: catalog hoạt động từ server (khóa là id chuỗi) và mốc đồng bộ delta
+        MIGRATIONS.add(new Migration(9) {
+            @Override
+            void migrate(SQLiteDatabase db) {
+                db.execSQL("CREATE TABLE IF NOT EXISTS " + DatabaseHelper.TABLE_ACTIVITY_CATALOG + " (" +
+                        "api_id TEXT PRIMARY KEY, " +
+                        "name TEXT, " +
+                        "description TEXT, " +
+                        "points INTEGER NOT NULL DEFAULT 0, " +
+                        "category TEXT, " +
+                        "icon TEXT)");
+                db.execSQL("CREATE TABLE IF NOT EXISTS " + DatabaseHelper.TABLE_ACTIVITY_CATALOG_STATE + " (" +
+                        "id INTEGER PRIMARY KEY, " +
+                        "watermark TEXT)");
+            }
+        });
+
+        // Version 10: bộ đếm và huy hiệu đã mở khóa theo từng tài khoản trên server
+        MIGRATIONS.add(new Migration(10) {
+            @Override
+            void migrate(SQLiteDatabase db) {
+                db.execSQL("CREATE TABLE IF NOT EXISTS " + DatabaseHelper.TABLE_USER_COUNTERS + " (" +
+                        "owner_id TEXT NOT NULL, " +
+                        "counter TEXT NOT NULL, " +
+                        "value INTEGER NOT NULL DEFAULT 0, " +
+                        "PRIMARY KEY (owner_id, counter))");
+                db.execSQL("CREATE TABLE IF NOT EXISTS " + DatabaseHelper.TABLE_USER_ACHIEVEMENTS + " (" +
+                        "owner_id TEXT NOT NULL, " +
+                        "achievement_id TEXT NOT NULL, " +
+                        "unlocked_at_ms INTEGER NOT NULL, " +
+                        "PRIMARY KEY (owner_id, achievement_id))");
+            }
+        });
+
+        // Version 11: sửa các dòng có completed_date ghi bằng chữ số không phải ASCII (locale của
+        // thiết bị), mà version 6 không đọc được nên thiếu completed_at_ms/epoch_day
+        MIGRATIONS.add(new Migration(11) {
+            @Override
+            void migrate(SQLiteDatabase db) {
+                if (repairCompletionDates(db)) {
+                    DatabaseHelper.rebuildStats(db);
+                }
+            }
+        });
+
+        // Version 12: mỗi lần hoàn thành trong hàng đợi thuộc về tài khoản đã ghi nhận nó, để
+        // tài khoản khác đăng nhập trên cùng máy không gửi (và nhận điểm) thay
+        MIGRATIONS.add(new Migration(12) {
+            @Override
+            void migrate(SQLiteDatabase db) {
+                // Reset database chạy lại các bước từ version 3 nhưng giữ bảng hàng đợi, lúc đó cột đã có
+                if (!hasColumn(db, DatabaseHelper.TABLE_COMPLETION_OUTBOX, "owner_id")) {
+                    db.execSQL("ALTER TABLE " + DatabaseHelper.TABLE_COMPLETION_OUTBOX + " ADD COLUMN owner_id TEXT");
+                }
+                db.execSQL("DROP INDEX IF EXISTS idx_completion_outbox_next_attempt");
+                db.execSQL("CREATE INDEX IF NOT EXISTS idx_completion_outbox_owner_next_attempt " +
+                        "ON " + DatabaseHelper.TABLE_COMPLETION_OUTBOX + "(owner_id, next_attempt_at_ms)");
+            }
+        });
+    }
+
+    /**
+     * Tính bảng tổng hợp theo schema version 5 (khóa ngày/tháng là chuỗi lấy từ completed_date).
+     * Giữ nguyên như lúc phát hành version 5 để mọi thiết bị đi qua cùng một bước migration.
+     */
+    private static void rebuildTextKeyedStats(SQLiteDatabase db) {
+        String thursday = "date(ua.completed_date, '-3 days', 'weekday 4')";
+        String[][] periods = {
+                {DatabaseHelper.TABLE_DAILY_STATS, "day", "substr(ua.completed_date, 1, 10)"},
+                {DatabaseHelper.TABLE_WEEKLY_STATS, "week", "printf('%s-W%02d', strftime('%Y', " + thursday + "), " +
+                        "(CAST(strftime('%j', " + thursday + ") AS INTEGER) - 1) / 7 + 1)"},
+                {DatabaseHelper.TABLE_MONTHLY_STATS, "month", "substr(ua.completed_date, 1, 7)"}
+        };
+
+        StringBuilder categoryColumns = new StringBuilder();
+        StringBuilder categorySums = new StringBuilder();
+        for (String category : DatabaseHelper.CATEGORIES) {
+            categoryColumns.append(", ").append(category).append("_count");
+            categorySums.append(", SUM(CASE WHEN a.category = '").append(category).append("' THEN 1 ELSE 0 END)");
+        }
+
+        for (String[] period : periods) {
+            db.execSQL("DELETE FROM " + period[0]);
+            db.execSQL("INSERT INTO " + period[0] + " (user_id, " + period[1] + ", points, activity_count" + categoryColumns + ") " +
+                    "SELECT ua.user_id, " + period[2] + " AS period, SUM(ua.points_earned), COUNT(*)" + categorySums +
+                    " FROM user_activities ua LEFT JOIN activities a ON ua.activity_id = a.id" +
+                    " WHERE ua.completed_date IS NOT NULL GROUP BY ua.user_id, period");
+        }
+    }
+
+    /**
+     * Ghi lại completed_date bằng chữ số ASCII (Locale.US) cho các dòng có ký tự ngoài ASCII hoặc
+     * chưa có completed_at_ms; dòng thiếu completed_at_ms được đọc theo locale của thiết bị.
+     * Trả về true nếu có dòng được điền thêm completed_at_ms/epoch_day
+     */
+    private static boolean repairCompletionDates(SQLiteDatabase db) {
+        SimpleDateFormat usFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
+        SimpleDateFormat deviceFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
+        SQLiteStatement update = db.compileStatement(
+                "UPDATE user_activities SET completed_date=?, completed_at_ms=?, epoch_day=? WHERE id=?");
+        // [^ -~]: ký tự nằm ngoài khoảng ASCII in được
+        Cursor cursor = db.rawQuery("SELECT id, completed_date, completed_at_ms FROM user_activities " +
+                "WHERE completed_date IS NOT NULL AND (completed_at_ms IS NULL OR completed_date GLOB '*[^ -~]*')", null);
+        boolean backfilled = false;
+        try {
+            while (cursor.moveToNext()) {
+                long millis;
+                if (!cursor.isNull(2)) {
+                    millis = cursor.getLong(2);
+                } else {
+                    Date date = parse(usFormat, cursor.getString(1));
+                    if (date == null) {
+                        date = parse(deviceFormat, cursor.getString(1));
+                    }
+                    if (date == null) {
+                        Log.w(TAG, "Cannot parse completed_date of user_activity " + cursor.getLong(0));
+                        continue;
+                    }
+                    millis = date.getTime();
+                    backfilled = true;
+                }
+
+                update.bindString(1, usFormat.format(new Date(millis)));
+                update.bindLong(2, millis);
+                update.bindLong(3, DatabaseHelper.toEpochDay(millis));
+                update.bindLong(4, cursor.getLong(0));
+                update.executeUpdateDelete();
+            }
+        } finally {
+            cursor.close();
+            update.close();
+        }
+        return backfilled;
+    }
+
+    private static Date parse(SimpleDateFormat format, String text) {
+        try {
+            return format.parse(text);
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Điền completed_at_ms và epoch_day từ chuỗi completed_date (yyyy-MM-dd HH:mm:ss, giờ địa phương)
+     */
+    private static void backfillCompletionTimes(SQLiteDatabase db) {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
+        SQLiteStatement update = db.compileStatement(
+                "UPDATE user_activities SET completed_at_ms=?, epoch_day=? WHERE id=?");
+        Cursor cursor = db.rawQuery("SELECT id, completed_date FROM user_activities WHERE completed_date IS NOT NULL", null);
+        try {
+            while (cursor.moveToNext()) {
+                Date date;
+                try {
+                    date = format.parse(cursor.getString(1));
+                } catch (ParseException e) {
+                    Log.w(TAG, "Cannot parse completed_date of user_activity " + cursor.getLong(0));
+                    continue;
+                }
+                if (date == null) {
+                    continue;
+                }
+
+                long millis = date.getTime();
+                update.bindLong(1, millis);
+                update.bindLong(2, DatabaseHelper.toEpochDay(millis));
+                update.bindLong(3, cursor.getLong(0));
+                update.executeUpdateDelete();
+            }
+        } finally {
+            cursor.close();
+            update.close();
+        }
+    }
+
+    private static boolean hasColumn(SQLiteDatabase db, String table, String column) {
+        Cursor cursor = db.rawQuery("PRAGMA table_info(" + table + ")", null);
+        try {
+            int nameIndex = cursor.getColumnIndexOrThrow("name");
+            while (cursor.moveToNext()) {
+                if (column.equals(cursor.getString(nameIndex))) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private static void createStatsTable(SQLiteDatabase db, String table, String periodColumn, String periodType) {
+        StringBuilder sql = new StringBuilder("CREATE TABLE IF NOT EXISTS " + table + " (" +
+                "user_id INTEGER NOT NULL, " +
+                periodColumn + " " + periodType + " NOT NULL, " +
+                "points INTEGER NOT NULL DEFAULT 0, " +
+                "activity_count INTEGER NOT NULL DEFAULT 0");
+        for (String category : DatabaseHelper.CATEGORIES) {
+            sql.append(", ").append(category).append("_count INTEGER NOT NULL DEFAULT 0");
+        }
+        sql.append(", PRIMARY KEY(user_id, ").append(periodColumn).append("))");
+        db.execSQL(sql.toString());
+    }
+
+    /**
+     * Chạy lần lượt các bước migration trong khoảng (fromVersion, toVersion], mỗi bước trong một transaction
+     */
+    public static void migrate(SQLiteDatabase db, int fromVersion, int toVersion) {
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version <= fromVersion || migration.version > toVersion) {
+                continue;
+            }
+
+            Log.d(TAG, "Migrating database to version " + migration.version);
+            db.beginTransaction();
+            try {
+                migration.migrate(db);
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        }
+    }
+}
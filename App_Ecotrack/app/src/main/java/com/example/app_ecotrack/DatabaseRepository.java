@@ -0,0 +1,56 @@
+package com.example.app_ecotrack;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Chạy các truy vấn DatabaseHelper trên luồng nền và trả kết quả về luồng UI.
+ * Bản dùng chung lấy từ AppContainer.getRepository().
+ */
+public class DatabaseRepository {
+    private static final String TAG = "DatabaseRepository";
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    public interface Query<T> {
+        T run(DatabaseHelper db);
+    }
+
+    public interface Callback<T> {
+        void onResult(T result);
+
+        default void onError(Exception e) {
+        }
+    }
+
+    private final DatabaseHelper db;
+    private final Executor executor;
+
+    public DatabaseRepository(DatabaseHelper db, Executor executor) {
+        this.db = db;
+        this.executor = executor;
+    }
+
+    public DatabaseHelper getDatabase() {
+        return db;
+    }
+
+    public <T> void execute(Query<T> query, Callback<T> callback) {
+        executor.execute(() -> {
+            try {
+                T result = query.run(db);
+                if (callback != null) {
+                    MAIN_HANDLER.post(() -> callback.onResult(result));
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Database query failed", e);
+                if (callback != null) {
+                    MAIN_HANDLER.post(() -> callback.onError(e));
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.app_ecotrack;
+
+import android.app.Application;
+
+import com.example.app_ecotrack.api.ApiClient;
+
+/**
+ * Khởi tạo dùng chung cho toàn app, chạy trước mọi Activity.
+ * ApiClient được dựng trên luồng nền để SplashActivity/LoginActivity không phải chờ.
+ * Giữ AppContainer, nơi activity và fragment lấy database, API và executor dùng chung;
+ * hàng đợi hoàn thành được dựng sẵn trên databaseExecutor.
+ */
+public class EcoTrackApplication extends Application {
+    private AppContainer container;
+
+    public synchronized AppContainer getContainer() {
+        if (container == null) {
+            container = new AppContainer(this);
+        }
+        return container;
+    }
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        ApiClient.bootstrap(this);
+        // Dựng sẵn hàng đợi hoàn thành (DatabaseHelper, SharedPreferences, theo dõi mạng) trên luồng nền
+        // để MainActivity không phải dựng trên luồng chính
+        AppContainer container = getContainer();
+        container.getDatabaseExecutor().execute(container::getCompletionOutbox);
+    }
+}
\ No newline at end of file
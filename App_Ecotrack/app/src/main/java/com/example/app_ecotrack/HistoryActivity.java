@@ -0,0 +1,107 @@
+package com.example.app_ecotrack;
+
+import android.content.SharedPreferences;
+import android.os.Bundle;
+import android.view.View;
+import android.widget.ProgressBar;
+import android.widget.TextView;
+import android.widget.Toast;
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.Toolbar;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.app_ecotrack.adapters.HistoryAdapter;
+import com.example.app_ecotrack.api.ApiClient;
+
+public class HistoryActivity extends AppCompatActivity implements HistoryPagingSource.Callback {
+    private RecyclerView recyclerView;
+    private TextView tvEmpty;
+    private ProgressBar progressBar;
+    private LinearLayoutManager layoutManager;
+    private HistoryAdapter adapter;
+    private HistoryPagingSource pagingSource;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_history);
+
+        Toolbar toolbar = findViewById(R.id.toolbar);
+        if (toolbar != null) {
+            setSupportActionBar(toolbar);
+            if (getSupportActionBar() != null) {
+                getSupportActionBar().setDisplayHomeAsUpEnabled(true);
+                getSupportActionBar().setTitle("Lịch Sử Hoạt Động");
+            }
+            toolbar.setNavigationOnClickListener(v -> finish());
+        }
+
+        recyclerView = findViewById(R.id.recyclerViewHistory);
+        tvEmpty = findViewById(R.id.tvHistoryEmpty);
+        progressBar = findViewById(R.id.progressHistory);
+
+        layoutManager = new LinearLayoutManager(this);
+        adapter = new HistoryAdapter();
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.setAdapter(adapter);
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0) {
+                    loadMoreIfNeeded();
+                }
+            }
+        });
+
+        SharedPreferences prefs = getSharedPreferences("EcoTrackPrefs", MODE_PRIVATE);
+        ApiClient.loadToken(this);
+        AppContainer container = AppContainer.from(this);
+        pagingSource = new HistoryPagingSource(container.getDatabase(), container.getApiService(),
+                prefs.getString("userId", ""));
+
+        progressBar.setVisibility(View.VISIBLE);
+        pagingSource.refresh(this);
+    }
+
+    // Tải trước trang tiếp theo khi còn PREFETCH_DISTANCE dòng nữa là tới cuối danh sách
+    private void loadMoreIfNeeded() {
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (lastVisible >= adapter.getItemCount() - HistoryPagingSource.PREFETCH_DISTANCE
+                && !pagingSource.isLoading() && !pagingSource.isEndReached()) {
+            progressBar.setVisibility(View.VISIBLE);
+            pagingSource.loadMore(this);
+        }
+    }
+
+    @Override
+    public void onPage(HistoryPagingSource.Page page, boolean refresh) {
+        progressBar.setVisibility(View.GONE);
+        if (refresh) {
+            adapter.setEntries(page.items);
+            if (page.fromCache) {
+                Toast.makeText(this, "Đang hiển thị lịch sử đã lưu", Toast.LENGTH_SHORT).show();
+            }
+        } else {
+            adapter.appendEntries(page.items);
+        }
+        tvEmpty.setVisibility(adapter.getItemCount() == 0 ? View.VISIBLE : View.GONE);
+
+        // Trang ngắn chưa lấp đầy màn hình thì không có sự kiện cuộn, tải tiếp luôn
+        recyclerView.post(this::loadMoreIfNeeded);
+    }
+
+    @Override
+    public void onError(Exception e) {
+        progressBar.setVisibility(View.GONE);
+        tvEmpty.setVisibility(adapter.getItemCount() == 0 ? View.VISIBLE : View.GONE);
+        Toast.makeText(this, "Không thể tải lịch sử, vui lòng kiểm tra kết nối", Toast.LENGTH_SHORT).show();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        pagingSource.close();
+    }
+}
\ No newline at end of file
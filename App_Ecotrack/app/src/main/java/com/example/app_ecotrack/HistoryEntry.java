@@ -0,0 +1,88 @@
+package com.example.app_ecotrack;
+
+/**
+ * Một dòng lịch sử hoạt động lấy từ server (api/activities/history), được lưu đệm trong SQLite
+ */
+public class HistoryEntry {
+    private String apiId;
+    private String activityName;
+    private String category;
+    private String icon;
+    private int pointsEarned;
+    private String completedAt; // Chuỗi ISO của server, gửi lại nguyên vẹn làm con trỏ trang
+    private long completedAtMs;
+
+    // Constructor rỗng
+    public HistoryEntry() {
+    }
+
+    // Constructor đầy đủ
+    public HistoryEntry(String apiId, String activityName, String category, String icon,
+                        int pointsEarned, String completedAt, long completedAtMs) {
+        this.apiId = apiId;
+        this.activityName = activityName;
+        this.category = category;
+        this.icon = icon;
+        this.pointsEarned = pointsEarned;
+        this.completedAt = completedAt;
+        this.completedAtMs = completedAtMs;
+    }
+
+    // Getters
+    public String getApiId() {
+        return apiId;
+    }
+
+    public String getActivityName() {
+        return activityName;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public String getIcon() {
+        return icon;
+    }
+
+    public int getPointsEarned() {
+        return pointsEarned;
+    }
+
+    public String getCompletedAt() {
+        return completedAt;
+    }
+
+    public long getCompletedAtMs() {
+        return completedAtMs;
+    }
+
+    // Setters
+    public void setApiId(String apiId) {
+        this.apiId = apiId;
+    }
+
+    public void setActivityName(String activityName) {
+        this.activityName = activityName;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public void setIcon(String icon) {
+        this.icon = icon;
+    }
+
+    public void setPointsEarned(int pointsEarned) {
+        this.pointsEarned = pointsEarned;
+    }
+
+    public void setCompletedAt(String completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public void setCompletedAtMs(long completedAtMs) {
+        this.completedAtMs = completedAtMs;
+    }
+}
\ No newline at end of file
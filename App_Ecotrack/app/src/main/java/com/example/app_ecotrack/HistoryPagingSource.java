@@ -0,0 +1,241 @@
+package com.example.app_ecotrack;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.app_ecotrack.api.ApiService;
+import com.example.app_ecotrack.api.models.ActivityHistoryResponse;
+import com.example.app_ecotrack.api.models.HistoryItem;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import retrofit2.Response;
+
+/**
+ * Nguồn dữ liệu phân trang cho màn hình lịch sử hoạt động.
+ * Mỗi trang được lấy theo con trỏ (completedAt, id) của dòng cuối trang trước, nên trang sâu
+ * cũng tốn như trang đầu, ở cả server lẫn SQLite. Các trang đã tải được lưu vào history_cache:
+ * trang tiếp theo đọc từ bản đệm nếu có, chỉ gọi server khi bản đệm hết; khi offline thì hiển thị bản đệm.
+ *
+ * refresh()/loadMore() gọi trên luồng UI, kết quả trả về trên luồng UI.
+ */
+public class HistoryPagingSource {
+    private static final String TAG = "HistoryPagingSource";
+    public static final int PAGE_SIZE = 30;
+    // Tải trang tiếp theo khi còn chừng này dòng chưa cuộn tới
+    public static final int PREFETCH_DISTANCE = 10;
+
+    public static class Page {
+        public final List<HistoryEntry> items;
+        public final boolean endReached;
+        public final boolean fromCache;
+
+        Page(List<HistoryEntry> items, boolean endReached, boolean fromCache) {
+            this.items = items;
+            this.endReached = endReached;
+            this.fromCache = fromCache;
+        }
+    }
+
+    public interface Callback {
+        // refresh = true: thay toàn bộ danh sách, ngược lại nối thêm vào cuối
+        void onPage(Page page, boolean refresh);
+
+        void onError(Exception e);
+    }
+
+    private final DatabaseHelper db;
+    private final ApiService api;
+    private final String ownerId;
+    private final int pageSize;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ecotrack-history");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    // Chỉ đọc/ghi trên luồng UI
+    private HistoryEntry lastItem;
+    private boolean endReached;
+    private boolean loading;
+    private int generation;
+
+    public HistoryPagingSource(DatabaseHelper db, ApiService api, String ownerId) {
+        this(db, api, ownerId, PAGE_SIZE);
+    }
+
+    HistoryPagingSource(DatabaseHelper db, ApiService api, String ownerId, int pageSize) {
+        this.db = db;
+        this.api = api;
+        this.ownerId = ownerId;
+        this.pageSize = pageSize;
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    public boolean isEndReached() {
+        return endReached;
+    }
+
+    public void refresh(Callback callback) {
+        int requestGeneration = ++generation;
+        loading = true;
+        executor.execute(() -> deliver(requestGeneration, callback, true, this::loadFirst));
+    }
+
+    // Bỏ qua nếu đang tải hoặc đã hết dữ liệu
+    public void loadMore(Callback callback) {
+        if (loading || endReached || lastItem == null) {
+            return;
+        }
+        int requestGeneration = generation;
+        HistoryEntry after = lastItem;
+        loading = true;
+        executor.execute(() -> deliver(requestGeneration, callback, false, () -> loadAfter(after)));
+    }
+
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private interface Load {
+        Page run() throws IOException;
+    }
+
+    private void deliver(int requestGeneration, Callback callback, boolean refresh, Load load) {
+        Page page;
+        try {
+            page = load.run();
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Cannot load history page", e);
+            mainHandler.post(() -> {
+                if (requestGeneration != generation) return;
+                loading = false;
+                callback.onError(e);
+            });
+            return;
+        }
+
+        mainHandler.post(() -> {
+            // Kết quả của lần tải trước khi refresh thì bỏ đi
+            if (requestGeneration != generation) return;
+            loading = false;
+            endReached = page.endReached;
+            if (!page.items.isEmpty()) {
+                lastItem = page.items.get(page.items.size() - 1);
+            } else if (refresh) {
+                lastItem = null;
+            }
+            callback.onPage(page, refresh);
+        });
+    }
+
+    /**
+     * Trang đầu luôn hỏi server để thấy các lần hoàn thành mới. Nếu dòng cuối của trang đã có trong
+     * bản đệm thì bản đệm vẫn nối liền và được giữ lại; nếu không thì thay bản đệm bằng trang này.
+     * Không có mạng thì trả về trang đầu của bản đệm.
+     */
+    Page loadFirst() throws IOException {
+        Response<ActivityHistoryResponse> response;
+        try {
+            response = api.getActivityHistoryPage(pageSize, null, null).execute();
+        } catch (IOException e) {
+            return firstCachedPage(e);
+        }
+
+        ActivityHistoryResponse body = response.body();
+        if (!response.isSuccessful() || body == null || body.history == null) {
+            return firstCachedPage(new IOException("HTTP " + response.code()));
+        }
+
+        List<HistoryEntry> entries = toEntries(body.history);
+        boolean end = body.nextCursor == null;
+        boolean joinsCache = !entries.isEmpty()
+                && db.isCachedHistory(ownerId, entries.get(entries.size() - 1).getApiId());
+        db.cacheHistoryPage(ownerId, entries, !joinsCache || end, end);
+        return new Page(entries, end, false);
+    }
+
+    private Page firstCachedPage(IOException cause) throws IOException {
+        List<HistoryEntry> cached = db.getCachedHistory(ownerId, null, pageSize);
+        if (cached.isEmpty() && !db.isHistoryCacheComplete(ownerId)) {
+            throw cause;
+        }
+        return new Page(cached, cached.size() < pageSize && db.isHistoryCacheComplete(ownerId), true);
+    }
+
+    /**
+     * Trang sau dòng after: đọc từ bản đệm nếu đủ một trang (hoặc bản đệm đã tới dòng cũ nhất),
+     * ngược lại lấy từ server bắt đầu đúng sau after rồi lưu thêm vào bản đệm.
+     */
+    Page loadAfter(HistoryEntry after) throws IOException {
+        List<HistoryEntry> cached = db.getCachedHistory(ownerId, after, pageSize);
+        if (cached.size() == pageSize || db.isHistoryCacheComplete(ownerId)) {
+            return new Page(cached, cached.size() < pageSize, true);
+        }
+
+        Response<ActivityHistoryResponse> response;
+        try {
+            response = api.getActivityHistoryPage(pageSize, after.getCompletedAt(), after.getApiId()).execute();
+        } catch (IOException e) {
+            if (cached.isEmpty()) {
+                throw e;
+            }
+            return new Page(cached, false, true);
+        }
+
+        ActivityHistoryResponse body = response.body();
+        if (!response.isSuccessful() || body == null || body.history == null) {
+            if (cached.isEmpty()) {
+                throw new IOException("HTTP " + response.code());
+            }
+            return new Page(cached, false, true);
+        }
+
+        List<HistoryEntry> entries = toEntries(body.history);
+        boolean end = body.nextCursor == null;
+        db.cacheHistoryPage(ownerId, entries, false, end);
+        return new Page(entries, end, false);
+    }
+
+    private static List<HistoryEntry> toEntries(List<HistoryItem> items) {
+        SimpleDateFormat isoFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", Locale.US);
+        isoFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+
+        List<HistoryEntry> entries = new ArrayList<>(items.size());
+        for (HistoryItem item : items) {
+            if (item.id == null || item.completedAt == null) {
+                continue;
+            }
+            long completedAtMs = 0;
+            try {
+                Date date = isoFormat.parse(item.completedAt);
+                if (date != null) {
+                    completedAtMs = date.getTime();
+                }
+            } catch (ParseException e) {
+                Log.w(TAG, "Cannot parse completedAt " + item.completedAt);
+            }
+
+            entries.add(new HistoryEntry(item.id,
+                    item.activity != null ? item.activity.name : null,
+                    item.activity != null ? item.activity.category : null,
+                    item.activity != null ? item.activity.icon : null,
+                    item.pointsEarned, item.completedAt, completedAtMs));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.app_ecotrack;
+
+import android.database.Cursor;
+
+import com.example.app_ecotrack.api.models.DashboardResponse;
+import com.example.app_ecotrack.api.models.UserData;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Locale;
+
+/**
+ * Dựng DashboardResponse từ SQLite theo đúng hợp đồng của api/dashboard:
+ * hôm nay, 7 ngày gần nhất, tổng số hoạt động, hạng và biểu đồ 7 ngày.
+ * Dùng khi không gọi được server và làm bản thay thế server trong test.
+ * Chạy trên luồng nền (qua DatabaseRepository).
+ */
+public final class LocalDashboard {
+    private static final int CHART_DAYS = 7;
+
+    private LocalDashboard() {
+    }
+
+    public static DashboardResponse build(DatabaseHelper db, int userId) {
+        DashboardResponse dashboard = new DashboardResponse();
+        dashboard.user = loadUser(db, userId);
+
+        int[] points = db.getDailyPoints(userId, CHART_DAYS);
+        int[] counts = db.getDailyActivityCounts(userId, CHART_DAYS);
+
+        dashboard.today = new DashboardResponse.Period();
+        dashboard.today.points = points[CHART_DAYS - 1];
+        dashboard.today.activities = counts[CHART_DAYS - 1];
+
+        dashboard.week = new DashboardResponse.Period();
+        dashboard.week.points = db.getWeekPoints(userId);
+        dashboard.week.activities = db.getWeekActivityCount(userId);
+
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.US);
+        Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.DAY_OF_YEAR, -(CHART_DAYS - 1));
+        dashboard.weeklyChart = new ArrayList<>(CHART_DAYS);
+        for (int i = 0; i < CHART_DAYS; i++) {
+            DashboardResponse.ChartDay day = new DashboardResponse.ChartDay();
+            day.date = dateFormat.format(calendar.getTime());
+            day.points = points[i];
+            day.count = counts[i];
+            dashboard.weeklyChart.add(day);
+            calendar.add(Calendar.DAY_OF_YEAR, 1);
+        }
+
+        dashboard.totalActivities = db.getTotalActivityCount(userId);
+        UserRank rank = db.getUserRank(userId, 0);
+        dashboard.rank = rank != null ? rank.getRank() : 0;
+        return dashboard;
+    }
+
+    private static UserData loadUser(DatabaseHelper db, int userId) {
+        Cursor cursor = db.getUserById(userId);
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            if (!cursor.moveToFirst()) {
+                return null;
+            }
+            UserData user = new UserData();
+            user.id = String.valueOf(userId);
+            user.username = cursor.getString(cursor.getColumnIndexOrThrow("username"));
+            user.email = cursor.getString(cursor.getColumnIndexOrThrow("email"));
+            user.fullname = cursor.getString(cursor.getColumnIndexOrThrow("fullname"));
+            user.role = cursor.getString(cursor.getColumnIndexOrThrow("role"));
+            user.points = cursor.getInt(cursor.getColumnIndexOrThrow("points"));
+            user.level = cursor.getInt(cursor.getColumnIndexOrThrow("level"));
+            user.createdAt = cursor.getString(cursor.getColumnIndexOrThrow("created_at"));
+            return user;
+        } finally {
+            cursor.close();
+        }
+    }
+}
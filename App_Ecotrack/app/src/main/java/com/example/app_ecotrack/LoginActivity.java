@@ -110,7 +110,7 @@ public class LoginActivity extends AppCompatActivity {
         Log.d(TAG, "Attempting login with username: " + username);
 
         LoginRequest request = new LoginRequest(username, password);
-        ApiClient.getApiService().login(request).enqueue(new Callback<AuthResponse>() {
+        AppContainer.from(this).getApiService().login(request).enqueue(new Callback<AuthResponse>() {
             @Override
             public void onResponse(Call<AuthResponse> call, Response<AuthResponse> response) {
                 setLoading(false);
@@ -126,6 +126,8 @@ public class LoginActivity extends AppCompatActivity {
                     
                     // Save user info to SharedPreferences
                     saveUserInfo(authResponse);
+                    // Queued completions of this account (if any) can be sent again
+                    AppContainer.from(LoginActivity.this).getCompletionOutbox().setOwner(authResponse.user.id);
                     
                     Toast.makeText(LoginActivity.this, 
                             "Chào mừng " + authResponse.user.fullname + "!", 
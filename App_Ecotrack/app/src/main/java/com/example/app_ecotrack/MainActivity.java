@@ -13,19 +13,49 @@ import androidx.viewpager2.widget.ViewPager2;
 
 import com.example.app_ecotrack.adapters.ViewPagerAdapter;
 import com.example.app_ecotrack.api.ApiClient;
-import com.example.app_ecotrack.api.models.ProfileResponse;
+import com.example.app_ecotrack.api.models.DashboardResponse;
 import com.google.android.material.tabs.TabLayout;
 import com.google.android.material.tabs.TabLayoutMediator;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
 
 public class MainActivity extends AppCompatActivity {
+    // Screens that render from the dashboard payload (HomeFragment)
+    public interface DashboardListener {
+        void onDashboard(DashboardResponse dashboard);
+    }
+
     private TabLayout tabLayout;
     private ViewPager2 viewPager;
     private TextView tvUserName, tvPoints, tvLevel;
     private SharedPreferences prefs;
+    private CompletionOutbox outbox;
+    // Reload the header once queued completions are accepted by the server
+    private final CompletionOutbox.Listener syncListener = new CompletionOutbox.Listener() {
+        @Override
+        public void onCompletionsSynced(int totalPoints, int level) {
+            refreshData();
+        }
+
+        @Override
+        public void onAchievementsUnlocked(List<Achievement> unlocked) {
+            for (Achievement achievement : unlocked) {
+                Toast.makeText(MainActivity.this,
+                        "🏆 Mở khóa huy hiệu: " + achievement.getRule().getIcon() + " " + achievement.getRule().getName(),
+                        Toast.LENGTH_LONG).show();
+            }
+        }
+    };
+    private final List<DashboardListener> dashboardListeners = new ArrayList<>();
+    private DashboardResponse dashboard;
+    // DataVersion the current dashboard was requested at
+    private long dashboardVersion;
+    private DatabaseRepository repository;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -36,6 +66,10 @@ public class MainActivity extends AppCompatActivity {
         
         // Load auth token
         ApiClient.loadToken(this);
+        AppContainer container = AppContainer.from(this);
+        outbox = container.getCompletionOutbox();
+        outbox.addListener(syncListener);
+        repository = container.getRepository();
 
         initViews();
         setupToolbar();
@@ -80,37 +114,77 @@ public class MainActivity extends AppCompatActivity {
         int level = prefs.getInt("level", 1);
 
         tvUserName.setText(fullname);
-        tvPoints.setText(points + " điểm");
+        tvPoints.setText((points + outbox.getPendingPoints()) + " điểm");
         tvLevel.setText("Cấp " + level);
 
-        // Then update from API
-        ApiClient.getApiService().getProfile().enqueue(new Callback<ProfileResponse>() {
+        // Then header and home screen from a single dashboard call
+        long version = DataVersion.current();
+        AppContainer.from(this).getApiService().getDashboard().enqueue(new Callback<DashboardResponse>() {
             @Override
-            public void onResponse(Call<ProfileResponse> call, Response<ProfileResponse> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    ProfileResponse profile = response.body();
-                    
-                    // Update UI
-                    tvUserName.setText(profile.user.fullname);
-                    tvPoints.setText(profile.user.points + " điểm");
-                    tvLevel.setText("Cấp " + profile.user.level);
+            public void onResponse(Call<DashboardResponse> call, Response<DashboardResponse> response) {
+                if (response.isSuccessful() && response.body() != null && response.body().user != null) {
+                    DashboardResponse body = response.body();
 
                     // Update SharedPreferences
                     SharedPreferences.Editor editor = prefs.edit();
-                    editor.putInt("points", profile.user.points);
-                    editor.putInt("level", profile.user.level);
-                    editor.putString("fullname", profile.user.fullname);
+                    editor.putInt("points", body.user.points);
+                    editor.putInt("level", body.user.level);
+                    editor.putString("fullname", body.user.fullname);
                     editor.apply();
+
+                    showDashboard(body, version);
+                } else {
+                    loadLocalDashboard(version);
                 }
             }
 
             @Override
-            public void onFailure(Call<ProfileResponse> call, Throwable t) {
-                // Silent fail - use cached data
+            public void onFailure(Call<DashboardResponse> call, Throwable t) {
+                loadLocalDashboard(version);
             }
         });
     }
 
+    // Offline: same payload built from the local database
+    private void loadLocalDashboard(long version) {
+        int userId;
+        try {
+            userId = Integer.parseInt(prefs.getString("userId", "-1"));
+        } catch (NumberFormatException e) {
+            userId = -1;
+        }
+        int localUserId = userId;
+        repository.execute(db -> LocalDashboard.build(db, localUserId), local -> {
+            if (isFinishing()) return;
+            showDashboard(local, version);
+        });
+    }
+
+    private void showDashboard(DashboardResponse dashboard, long version) {
+        this.dashboard = dashboard;
+        this.dashboardVersion = version;
+        if (dashboard.user != null) {
+            tvUserName.setText(dashboard.user.fullname);
+            tvPoints.setText((dashboard.user.points + outbox.getPendingPoints()) + " điểm");
+            tvLevel.setText("Cấp " + dashboard.user.level);
+        }
+        for (DashboardListener listener : new ArrayList<>(dashboardListeners)) {
+            listener.onDashboard(dashboard);
+        }
+    }
+
+    // The listener immediately gets the last loaded dashboard, if any
+    public void addDashboardListener(DashboardListener listener) {
+        dashboardListeners.add(listener);
+        if (dashboard != null) {
+            listener.onDashboard(dashboard);
+        }
+    }
+
+    public void removeDashboardListener(DashboardListener listener) {
+        dashboardListeners.remove(listener);
+    }
+
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.main_menu, menu);
@@ -132,6 +206,8 @@ public class MainActivity extends AppCompatActivity {
     }
 
     private void logout() {
+        // Stop sending this account's queued completions; they are kept until it signs in again
+        outbox.setOwner(null);
         // Clear token and preferences
         ApiClient.clearAuthToken();
         prefs.edit().clear().apply();
@@ -142,6 +218,12 @@ public class MainActivity extends AppCompatActivity {
         finish();
     }
 
+    @Override
+    protected void onDestroy() {
+        outbox.removeListener(syncListener);
+        super.onDestroy();
+    }
+
     @Override
     protected void onResume() {
         super.onResume();
@@ -151,4 +233,11 @@ public class MainActivity extends AppCompatActivity {
     public void refreshData() {
         loadUserInfo();
     }
+
+    // For tab switches: reload only if a completion or sync changed the data since the last dashboard
+    public void refreshDataIfChanged() {
+        if (dashboard == null || dashboardVersion != DataVersion.current()) {
+            loadUserInfo();
+        }
+    }
 }
@@ -0,0 +1,64 @@
+package com.example.app_ecotrack;
+
+public class PendingCompletion {
+    private String clientId;
+    private String activityApiId;
+    private int points;
+    private long completedAtMs;
+    private int attempts;
+
+    // Constructor rỗng
+    public PendingCompletion() {
+    }
+
+    // Constructor đầy đủ
+    public PendingCompletion(String clientId, String activityApiId, int points, long completedAtMs, int attempts) {
+        this.clientId = clientId;
+        this.activityApiId = activityApiId;
+        this.points = points;
+        this.completedAtMs = completedAtMs;
+        this.attempts = attempts;
+    }
+
+    // Getters
+    public String getClientId() {
+        return clientId;
+    }
+
+    public String getActivityApiId() {
+        return activityApiId;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public long getCompletedAtMs() {
+        return completedAtMs;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    // Setters
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public void setActivityApiId(String activityApiId) {
+        this.activityApiId = activityApiId;
+    }
+
+    public void setPoints(int points) {
+        this.points = points;
+    }
+
+    public void setCompletedAtMs(long completedAtMs) {
+        this.completedAtMs = completedAtMs;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+}
@@ -9,7 +9,6 @@ import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
-import com.example.app_ecotrack.api.ApiClient;
 import com.example.app_ecotrack.api.models.AuthResponse;
 import com.example.app_ecotrack.api.models.RegisterRequest;
 
@@ -79,7 +78,7 @@ public class RegisterActivity extends AppCompatActivity {
         setLoading(true);
 
         RegisterRequest request = new RegisterRequest(username, password, fullname, email);
-        ApiClient.getApiService().register(request).enqueue(new Callback<AuthResponse>() {
+        AppContainer.from(this).getApiService().register(request).enqueue(new Callback<AuthResponse>() {
             @Override
             public void onResponse(Call<AuthResponse> call, Response<AuthResponse> response) {
                 setLoading(false);
@@ -4,11 +4,16 @@ import android.os.Bundle;
 import android.widget.ImageButton;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.app_ecotrack.api.ApiClient;
+
 public class SplashActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_splash);
+
+        // Open the connection to the API while the splash is showing
+        ApiClient.prewarm();
         
         // Auto navigate to LoginActivity after delay
         new android.os.Handler().postDelayed(() -> {
@@ -0,0 +1,48 @@
+package com.example.app_ecotrack;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class UserRank {
+    private int rank;
+    // Các user xếp ngay trên và ngay dưới, theo thứ tự hạng tăng dần
+    private List<User> above = new ArrayList<>();
+    private List<User> below = new ArrayList<>();
+
+    // Constructor rỗng
+    public UserRank() {
+    }
+
+    // Constructor đầy đủ
+    public UserRank(int rank, List<User> above, List<User> below) {
+        this.rank = rank;
+        this.above = above;
+        this.below = below;
+    }
+
+    // Getters
+    public int getRank() {
+        return rank;
+    }
+
+    public List<User> getAbove() {
+        return above;
+    }
+
+    public List<User> getBelow() {
+        return below;
+    }
+
+    // Setters
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+
+    public void setAbove(List<User> above) {
+        this.above = above;
+    }
+
+    public void setBelow(List<User> below) {
+        this.below = below;
+    }
+}
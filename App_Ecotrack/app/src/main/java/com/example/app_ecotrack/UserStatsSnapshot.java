@@ -0,0 +1,160 @@
+package com.example.app_ecotrack;
+
+import android.database.Cursor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Toàn bộ số liệu của user mà các tab Trang chủ, Thống kê và Hồ sơ cần, tính trong một lượt
+ * trên luồng nền (qua DatabaseRepository) và không đổi sau khi dựng.
+ * Gắn với DataVersion lúc bắt đầu tính: bản chụp còn dùng được cho tới khi phiên bản đổi.
+ */
+public final class UserStatsSnapshot {
+    // Đủ cho khoảng dài nhất của biểu đồ thống kê
+    public static final int CHART_DAYS = 365;
+    public static final int RECENT_LIMIT = 10;
+
+    private final int userId;
+    private final long version;
+    private final User user;
+    private final int totalActivities;
+    private final int rank;
+    private final int todayPoints;
+    private final int weekPoints;
+    private final Map<String, CategoryStat> categoryStats;
+    private final List<HistoryEntry> recentActivities;
+    private final int[] dailyPoints;
+
+    private UserStatsSnapshot(int userId, long version, User user, int totalActivities, int rank,
+                              int todayPoints, int weekPoints, Map<String, CategoryStat> categoryStats,
+                              List<HistoryEntry> recentActivities, int[] dailyPoints) {
+        this.userId = userId;
+        this.version = version;
+        this.user = user;
+        this.totalActivities = totalActivities;
+        this.rank = rank;
+        this.todayPoints = todayPoints;
+        this.weekPoints = weekPoints;
+        this.categoryStats = Collections.unmodifiableMap(categoryStats);
+        this.recentActivities = Collections.unmodifiableList(recentActivities);
+        this.dailyPoints = dailyPoints;
+    }
+
+    public static UserStatsSnapshot load(DatabaseHelper db, int userId, long version) {
+        int[] dailyPoints = db.getDailyPoints(userId, CHART_DAYS);
+        UserRank rank = db.getUserRank(userId, 0);
+        return new UserStatsSnapshot(userId, version,
+                loadUser(db, userId),
+                db.getTotalActivityCount(userId),
+                rank != null ? rank.getRank() : 0,
+                dailyPoints[CHART_DAYS - 1],
+                db.getWeekPoints(userId),
+                db.getCategoryStats(userId),
+                loadRecentActivities(db, userId),
+                dailyPoints);
+    }
+
+    private static User loadUser(DatabaseHelper db, int userId) {
+        Cursor cursor = db.getUserById(userId);
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            if (!cursor.moveToFirst()) {
+                return null;
+            }
+            return new User(userId,
+                    cursor.getString(cursor.getColumnIndexOrThrow("username")),
+                    cursor.getString(cursor.getColumnIndexOrThrow("fullname")),
+                    cursor.getString(cursor.getColumnIndexOrThrow("email")),
+                    cursor.getString(cursor.getColumnIndexOrThrow("role")),
+                    cursor.getInt(cursor.getColumnIndexOrThrow("points")),
+                    cursor.getInt(cursor.getColumnIndexOrThrow("level")),
+                    cursor.getString(cursor.getColumnIndexOrThrow("created_at")));
+        } finally {
+            cursor.close();
+        }
+    }
+
+    // Các hoạt động gần nhất, cũ trước mới sau như màn hình Thống kê hiển thị
+    private static List<HistoryEntry> loadRecentActivities(DatabaseHelper db, int userId) {
+        List<HistoryEntry> recent = new ArrayList<>();
+        Cursor cursor = db.getUserActivities(userId);
+        if (cursor == null) {
+            return recent;
+        }
+        try {
+            while (recent.size() < RECENT_LIMIT && cursor.moveToNext()) {
+                recent.add(0, new HistoryEntry(null,
+                        cursor.getString(cursor.getColumnIndexOrThrow("name")),
+                        cursor.getString(cursor.getColumnIndexOrThrow("category")),
+                        null,
+                        cursor.getInt(cursor.getColumnIndexOrThrow("points_earned")),
+                        cursor.getString(cursor.getColumnIndexOrThrow("completed_date")),
+                        cursor.getLong(cursor.getColumnIndexOrThrow("completed_at_ms"))));
+            }
+        } finally {
+            cursor.close();
+        }
+        return recent;
+    }
+
+    // Bản chụp còn đúng nếu dữ liệu chưa đổi kể từ lúc tính và vẫn là của user này
+    public boolean isCurrent(int userId, long version) {
+        return this.userId == userId && this.version == version;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    // null nếu user không có trong database local
+    public User getUser() {
+        return user;
+    }
+
+    public int getTotalActivities() {
+        return totalActivities;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public int getTodayPoints() {
+        return todayPoints;
+    }
+
+    public int getWeekPoints() {
+        return weekPoints;
+    }
+
+    public Map<String, CategoryStat> getCategoryStats() {
+        return categoryStats;
+    }
+
+    public int getCategoryCount(String category) {
+        CategoryStat stat = categoryStats.get(category);
+        return stat != null ? stat.getCount() : 0;
+    }
+
+    public List<HistoryEntry> getRecentActivities() {
+        return recentActivities;
+    }
+
+    /**
+     * Điểm theo ngày của {@code days} ngày gần nhất (tối đa CHART_DAYS), phần tử cuối là hôm nay
+     */
+    public int[] getDailyPoints(int days) {
+        int count = Math.max(0, Math.min(days, dailyPoints.length));
+        return Arrays.copyOfRange(dailyPoints, dailyPoints.length - count, dailyPoints.length);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.app_ecotrack;
+
+import android.app.Application;
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+/**
+ * Giữ UserStatsSnapshot cho MainActivity; các fragment lấy bằng
+ * {@code new ViewModelProvider(requireActivity()).get(UserStatsViewModel.class)} nên dùng chung một bản.
+ *
+ * refresh() chỉ chạy truy vấn khi DataVersion (hoặc user đăng nhập) đã đổi so với bản đang giữ,
+ * nên chuyển qua lại giữa các tab không tốn truy vấn nào nếu dữ liệu không đổi.
+ * Hồ sơ trên server (ProfileFragment) cũng chỉ tải lại khi DataVersion, user đổi hoặc lần tải
+ * trước đã quá REMOTE_MAX_AGE_MS (để thấy thay đổi từ thiết bị khác).
+ * Mọi phương thức gọi trên luồng UI.
+ */
+public class UserStatsViewModel extends AndroidViewModel {
+    private static final long REMOTE_MAX_AGE_MS = 5 * 60_000;
+
+    private final DatabaseRepository repository;
+    private final SharedPreferences prefs;
+    private final MutableLiveData<UserStatsSnapshot> snapshot = new MutableLiveData<>();
+
+    // Lần tính gần nhất đã gửi đi; kết quả của các lần cũ hơn bị bỏ
+    private boolean loading;
+    private long loadingVersion;
+    private int loadingUserId;
+
+    // Lần tải hồ sơ từ server thành công gần nhất
+    private boolean remoteLoaded;
+    private long remoteVersion;
+    private String remoteUserId;
+    private long remoteLoadedAtMs;
+
+    public UserStatsViewModel(@NonNull Application application) {
+        super(application);
+        repository = AppContainer.from(application).getRepository();
+        prefs = application.getSharedPreferences("EcoTrackPrefs", Context.MODE_PRIVATE);
+    }
+
+    public LiveData<UserStatsSnapshot> getSnapshot() {
+        return snapshot;
+    }
+
+    public void refresh() {
+        int userId = currentUserId();
+        // Lấy phiên bản trước khi đọc: thay đổi xảy ra trong lúc đọc sẽ làm bản chụp cũ đi và được tính lại
+        long version = DataVersion.current();
+        UserStatsSnapshot current = snapshot.getValue();
+        if (current != null && current.isCurrent(userId, version)) {
+            return;
+        }
+        if (loading && loadingVersion == version && loadingUserId == userId) {
+            return;
+        }
+
+        loading = true;
+        loadingVersion = version;
+        loadingUserId = userId;
+        repository.execute(db -> UserStatsSnapshot.load(db, userId, version), new DatabaseRepository.Callback<UserStatsSnapshot>() {
+            @Override
+            public void onResult(UserStatsSnapshot result) {
+                if (isLatest(version, userId)) {
+                    loading = false;
+                    snapshot.setValue(result);
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (isLatest(version, userId)) {
+                    loading = false;
+                }
+            }
+        });
+    }
+
+    public boolean needsRemoteRefresh(long now) {
+        return !remoteLoaded
+                || remoteVersion != DataVersion.current()
+                || !remoteUserId.equals(prefs.getString("userId", ""))
+                || now - remoteLoadedAtMs >= REMOTE_MAX_AGE_MS;
+    }
+
+    // version: DataVersion lúc bắt đầu tải, để thay đổi xảy ra trong lúc tải vẫn làm lần sau tải lại
+    public void onRemoteRefreshed(long version, long now) {
+        remoteLoaded = true;
+        remoteVersion = version;
+        remoteUserId = prefs.getString("userId", "");
+        remoteLoadedAtMs = now;
+    }
+
+    private boolean isLatest(long version, int userId) {
+        return loading && loadingVersion == version && loadingUserId == userId;
+    }
+
+    // userId được LoginActivity lưu dạng chuỗi (id của server)
+    private int currentUserId() {
+        try {
+            return Integer.parseInt(prefs.getString("userId", "-1"));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -9,26 +9,77 @@ import android.widget.Button;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.app_ecotrack.Activity;
 import com.example.app_ecotrack.R;
 
 import java.util.List;
+import java.util.Objects;
+
+/**
+ * Activity list backed by ListAdapter: submitList() diffs the new list against the current one
+ * on a background thread and only rebinds rows that changed. Submitted lists must not be
+ * modified afterwards, so callers pass copies (see Activity(Activity)).
+ */
+public class ActivityAdapter extends ListAdapter<Activity, ActivityAdapter.ActivityViewHolder> {
+    // Payload for a row whose only change is the completed state: rebind the button, not the texts
+    private static final Object PAYLOAD_COMPLETED = new Object();
+
+    static final DiffUtil.ItemCallback<Activity> DIFF_CALLBACK = new DiffUtil.ItemCallback<Activity>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Activity oldItem, @NonNull Activity newItem) {
+            return Objects.equals(oldItem.getApiId(), newItem.getApiId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Activity oldItem, @NonNull Activity newItem) {
+            return oldItem.isCompleted() == newItem.isCompleted() && sameDisplay(oldItem, newItem);
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull Activity oldItem, @NonNull Activity newItem) {
+            return sameDisplay(oldItem, newItem) ? PAYLOAD_COMPLETED : null;
+        }
+
+        private boolean sameDisplay(Activity oldItem, Activity newItem) {
+            return oldItem.getPoints() == newItem.getPoints()
+                    && Objects.equals(oldItem.getName(), newItem.getName())
+                    && Objects.equals(oldItem.getDescription(), newItem.getDescription())
+                    && Objects.equals(oldItem.getCategory(), newItem.getCategory());
+        }
+    };
 
-public class ActivityAdapter extends RecyclerView.Adapter<ActivityAdapter.ActivityViewHolder> {
     private Context context;
-    private List<Activity> activityList;
     private OnActivityClickListener listener;
 
     public interface OnActivityClickListener {
         void onCompleteClick(Activity activity);
     }
 
-    public ActivityAdapter(Context context, List<Activity> activityList, OnActivityClickListener listener) {
+    public ActivityAdapter(Context context, OnActivityClickListener listener) {
+        super(DIFF_CALLBACK);
         this.context = context;
-        this.activityList = activityList;
         this.listener = listener;
+        // Rows keep their views across filter changes instead of being rebound by position
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return stableId(getItem(position).getApiId());
+    }
+
+    // 64-bit FNV-1a hash of the server id; ids are 24-char ObjectIds, so collisions are negligible
+    static long stableId(String apiId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < apiId.length(); i++) {
+            hash ^= apiId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
     }
 
     @NonNull
@@ -38,15 +89,27 @@ public class ActivityAdapter extends RecyclerView.Adapter<ActivityAdapter.Activi
         return new ActivityViewHolder(view);
     }
 
+    @Override
+    public void onBindViewHolder(@NonNull ActivityViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_COMPLETED)) {
+            bindCompleted(holder, getItem(position));
+        } else {
+            onBindViewHolder(holder, position);
+        }
+    }
+
     @Override
     public void onBindViewHolder(@NonNull ActivityViewHolder holder, int position) {
-        Activity activity = activityList.get(position);
+        Activity activity = getItem(position);
 
         holder.tvName.setText(activity.getName());
         holder.tvDescription.setText(activity.getDescription());
         holder.tvPoints.setText("+" + activity.getPoints() + " điểm");
         holder.tvCategory.setText(getCategoryName(activity.getCategory()));
+        bindCompleted(holder, activity);
+    }
 
+    private void bindCompleted(ActivityViewHolder holder, Activity activity) {
         if (activity.isCompleted()) {
             holder.btnComplete.setEnabled(false);
             holder.btnComplete.setText("✓ Đã hoàn thành");
@@ -64,11 +127,6 @@ public class ActivityAdapter extends RecyclerView.Adapter<ActivityAdapter.Activi
         });
     }
 
-    @Override
-    public int getItemCount() {
-        return activityList.size();
-    }
-
     private String getCategoryName(String category) {
         switch (category) {
             case "transport": return "🚴 Giao thông";
@@ -0,0 +1,69 @@
+package com.example.app_ecotrack.adapters;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.app_ecotrack.HistoryEntry;
+import com.example.app_ecotrack.R;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+public class HistoryAdapter extends RecyclerView.Adapter<HistoryAdapter.HistoryViewHolder> {
+    private final List<HistoryEntry> entries = new ArrayList<>();
+    private final SimpleDateFormat displayFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm", Locale.getDefault());
+    private final Date date = new Date();
+
+    public void setEntries(List<HistoryEntry> newEntries) {
+        entries.clear();
+        entries.addAll(newEntries);
+        notifyDataSetChanged();
+    }
+
+    public void appendEntries(List<HistoryEntry> newEntries) {
+        int start = entries.size();
+        entries.addAll(newEntries);
+        notifyItemRangeInserted(start, newEntries.size());
+    }
+
+    @NonNull
+    @Override
+    public HistoryViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_recent_activity, parent, false);
+        return new HistoryViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull HistoryViewHolder holder, int position) {
+        HistoryEntry entry = entries.get(position);
+
+        String name = entry.getActivityName() != null ? entry.getActivityName() : "Hoạt động đã bị xóa";
+        holder.tvName.setText(entry.getIcon() != null ? entry.getIcon() + " " + name : name);
+        date.setTime(entry.getCompletedAtMs());
+        holder.tvDate.setText(displayFormat.format(date));
+        holder.tvPoints.setText("+" + entry.getPointsEarned());
+    }
+
+    @Override
+    public int getItemCount() {
+        return entries.size();
+    }
+
+    static class HistoryViewHolder extends RecyclerView.ViewHolder {
+        TextView tvName, tvDate, tvPoints;
+
+        public HistoryViewHolder(@NonNull View itemView) {
+            super(itemView);
+            tvName = itemView.findViewById(R.id.tvActivityName);
+            tvDate = itemView.findViewById(R.id.tvActivityDate);
+            tvPoints = itemView.findViewById(R.id.tvActivityPoints);
+        }
+    }
+}
\ No newline at end of file
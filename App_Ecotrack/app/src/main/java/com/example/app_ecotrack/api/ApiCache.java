@@ -0,0 +1,145 @@
+package com.example.app_ecotrack.api;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Disk HTTP cache for the read endpoints (activity catalog, profile, dashboard, leaderboard).
+ *
+ * Within an endpoint's max-age a repeat request is served from disk without touching the
+ * network. After that OkHttp revalidates with If-None-Match / If-Modified-Since, so an
+ * unchanged resource costs a 304. When the network fails or the server returns 5xx, a
+ * stale copy is served instead of an error.
+ */
+public class ApiCache {
+    private static final String TAG = "ApiCache";
+    private static final String CACHE_DIR = "http_cache";
+    private static final long CACHE_SIZE = 10L * 1024 * 1024;
+    private static final int STALE_IF_ERROR_DAYS = 7;
+    // Error bodies are short JSON messages; anything longer is cut when the response is kept in memory
+    private static final long MAX_ERROR_BODY_BYTES = 64 * 1024;
+
+    // Max-age in seconds per cached endpoint path
+    private static final Map<String, Integer> MAX_AGE = new HashMap<>();
+
+    static {
+        MAX_AGE.put("/api/activities", 300);
+        MAX_AGE.put("/api/users/profile", 30);
+        MAX_AGE.put("/api/dashboard", 30);
+        MAX_AGE.put("/api/leaderboard", 60);
+    }
+
+    private final Cache cache;
+
+    public ApiCache(File cacheDir) {
+        this.cache = new Cache(new File(cacheDir, CACHE_DIR), CACHE_SIZE);
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    // Drop every cached response, e.g. when the signed-in user changes
+    public void clear() {
+        try {
+            cache.evictAll();
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to clear HTTP cache", e);
+        }
+    }
+
+    private static boolean isCacheable(Request request) {
+        return "GET".equals(request.method()) && MAX_AGE.containsKey(request.url().encodedPath());
+    }
+
+    /**
+     * Network interceptor: gives cached endpoints their max-age when the server sends no
+     * Cache-Control of its own. Validators (ETag, Last-Modified) are left untouched.
+     */
+    public Interceptor maxAgeInterceptor() {
+        return chain -> {
+            Request request = chain.request();
+            Response response = chain.proceed(request);
+            if (!isCacheable(request) || response.header("Cache-Control") != null) {
+                return response;
+            }
+
+            int maxAge = MAX_AGE.get(request.url().encodedPath());
+            return response.newBuilder()
+                    .removeHeader("Pragma")
+                    .header("Cache-Control", "private, max-age=" + maxAge)
+                    .build();
+        };
+    }
+
+    /**
+     * Application interceptor: serves a stale cached copy when the network request fails,
+     * and invalidates cached reads after a successful write (complete activity, update profile).
+     */
+    public Interceptor staleIfErrorInterceptor() {
+        return chain -> {
+            Request request = chain.request();
+            if (!isCacheable(request)) {
+                Response response = chain.proceed(request);
+                if (!"GET".equals(request.method()) && response.isSuccessful()) {
+                    clear();
+                }
+                return response;
+            }
+
+            Response response;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                Response stale = proceedFromCache(chain, request);
+                if (stale != null) {
+                    return stale;
+                }
+                throw e;
+            }
+
+            if (response.code() >= 500) {
+                // OkHttp allows another proceed() only once the previous response is closed, so
+                // keep the error body in memory in case there is no cached copy to serve instead
+                ResponseBody errorBody = response.peekBody(MAX_ERROR_BODY_BYTES);
+                response.close();
+                Response stale = proceedFromCache(chain, request);
+                if (stale != null) {
+                    return stale;
+                }
+                // No cached copy: let the caller see the server's error
+                return response.newBuilder().body(errorBody).build();
+            }
+            return response;
+        };
+    }
+
+    private static Response proceedFromCache(Interceptor.Chain chain, Request request) throws IOException {
+        Request cacheOnly = request.newBuilder()
+                .cacheControl(new CacheControl.Builder()
+                        .onlyIfCached()
+                        .maxStale(STALE_IF_ERROR_DAYS, TimeUnit.DAYS)
+                        .build())
+                .build();
+        Response cached = chain.proceed(cacheOnly);
+        if (cached.code() == 504) {
+            // Not in cache
+            cached.close();
+            return null;
+        }
+        Log.d(TAG, "Serving stale " + request.url().encodedPath());
+        return cached;
+    }
+}
@@ -2,21 +2,94 @@ package com.example.app_ecotrack.api;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.util.Log;
 
+import com.example.app_ecotrack.BuildConfig;
+import com.example.app_ecotrack.api.models.ModelTypeAdapters;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import okhttp3.HttpUrl;
 import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
+import okhttp3.Response;
 import okhttp3.logging.HttpLoggingInterceptor;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ApiClient {
+    private static final String TAG = "ApiClient";
     private static final String BASE_URL = "https://ecotrack-backend-production.up.railway.app/";
+    // Debug builds log the full body of one call in this many
+    private static final int BODY_LOG_SAMPLE_RATE = 10;
+    private static final ApiMetrics metrics = new ApiMetrics();
+    private static final SingleFlightCallAdapterFactory singleFlight = new SingleFlightCallAdapterFactory();
+    // Model types are decoded by hand-written streaming adapters instead of reflection
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(ModelTypeAdapters.FACTORY)
+            .create();
+    // Cheap endpoint that needs neither auth nor the database, used to open the first connection
+    private static final String WARM_UP_PATH = "api/health";
+    // Builds the client and warms the connection off the main thread, in submission order
+    private static final ExecutorService bootstrapExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ecotrack-api-bootstrap");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+    private static OkHttpClient okHttpClient = null;
     private static Retrofit retrofit = null;
     private static ApiService apiService = null;
-    private static String authToken = null;
+    private static AsyncApiService asyncApiService = null;
+    private static volatile String authToken = null;
+    private static volatile ApiCache apiCache = null;
+
+    /**
+     * Called from Application.onCreate: creates the disk cache, loads the saved token and
+     * builds the client and service proxies on a background thread, so the first screen
+     * that needs them does not pay for it on the main thread.
+     */
+    public static void bootstrap(Context context) {
+        Context appContext = context.getApplicationContext();
+        bootstrapExecutor.execute(() -> {
+            loadToken(appContext);
+            getApiService();
+            getAsyncApiService();
+        });
+    }
+
+    /**
+     * Resolves the API host and opens a connection (TCP + TLS) to it in the background. The
+     * connection stays in OkHttp's pool, so the first real request skips both handshakes.
+     * Runs after bootstrap(); failures are ignored since the real request will retry anyway.
+     */
+    public static void prewarm() {
+        bootstrapExecutor.execute(() -> {
+            HttpUrl url = HttpUrl.get(BASE_URL).resolve(WARM_UP_PATH);
+            OkHttpClient client = getOkHttpClient();
+            try {
+                client.dns().lookup(url.host());
+                try (Response response = client.newCall(new Request.Builder().url(url).build()).execute()) {
+                    Log.d(TAG, "Connection warmed: HTTP " + response.code());
+                }
+            } catch (IOException e) {
+                Log.d(TAG, "Connection warm-up failed: " + e.getMessage());
+            }
+        });
+    }
+
+    // Create the disk cache; must run before the first getClient() call to take effect
+    public static synchronized void init(Context context) {
+        if (apiCache == null) {
+            apiCache = new ApiCache(context.getApplicationContext().getCacheDir());
+        }
+    }
 
     public static void setAuthToken(String token) {
         authToken = token;
@@ -28,13 +101,16 @@ public class ApiClient {
 
     public static void clearAuthToken() {
         authToken = null;
+        // Cached responses belong to the signed-out user
+        singleFlight.clear();
+        if (apiCache != null) {
+            apiCache.clear();
+        }
     }
 
-    public static Retrofit getClient() {
+    // Synchronized so the client is built exactly once, whichever thread gets here first
+    public static synchronized Retrofit getClient() {
         if (retrofit == null) {
-            HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
-            logging.setLevel(HttpLoggingInterceptor.Level.BODY);
-
             Interceptor authInterceptor = chain -> {
                 Request original = chain.request();
                 Request.Builder requestBuilder = original.newBuilder()
@@ -47,9 +123,18 @@ public class ApiClient {
                 return chain.proceed(requestBuilder.build());
             };
 
-            OkHttpClient client = new OkHttpClient.Builder()
-                    .addInterceptor(authInterceptor)
-                    .addInterceptor(logging)
+            OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                    .addInterceptor(authInterceptor);
+            if (apiCache != null) {
+                builder.cache(apiCache.getCache())
+                        .addInterceptor(apiCache.staleIfErrorInterceptor())
+                        .addNetworkInterceptor(apiCache.maxAgeInterceptor());
+            }
+            if (BuildConfig.DEBUG) {
+                builder.addInterceptor(sampledBodyLogging());
+            }
+            okHttpClient = builder
+                    .eventListenerFactory(metrics.eventListenerFactory())
                     .connectTimeout(30, TimeUnit.SECONDS)
                     .readTimeout(30, TimeUnit.SECONDS)
                     .writeTimeout(30, TimeUnit.SECONDS)
@@ -57,28 +142,73 @@ public class ApiClient {
 
             retrofit = new Retrofit.Builder()
                     .baseUrl(BASE_URL)
-                    .client(client)
-                    .addConverterFactory(GsonConverterFactory.create())
+                    .client(okHttpClient)
+                    // Parse every service method when the proxy is created (in bootstrap), not on first call
+                    .validateEagerly(true)
+                    // Futures are adapted on top of the single-flight Call adapter, so it must come first
+                    .addCallAdapterFactory(new FutureCallAdapterFactory())
+                    .addCallAdapterFactory(singleFlight)
+                    .addConverterFactory(GsonConverterFactory.create(gson))
                     .build();
         }
         return retrofit;
     }
 
-    public static ApiService getApiService() {
+    private static Interceptor sampledBodyLogging() {
+        HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
+        logging.setLevel(HttpLoggingInterceptor.Level.BODY);
+        AtomicInteger calls = new AtomicInteger();
+        return chain -> calls.getAndIncrement() % BODY_LOG_SAMPLE_RATE == 0
+                ? logging.intercept(chain)
+                : chain.proceed(chain.request());
+    }
+
+    static synchronized OkHttpClient getOkHttpClient() {
+        getClient();
+        return okHttpClient;
+    }
+
+    // Shared Gson with the model adapters registered; use it for any API JSON outside Retrofit
+    public static Gson getGson() {
+        return gson;
+    }
+
+    // Per-endpoint latency histograms of every call made through this client
+    public static ApiMetrics getMetrics() {
+        return metrics;
+    }
+
+    public static synchronized ApiService getApiService() {
         if (apiService == null) {
             apiService = getClient().create(ApiService.class);
         }
         return apiService;
     }
 
+    // CompletableFuture variants of the same endpoints, for loading several resources in parallel
+    public static synchronized AsyncApiService getAsyncApiService() {
+        if (asyncApiService == null) {
+            asyncApiService = getClient().create(AsyncApiService.class);
+        }
+        return asyncApiService;
+    }
+
     // Load token from SharedPreferences
     public static void loadToken(Context context) {
+        init(context);
         SharedPreferences prefs = context.getSharedPreferences("EcoTrackPrefs", Context.MODE_PRIVATE);
         authToken = prefs.getString("authToken", null);
     }
 
     // Save token to SharedPreferences
     public static void saveToken(Context context, String token) {
+        init(context);
+        if (token != null && !token.equals(authToken)) {
+            singleFlight.clear();
+            if (apiCache != null) {
+                apiCache.clear();
+            }
+        }
         authToken = token;
         SharedPreferences prefs = context.getSharedPreferences("EcoTrackPrefs", Context.MODE_PRIVATE);
         prefs.edit().putString("authToken", token).apply();
@@ -0,0 +1,70 @@
+package com.example.app_ecotrack.api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BiFunction;
+
+/**
+ * Combinators for AsyncApiService futures.
+ *
+ * Requests passed in are already running, so combining them waits for the slowest one.
+ * all() and both() fail fast: the first failure completes the result and cancels the
+ * requests that are still running.
+ */
+public final class ApiFutures {
+
+    private ApiFutures() {
+    }
+
+    // Completes when every future has completed, or with the first failure
+    public static CompletableFuture<Void> all(CompletableFuture<?>... futures) {
+        CompletableFuture<Void> result = CompletableFuture.allOf(futures);
+        for (CompletableFuture<?> future : futures) {
+            future.whenComplete((value, error) -> {
+                if (error != null && result.completeExceptionally(unwrap(error))) {
+                    cancelAll(futures);
+                }
+            });
+        }
+        // Cancelling the combined future cancels the requests too
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                cancelAll(futures);
+            }
+        });
+        return result;
+    }
+
+    public static <A, B, R> CompletableFuture<R> both(CompletableFuture<A> first, CompletableFuture<B> second,
+                                                      BiFunction<? super A, ? super B, ? extends R> combiner) {
+        CompletableFuture<Void> all = all(first, second);
+        CompletableFuture<R> result = all.thenApply(ignored -> combiner.apply(first.join(), second.join()));
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                all.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    // For optional parts of a screen: a failed request yields the fallback instead of failing the whole load
+    public static <T> CompletableFuture<T> orElse(CompletableFuture<T> future, T fallback) {
+        return future.exceptionally(error -> fallback);
+    }
+
+    // The original error behind CompletionException/ExecutionException wrappers
+    public static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private static void cancelAll(CompletableFuture<?>[] futures) {
+        for (CompletableFuture<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+}
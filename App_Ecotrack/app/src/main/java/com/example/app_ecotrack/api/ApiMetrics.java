@@ -0,0 +1,247 @@
+package com.example.app_ecotrack.api;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import retrofit2.Invocation;
+
+/**
+ * In-memory latency histograms per ApiService endpoint, fed by an OkHttp EventListener.
+ *
+ * Each call records DNS, connect, TLS, time-to-first-byte (request sent to response
+ * headers), body read (headers received to body consumed) and total time. Recording is a
+ * bucket increment, so it is cheap enough to leave on in every build.
+ */
+public class ApiMetrics {
+    public static final String DNS = "dns";
+    public static final String CONNECT = "connect";
+    public static final String TLS = "tls";
+    public static final String TTFB = "ttfb";
+    public static final String BODY = "body";
+    public static final String TOTAL = "total";
+
+    private static final String[] PHASES = {TOTAL, TTFB, BODY, DNS, CONNECT, TLS};
+
+    // endpoint -> phase -> histogram
+    private final Map<String, Map<String, Histogram>> endpoints = new TreeMap<>();
+    private final Map<String, Integer> failures = new TreeMap<>();
+
+    public EventListener.Factory eventListenerFactory() {
+        return call -> new CallTimer(endpointName(call.request()));
+    }
+
+    /**
+     * Endpoint name for a request: the ApiService method name when the call comes from
+     * Retrofit, otherwise "METHOD /path".
+     */
+    static String endpointName(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation != null) {
+            return invocation.method().getName();
+        }
+        return request.method() + " " + request.url().encodedPath();
+    }
+
+    synchronized void record(String endpoint, String phase, long nanos) {
+        Map<String, Histogram> phases = endpoints.get(endpoint);
+        if (phases == null) {
+            phases = new TreeMap<>();
+            endpoints.put(endpoint, phases);
+        }
+        Histogram histogram = phases.get(phase);
+        if (histogram == null) {
+            histogram = new Histogram();
+            phases.put(phase, histogram);
+        }
+        histogram.record(nanos / 1_000_000);
+    }
+
+    synchronized void recordFailure(String endpoint) {
+        Integer count = failures.get(endpoint);
+        failures.put(endpoint, count == null ? 1 : count + 1);
+    }
+
+    /**
+     * Percentile (0-100) of a phase in milliseconds, or -1 if nothing was recorded
+     */
+    public synchronized long percentile(String endpoint, String phase, double percentile) {
+        Map<String, Histogram> phases = endpoints.get(endpoint);
+        Histogram histogram = phases != null ? phases.get(phase) : null;
+        return histogram != null ? histogram.percentile(percentile) : -1;
+    }
+
+    public synchronized void reset() {
+        endpoints.clear();
+        failures.clear();
+    }
+
+    // One block per endpoint: call count, failures and p50/p99 of every recorded phase
+    public synchronized String summary() {
+        if (endpoints.isEmpty() && failures.isEmpty()) {
+            return "No requests recorded";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Map<String, Histogram>> entry : endpoints.entrySet()) {
+            Map<String, Histogram> phases = entry.getValue();
+            Histogram total = phases.get(TOTAL);
+            Integer failed = failures.get(entry.getKey());
+            sb.append(entry.getKey())
+                    .append("  n=").append(total != null ? total.count : 0)
+                    .append(" failed=").append(failed != null ? failed : 0)
+                    .append('\n');
+            for (String phase : PHASES) {
+                Histogram histogram = phases.get(phase);
+                if (histogram == null) {
+                    continue;
+                }
+                sb.append(String.format(Locale.US, "  %-8s p50=%dms p99=%dms max=%dms (n=%d)%n",
+                        phase, histogram.percentile(50), histogram.percentile(99), histogram.max, histogram.count));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Log-scale histogram: four buckets per power of two, so a percentile is reported with
+     * at most ~19% error. Values above the last bucket are clamped into it.
+     */
+    static class Histogram {
+        private static final int SUB_BUCKETS = 4;
+        private static final int BUCKETS = 18 * SUB_BUCKETS; // up to 2^18 ms (~4 min)
+
+        final long[] counts = new long[BUCKETS];
+        long count;
+        long max;
+
+        void record(long millis) {
+            long value = Math.max(millis, 0);
+            counts[bucketOf(value)]++;
+            count++;
+            max = Math.max(max, value);
+        }
+
+        long percentile(double percentile) {
+            if (count == 0) {
+                return -1;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max);
+                }
+            }
+            return max;
+        }
+
+        static int bucketOf(long millis) {
+            int bucket = (int) (SUB_BUCKETS * Math.log(millis + 1) / Math.log(2));
+            return Math.min(bucket, BUCKETS - 1);
+        }
+
+        // Largest value that falls into the bucket
+        static long upperBound(int bucket) {
+            return (long) Math.ceil(Math.pow(2, (bucket + 1) / (double) SUB_BUCKETS)) - 1;
+        }
+    }
+
+    /**
+     * Timestamps of a single call. OkHttp creates one listener per call and delivers its
+     * events sequentially, so no locking is needed until the values are recorded.
+     */
+    private class CallTimer extends EventListener {
+        private final String endpoint;
+        private long callStart;
+        private long dnsStart;
+        private long connectStart;
+        private long secureConnectStart;
+        private long requestStart;
+        private long bodyStart;
+
+        CallTimer(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public void callStart(Call call) {
+            callStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+            record(endpoint, DNS, System.nanoTime() - dnsStart);
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            connectStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectStart(Call call) {
+            secureConnectStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            record(endpoint, TLS, System.nanoTime() - secureConnectStart);
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            record(endpoint, CONNECT, System.nanoTime() - connectStart);
+        }
+
+        @Override
+        public void requestHeadersStart(Call call) {
+            requestStart = System.nanoTime();
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            if (requestStart != 0) {
+                record(endpoint, TTFB, System.nanoTime() - requestStart);
+            }
+        }
+
+        // responseBodyStart only fires on the first read, so body time starts when the headers are in
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            bodyStart = System.nanoTime();
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            record(endpoint, BODY, System.nanoTime() - bodyStart);
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            record(endpoint, TOTAL, System.nanoTime() - callStart);
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            recordFailure(endpoint);
+        }
+    }
+}
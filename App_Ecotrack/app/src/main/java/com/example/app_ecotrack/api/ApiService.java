@@ -23,15 +23,31 @@ public interface ApiService {
     @GET("api/activities")
     Call<ActivitiesResponse> getActivities();
 
+    // Catalog changes since the watermark of the last sync (null = full catalog)
+    @GET("api/activities/catalog")
+    Call<ActivityCatalogResponse> getActivityCatalog(@Query("since") String since);
+
+    @GET("api/activities/completed-today")
+    Call<CompletedTodayResponse> getCompletedToday();
+
     @POST("api/activities/{id}/complete")
     Call<CompleteActivityResponse> completeActivity(@Path("id") String activityId);
 
+    @POST("api/activities/complete-batch")
+    Call<BatchCompleteResponse> completeActivities(@Body BatchCompleteRequest request);
+
     @GET("api/activities/today")
     Call<TodayActivitiesResponse> getTodayActivities();
 
     @GET("api/activities/history")
     Call<ActivityHistoryResponse> getActivityHistory(@Query("page") int page, @Query("limit") int limit);
 
+    // Keyset paging: before/beforeId come from the previous page's nextCursor, null for the first page
+    @GET("api/activities/history")
+    Call<ActivityHistoryResponse> getActivityHistoryPage(@Query("limit") int limit,
+                                                         @Query("before") String before,
+                                                         @Query("beforeId") String beforeId);
+
     // ==================== USERS ====================
     
     @GET("api/users/profile")
@@ -43,6 +59,12 @@ public interface ApiService {
     @GET("api/users/stats")
     Call<StatsResponse> getStats();
 
+    // ==================== DASHBOARD ====================
+
+    // Profile, today/week totals, rank and 7-day chart for the home screen in one call
+    @GET("api/dashboard")
+    Call<DashboardResponse> getDashboard();
+
     // ==================== LEADERBOARD ====================
     
     @GET("api/leaderboard")
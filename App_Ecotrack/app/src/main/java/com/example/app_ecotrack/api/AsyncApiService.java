@@ -0,0 +1,80 @@
+package com.example.app_ecotrack.api;
+
+import com.example.app_ecotrack.api.models.*;
+
+import java.util.concurrent.CompletableFuture;
+
+import retrofit2.http.*;
+
+/**
+ * CompletableFuture variants of the ApiService endpoints, for screens that load several
+ * resources at once: start every request, then combine them with ApiFutures so the screen
+ * waits for the slowest call instead of the sum of all calls. Futures complete on the main
+ * thread. Keep the paths in sync with ApiService.
+ */
+public interface AsyncApiService {
+
+    // ==================== AUTH ====================
+
+    @POST("api/auth/login")
+    CompletableFuture<AuthResponse> login(@Body LoginRequest request);
+
+    @POST("api/auth/register")
+    CompletableFuture<AuthResponse> register(@Body RegisterRequest request);
+
+    @GET("api/auth/me")
+    CompletableFuture<UserResponse> getCurrentUser();
+
+    // ==================== ACTIVITIES ====================
+
+    @GET("api/activities")
+    CompletableFuture<ActivitiesResponse> getActivities();
+
+    // Catalog changes since the watermark of the last sync (null = full catalog)
+    @GET("api/activities/catalog")
+    CompletableFuture<ActivityCatalogResponse> getActivityCatalog(@Query("since") String since);
+
+    @GET("api/activities/completed-today")
+    CompletableFuture<CompletedTodayResponse> getCompletedToday();
+
+    @POST("api/activities/{id}/complete")
+    CompletableFuture<CompleteActivityResponse> completeActivity(@Path("id") String activityId);
+
+    @POST("api/activities/complete-batch")
+    CompletableFuture<BatchCompleteResponse> completeActivities(@Body BatchCompleteRequest request);
+
+    @GET("api/activities/today")
+    CompletableFuture<TodayActivitiesResponse> getTodayActivities();
+
+    @GET("api/activities/history")
+    CompletableFuture<ActivityHistoryResponse> getActivityHistory(@Query("page") int page, @Query("limit") int limit);
+
+    @GET("api/activities/history")
+    CompletableFuture<ActivityHistoryResponse> getActivityHistoryPage(@Query("limit") int limit,
+                                                                      @Query("before") String before,
+                                                                      @Query("beforeId") String beforeId);
+
+    // ==================== USERS ====================
+
+    @GET("api/users/profile")
+    CompletableFuture<ProfileResponse> getProfile();
+
+    @PUT("api/users/profile")
+    CompletableFuture<ProfileResponse> updateProfile(@Body UpdateProfileRequest request);
+
+    @GET("api/users/stats")
+    CompletableFuture<StatsResponse> getStats();
+
+    // ==================== DASHBOARD ====================
+
+    @GET("api/dashboard")
+    CompletableFuture<DashboardResponse> getDashboard();
+
+    // ==================== LEADERBOARD ====================
+
+    @GET("api/leaderboard")
+    CompletableFuture<LeaderboardResponse> getLeaderboard(@Query("limit") int limit);
+
+    @GET("api/leaderboard/weekly")
+    CompletableFuture<WeeklyLeaderboardResponse> getWeeklyLeaderboard();
+}
@@ -0,0 +1,121 @@
+package com.example.app_ecotrack.api;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.HttpException;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * Adapts service methods declared as CompletableFuture&lt;T&gt; or
+ * CompletableFuture&lt;Response&lt;T&gt;&gt; (see AsyncApiService).
+ *
+ * Unlike Retrofit's built-in future adapter, the call is first adapted by the rest of the
+ * chain as a plain Call&lt;T&gt;, so futures still go through SingleFlightCallAdapterFactory
+ * and complete on the main thread like enqueue() callbacks. Must be added before the
+ * factories it delegates to. A non-2xx response completes a body future with HttpException;
+ * cancelling the future cancels the call.
+ */
+public class FutureCallAdapterFactory extends CallAdapter.Factory {
+
+    @Override
+    public CallAdapter<?, ?> get(Type returnType, Annotation[] annotations, Retrofit retrofit) {
+        if (getRawType(returnType) != CompletableFuture.class) {
+            return null;
+        }
+        if (!(returnType instanceof ParameterizedType)) {
+            throw new IllegalStateException("CompletableFuture return type must be parameterized"
+                    + " as CompletableFuture<Foo> or CompletableFuture<? extends Foo>");
+        }
+
+        Type innerType = getParameterUpperBound(0, (ParameterizedType) returnType);
+        boolean wantsResponse = getRawType(innerType) == Response.class;
+        Type bodyType = innerType;
+        if (wantsResponse) {
+            if (!(innerType instanceof ParameterizedType)) {
+                throw new IllegalStateException("Response must be parameterized as Response<Foo> or Response<? extends Foo>");
+            }
+            bodyType = getParameterUpperBound(0, (ParameterizedType) innerType);
+        }
+
+        @SuppressWarnings("unchecked")
+        CallAdapter<Object, Call<Object>> delegate = (CallAdapter<Object, Call<Object>>)
+                retrofit.nextCallAdapter(this, new CallType(bodyType), annotations);
+        return new CallAdapter<Object, CompletableFuture<Object>>() {
+            @Override
+            public Type responseType() {
+                return delegate.responseType();
+            }
+
+            @Override
+            public CompletableFuture<Object> adapt(Call<Object> call) {
+                Call<Object> adapted = delegate.adapt(call);
+                CallFuture<Object> future = new CallFuture<>(adapted);
+                adapted.enqueue(new Callback<Object>() {
+                    @Override
+                    public void onResponse(Call<Object> call, Response<Object> response) {
+                        if (wantsResponse) {
+                            future.complete(response);
+                        } else if (response.isSuccessful()) {
+                            future.complete(response.body());
+                        } else {
+                            future.completeExceptionally(new HttpException(response));
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call<Object> call, Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+                });
+                return future;
+            }
+        };
+    }
+
+    private static class CallFuture<T> extends CompletableFuture<T> {
+        private final Call<?> call;
+
+        CallFuture(Call<?> call) {
+            this.call = call;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (!isDone()) {
+                call.cancel();
+            }
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    // Call<bodyType>, used to ask the next factories for a plain Call adapter
+    private static class CallType implements ParameterizedType {
+        private final Type bodyType;
+
+        CallType(Type bodyType) {
+            this.bodyType = bodyType;
+        }
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return new Type[]{bodyType};
+        }
+
+        @Override
+        public Type getRawType() {
+            return Call.class;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.app_ecotrack.api;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import okhttp3.Request;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+
+/**
+ * Coalesces identical GET calls made through ApiService.
+ *
+ * While a GET for a URL is in flight, further enqueue() calls for the same URL wait for that
+ * response instead of starting another request. A successful response is then reused for
+ * FRESH_MILLIS, so the profile/catalog reloads fired together by onResume, refreshData() and
+ * tab switches cost a single round trip. Any successful non-GET call drops the reusable
+ * responses so that data is reloaded after a write. execute() is never coalesced.
+ * Finished responses are evicted once they are older than FRESH_MILLIS, so only the calls
+ * of the last moment are held in memory.
+ */
+public class SingleFlightCallAdapterFactory extends CallAdapter.Factory {
+    private static final long FRESH_MILLIS = 2000;
+
+    private final Map<String, Flight> flights = new HashMap<>();
+    private final long freshMillis;
+
+    public SingleFlightCallAdapterFactory() {
+        this(FRESH_MILLIS);
+    }
+
+    SingleFlightCallAdapterFactory(long freshMillis) {
+        this.freshMillis = freshMillis;
+    }
+
+    // Forget in-flight and recent responses, e.g. when the signed-in user changes
+    public synchronized void clear() {
+        flights.clear();
+    }
+
+    @Override
+    public CallAdapter<?, ?> get(Type returnType, Annotation[] annotations, Retrofit retrofit) {
+        if (getRawType(returnType) != Call.class) {
+            return null;
+        }
+
+        boolean coalesce = false;
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof GET) {
+                coalesce = true;
+                break;
+            }
+        }
+
+        // The next factory (Retrofit's default) delivers callbacks on the main thread
+        @SuppressWarnings("unchecked")
+        CallAdapter<Object, Call<Object>> delegate =
+                (CallAdapter<Object, Call<Object>>) retrofit.nextCallAdapter(this, returnType, annotations);
+        Executor callbackExecutor = retrofit.callbackExecutor();
+        boolean coalesceCalls = coalesce;
+        return new CallAdapter<Object, Call<Object>>() {
+            @Override
+            public Type responseType() {
+                return delegate.responseType();
+            }
+
+            @Override
+            public Call<Object> adapt(Call<Object> call) {
+                return new SingleFlightCall<>(delegate.adapt(call), coalesceCalls, callbackExecutor);
+            }
+        };
+    }
+
+    private synchronized void clearFresh() {
+        flights.values().removeIf(flight -> flight.done);
+    }
+
+    // In-flight and reusable responses currently held
+    synchronized int size() {
+        return flights.size();
+    }
+
+    private void evictExpired(long now) {
+        flights.values().removeIf(flight -> flight.done && now - flight.completedAt >= freshMillis);
+    }
+
+    private static class Flight {
+        final Call<?> call;
+        final List<SingleFlightCall<?>> waiters = new ArrayList<>();
+        boolean done;
+        Response<?> response;
+        long completedAt;
+
+        Flight(Call<?> call) {
+            this.call = call;
+        }
+    }
+
+    private class SingleFlightCall<T> implements Call<T> {
+        private final Call<T> delegate;
+        private final boolean coalesce;
+        private final Executor callbackExecutor;
+        private Callback<T> callback;
+        private Flight flight;
+        private volatile boolean executed;
+        private volatile boolean canceled;
+
+        SingleFlightCall(Call<T> delegate, boolean coalesce, Executor callbackExecutor) {
+            this.delegate = delegate;
+            this.coalesce = coalesce;
+            this.callbackExecutor = callbackExecutor;
+        }
+
+        private String key() {
+            Request request = delegate.request();
+            return request.method() + " " + request.url();
+        }
+
+        @Override
+        public void enqueue(Callback<T> callback) {
+            if (executed) {
+                throw new IllegalStateException("Already executed.");
+            }
+            executed = true;
+            this.callback = callback;
+
+            if (!coalesce) {
+                delegate.enqueue(new Callback<T>() {
+                    @Override
+                    public void onResponse(Call<T> call, Response<T> response) {
+                        if (response.isSuccessful()) {
+                            clearFresh();
+                        }
+                        callback.onResponse(SingleFlightCall.this, response);
+                    }
+
+                    @Override
+                    public void onFailure(Call<T> call, Throwable t) {
+                        callback.onFailure(SingleFlightCall.this, t);
+                    }
+                });
+                return;
+            }
+
+            String key = key();
+            Response<?> fresh = null;
+            synchronized (SingleFlightCallAdapterFactory.this) {
+                evictExpired(System.currentTimeMillis());
+                Flight existing = flights.get(key);
+                if (existing != null && existing.done) {
+                    fresh = existing.response;
+                } else if (existing != null && !existing.done) {
+                    existing.waiters.add(this);
+                    flight = existing;
+                    return;
+                } else {
+                    flight = new Flight(delegate);
+                    flight.waiters.add(this);
+                    flights.put(key, flight);
+                }
+            }
+
+            if (fresh != null) {
+                deliverFresh(fresh);
+                return;
+            }
+
+            Flight started = flight;
+            delegate.enqueue(new Callback<T>() {
+                @Override
+                public void onResponse(Call<T> call, Response<T> response) {
+                    for (SingleFlightCall<?> waiter : complete(key, started, response)) {
+                        waiter.deliverResponse(response);
+                    }
+                }
+
+                @Override
+                public void onFailure(Call<T> call, Throwable t) {
+                    for (SingleFlightCall<?> waiter : complete(key, started, null)) {
+                        waiter.deliverFailure(t);
+                    }
+                }
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private void deliverFresh(Response<?> response) {
+            Runnable delivery = () -> {
+                if (!canceled) {
+                    callback.onResponse(this, (Response<T>) response);
+                }
+            };
+            if (callbackExecutor != null) {
+                callbackExecutor.execute(delivery);
+            } else {
+                delivery.run();
+            }
+        }
+
+        // A waiter canceled after the flight finished, but before delivery, gets no callback
+        @SuppressWarnings("unchecked")
+        private void deliverResponse(Response<?> response) {
+            if (!canceled) {
+                callback.onResponse(this, (Response<T>) response);
+            }
+        }
+
+        private void deliverFailure(Throwable t) {
+            if (!canceled) {
+                callback.onFailure(this, t);
+            }
+        }
+
+        @Override
+        public Response<T> execute() throws IOException {
+            executed = true;
+            return delegate.execute();
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+            Flight current = flight;
+            if (current == null) {
+                delegate.cancel();
+                return;
+            }
+
+            // The shared request is only canceled once nobody is waiting for it
+            boolean cancelShared;
+            synchronized (SingleFlightCallAdapterFactory.this) {
+                current.waiters.remove(this);
+                cancelShared = current.waiters.isEmpty() && !current.done;
+            }
+            if (cancelShared) {
+                current.call.cancel();
+            }
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public Call<T> clone() {
+            return new SingleFlightCall<>(delegate.clone(), coalesce, callbackExecutor);
+        }
+
+        @Override
+        public Request request() {
+            return delegate.request();
+        }
+
+        @Override
+        public Timeout timeout() {
+            return delegate.timeout();
+        }
+    }
+
+    /**
+     * Marks the flight finished and returns its waiters. Only successful responses stay
+     * reusable; errors are dropped so the next call retries. Responses that are no longer
+     * fresh are evicted here, so every distinct URL (e.g. each history page) is released.
+     */
+    private synchronized List<SingleFlightCall<?>> complete(String key, Flight flight, Response<?> response) {
+        long now = System.currentTimeMillis();
+        flight.done = true;
+        flight.response = response;
+        flight.completedAt = now;
+        if (flights.get(key) == flight && (response == null || !response.isSuccessful())) {
+            flights.remove(key);
+        }
+        evictExpired(now);
+        List<SingleFlightCall<?>> waiters = new ArrayList<>(flight.waiters);
+        flight.waiters.clear();
+        return waiters;
+    }
+}
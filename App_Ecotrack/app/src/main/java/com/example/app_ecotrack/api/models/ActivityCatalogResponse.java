@@ -0,0 +1,10 @@
+package com.example.app_ecotrack.api.models;
+
+import java.util.List;
+
+public class ActivityCatalogResponse {
+    public List<ActivityData> activities;
+    public List<String> removed;
+    public String watermark;
+    public boolean full;
+}
@@ -4,19 +4,15 @@ import java.util.List;
 
 public class ActivityHistoryResponse {
     public List<HistoryItem> history;
+    // Only set for page-number requests
     public Pagination pagination;
-}
-
-class HistoryItem {
-    public String id;
-    public ActivityData activity;
-    public int pointsEarned;
-    public String completedAt;
-}
+    // Only set for cursor requests; null on the last page
+    public HistoryCursor nextCursor;
 
-class Pagination {
-    public int page;
-    public int limit;
-    public int total;
-    public int pages;
+    static class Pagination {
+        public int page;
+        public int limit;
+        public int total;
+        public int pages;
+    }
 }
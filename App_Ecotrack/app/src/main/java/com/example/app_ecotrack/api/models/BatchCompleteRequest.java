@@ -0,0 +1,20 @@
+package com.example.app_ecotrack.api.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchCompleteRequest {
+    public List<Completion> completions = new ArrayList<>();
+
+    public static class Completion {
+        public String clientId;
+        public String activityId;
+        public long completedAt;
+
+        public Completion(String clientId, String activityId, long completedAt) {
+            this.clientId = clientId;
+            this.activityId = activityId;
+            this.completedAt = completedAt;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.app_ecotrack.api.models;
+
+import java.util.List;
+
+public class BatchCompleteResponse {
+    public List<Result> results;
+    public int totalPoints;
+    public int level;
+
+    public static class Result {
+        public String clientId;
+        // completed, duplicate, not_found or invalid
+        public String status;
+        public int pointsEarned;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.app_ecotrack.api.models;
+
+import com.google.gson.annotations.SerializedName;
+
+public class CategoryStat {
+    @SerializedName("_id")
+    public String category;
+    public int count;
+    public int points;
+}
@@ -0,0 +1,7 @@
+package com.example.app_ecotrack.api.models;
+
+import java.util.List;
+
+public class CompletedTodayResponse {
+    public List<String> activityIds;
+}
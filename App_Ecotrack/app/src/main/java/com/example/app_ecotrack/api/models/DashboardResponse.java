@@ -0,0 +1,26 @@
+package com.example.app_ecotrack.api.models;
+
+import java.util.List;
+
+// GET api/dashboard: everything the home screen and header show, in one response
+public class DashboardResponse {
+    public UserData user;
+    public Period today;
+    public Period week;
+    public int totalActivities;
+    public int rank;
+    // Oldest day first, today last
+    public List<ChartDay> weeklyChart;
+
+    public static class Period {
+        public int points;
+        public int activities;
+    }
+
+    public static class ChartDay {
+        // yyyy-MM-dd
+        public String date;
+        public int points;
+        public int count;
+    }
+}
\ No newline at end of file
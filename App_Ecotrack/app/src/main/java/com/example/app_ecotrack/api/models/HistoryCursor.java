@@ -0,0 +1,9 @@
+package com.example.app_ecotrack.api.models;
+
+/**
+ * Position after the last item of a history page; pass it back as before/beforeId
+ */
+public class HistoryCursor {
+    public String completedAt;
+    public String id;
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.example.app_ecotrack.api.models;
+
+public class HistoryItem {
+    public String id;
+    public ActivityData activity;
+    public int pointsEarned;
+    public String completedAt;
+}
\ No newline at end of file
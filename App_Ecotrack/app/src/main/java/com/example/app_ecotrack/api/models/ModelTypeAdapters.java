@@ -0,0 +1,1125 @@
+package com.example.app_ecotrack.api.models;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hand-written streaming adapters for every API model, so Gson never builds a reflective
+ * adapter for them. Field names, defaults and lenient primitive parsing match what the
+ * reflective adapter did: unknown fields are skipped, JSON null keeps the field default and
+ * null fields are not written.
+ *
+ * When a field is added to a model, add it to the model's adapter below as well.
+ */
+public final class ModelTypeAdapters {
+    private static final Map<Class<?>, TypeAdapter<?>> ADAPTERS = new HashMap<>();
+
+    public static final TypeAdapterFactory FACTORY = new TypeAdapterFactory() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            return (TypeAdapter<T>) ADAPTERS.get(type.getRawType());
+        }
+    };
+
+    private ModelTypeAdapters() {
+    }
+
+    /**
+     * Reads a JSON object field by field into a new instance. Subclasses only map names to
+     * fields; nulls and unknown names are handled here.
+     */
+    abstract static class ModelAdapter<T> extends TypeAdapter<T> {
+        abstract T create();
+
+        // Returns false for unknown names, which are then skipped
+        abstract boolean readField(JsonReader in, T value, String name) throws IOException;
+
+        abstract void writeFields(JsonWriter out, T value) throws IOException;
+
+        @Override
+        public T read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            T value = create();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL || !readField(in, value, name)) {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+
+        @Override
+        public void write(JsonWriter out, T value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            writeFields(out, value);
+            out.endObject();
+        }
+    }
+
+    private static <T> void register(Class<T> type, ModelAdapter<T> adapter) {
+        ADAPTERS.put(type, adapter);
+    }
+
+    // Primitive readers, lenient in the same way as Gson's built-in adapters
+
+    static String readString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    static boolean readBoolean(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+
+    static <E> List<E> readList(JsonReader in, ModelAdapter<E> elementAdapter) throws IOException {
+        List<E> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            list.add(elementAdapter.read(in));
+        }
+        in.endArray();
+        return list;
+    }
+
+    static <E> void writeList(JsonWriter out, String name, List<E> list, ModelAdapter<E> elementAdapter) throws IOException {
+        out.name(name);
+        if (list == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (E element : list) {
+            elementAdapter.write(out, element);
+        }
+        out.endArray();
+    }
+
+    static List<String> readStringList(JsonReader in) throws IOException {
+        List<String> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                list.add(null);
+            } else {
+                list.add(readString(in));
+            }
+        }
+        in.endArray();
+        return list;
+    }
+
+    static void writeStringList(JsonWriter out, String name, List<String> list) throws IOException {
+        out.name(name);
+        if (list == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (String element : list) {
+            out.value(element);
+        }
+        out.endArray();
+    }
+
+    static <E> void writeObject(JsonWriter out, String name, E value, ModelAdapter<E> adapter) throws IOException {
+        out.name(name);
+        adapter.write(out, value);
+    }
+
+    // ==================== SHARED ====================
+
+    static final ModelAdapter<UserData> USER_DATA = new ModelAdapter<UserData>() {
+        @Override
+        UserData create() {
+            return new UserData();
+        }
+
+        @Override
+        boolean readField(JsonReader in, UserData value, String name) throws IOException {
+            switch (name) {
+                case "id": value.id = readString(in); return true;
+                case "username": value.username = readString(in); return true;
+                case "email": value.email = readString(in); return true;
+                case "fullname": value.fullname = readString(in); return true;
+                case "role": value.role = readString(in); return true;
+                case "points": value.points = in.nextInt(); return true;
+                case "level": value.level = in.nextInt(); return true;
+                case "avatar": value.avatar = readString(in); return true;
+                case "createdAt": value.createdAt = readString(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, UserData value) throws IOException {
+            out.name("id").value(value.id);
+            out.name("username").value(value.username);
+            out.name("email").value(value.email);
+            out.name("fullname").value(value.fullname);
+            out.name("role").value(value.role);
+            out.name("points").value(value.points);
+            out.name("level").value(value.level);
+            out.name("avatar").value(value.avatar);
+            out.name("createdAt").value(value.createdAt);
+        }
+    };
+
+    static final ModelAdapter<ActivityData> ACTIVITY_DATA = new ModelAdapter<ActivityData>() {
+        @Override
+        ActivityData create() {
+            return new ActivityData();
+        }
+
+        @Override
+        boolean readField(JsonReader in, ActivityData value, String name) throws IOException {
+            switch (name) {
+                case "id": value.id = readString(in); return true;
+                case "name": value.name = readString(in); return true;
+                case "description": value.description = readString(in); return true;
+                case "points": value.points = in.nextInt(); return true;
+                case "category": value.category = readString(in); return true;
+                case "icon": value.icon = readString(in); return true;
+                case "completedToday": value.completedToday = readBoolean(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, ActivityData value) throws IOException {
+            out.name("id").value(value.id);
+            out.name("name").value(value.name);
+            out.name("description").value(value.description);
+            out.name("points").value(value.points);
+            out.name("category").value(value.category);
+            out.name("icon").value(value.icon);
+            out.name("completedToday").value(value.completedToday);
+        }
+    };
+
+    // ==================== AUTH ====================
+
+    static final ModelAdapter<LoginRequest> LOGIN_REQUEST = new ModelAdapter<LoginRequest>() {
+        @Override
+        LoginRequest create() {
+            return new LoginRequest(null, null);
+        }
+
+        @Override
+        boolean readField(JsonReader in, LoginRequest value, String name) throws IOException {
+            switch (name) {
+                case "username": value.username = readString(in); return true;
+                case "password": value.password = readString(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, LoginRequest value) throws IOException {
+            out.name("username").value(value.username);
+            out.name("password").value(value.password);
+        }
+    };
+
+    static final ModelAdapter<RegisterRequest> REGISTER_REQUEST = new ModelAdapter<RegisterRequest>() {
+        @Override
+        RegisterRequest create() {
+            return new RegisterRequest(null, null, null, null);
+        }
+
+        @Override
+        boolean readField(JsonReader in, RegisterRequest value, String name) throws IOException {
+            switch (name) {
+                case "username": value.username = readString(in); return true;
+                case "password": value.password = readString(in); return true;
+                case "fullname": value.fullname = readString(in); return true;
+                case "email": value.email = readString(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, RegisterRequest value) throws IOException {
+            out.name("username").value(value.username);
+            out.name("password").value(value.password);
+            out.name("fullname").value(value.fullname);
+            out.name("email").value(value.email);
+        }
+    };
+
+    static final ModelAdapter<AuthResponse> AUTH_RESPONSE = new ModelAdapter<AuthResponse>() {
+        @Override
+        AuthResponse create() {
+            return new AuthResponse();
+        }
+
+        @Override
+        boolean readField(JsonReader in, AuthResponse value, String name) throws IOException {
+            switch (name) {
+                case "message": value.message = readString(in); return true;
+                case "token": value.token = readString(in); return true;
+                case "user": value.user = USER_DATA.read(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, AuthResponse value) throws IOException {
+            out.name("message").value(value.message);
+            out.name("token").value(value.token);
+            writeObject(out, "user", value.user, USER_DATA);
+        }
+    };
+
+    static final ModelAdapter<UserResponse> USER_RESPONSE = new ModelAdapter<UserResponse>() {
+        @Override
+        UserResponse create() {
+            return new UserResponse();
+        }
+
+        @Override
+        boolean readField(JsonReader in, UserResponse value, String name) throws IOException {
+            if (name.equals("user")) {
+                value.user = USER_DATA.read(in);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        void writeFields(JsonWriter out, UserResponse value) throws IOException {
+            writeObject(out, "user", value.user, USER_DATA);
+        }
+    };
+
+    // ==================== ACTIVITIES ====================
+
+    static final ModelAdapter<ActivitiesResponse> ACTIVITIES_RESPONSE = new ModelAdapter<ActivitiesResponse>() {
+        @Override
+        ActivitiesResponse create() {
+            return new ActivitiesResponse();
+        }
+
+        @Override
+        boolean readField(JsonReader in, ActivitiesResponse value, String name) throws IOException {
+            if (name.equals("activities")) {
+                value.activities = readList(in, ACTIVITY_DATA);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        void writeFields(JsonWriter out, ActivitiesResponse value) throws IOException {
+            writeList(out, "activities", value.activities, ACTIVITY_DATA);
+        }
+    };
+
+    static final ModelAdapter<ActivityCatalogResponse> ACTIVITY_CATALOG_RESPONSE = new ModelAdapter<ActivityCatalogResponse>() {
+        @Override
+        ActivityCatalogResponse create() {
+            return new ActivityCatalogResponse();
+        }
+
+        @Override
+        boolean readField(JsonReader in, ActivityCatalogResponse value, String name) throws IOException {
+            switch (name) {
+                case "activities": value.activities = readList(in, ACTIVITY_DATA); return true;
+                case "removed": value.removed = readStringList(in); return true;
+                case "watermark": value.watermark = readString(in); return true;
+                case "full": value.full = readBoolean(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, ActivityCatalogResponse value) throws IOException {
+            writeList(out, "activities", value.activities, ACTIVITY_DATA);
+            writeStringList(out, "removed", value.removed);
+            out.name("watermark").value(value.watermark);
+            out.name("full").value(value.full);
+        }
+    };
+
+    static final ModelAdapter<CompletedTodayResponse> COMPLETED_TODAY_RESPONSE = new ModelAdapter<CompletedTodayResponse>() {
+        @Override
+        CompletedTodayResponse create() {
+            return new CompletedTodayResponse();
+        }
+
+        @Override
+        boolean readField(JsonReader in, CompletedTodayResponse value, String name) throws IOException {
+            if (name.equals("activityIds")) {
+                value.activityIds = readStringList(in);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        void writeFields(JsonWriter out, CompletedTodayResponse value) throws IOException {
+            writeStringList(out, "activityIds", value.activityIds);
+        }
+    };
+
+    static final ModelAdapter<CompleteActivityResponse> COMPLETE_ACTIVITY_RESPONSE = new ModelAdapter<CompleteActivityResponse>() {
+        @Override
+        CompleteActivityResponse create() {
+            return new CompleteActivityResponse();
+        }
+
+        @Override
+        boolean readField(JsonReader in, CompleteActivityResponse value, String name) throws IOException {
+            switch (name) {
+                case "message": value.message = readString(in); return true;
+                case "pointsEarned": value.pointsEarned = in.nextInt(); return true;
+                case "totalPoints": value.totalPoints = in.nextInt(); return true;
+                case "level": value.level = in.nextInt(); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, CompleteActivityResponse value) throws IOException {
+            out.name("message").value(value.message);
+            out.name("pointsEarned").value(value.pointsEarned);
+            out.name("totalPoints").value(value.totalPoints);
+            out.name("level").value(value.level);
+        }
+    };
+
+    static final ModelAdapter<BatchCompleteRequest.Completion> BATCH_COMPLETION = new ModelAdapter<BatchCompleteRequest.Completion>() {
+        @Override
+        BatchCompleteRequest.Completion create() {
+            return new BatchCompleteRequest.Completion(null, null, 0);
+        }
+
+        @Override
+        boolean readField(JsonReader in, BatchCompleteRequest.Completion value, String name) throws IOException {
+            switch (name) {
+                case "clientId": value.clientId = readString(in); return true;
+                case "activityId": value.activityId = readString(in); return true;
+                case "completedAt": value.completedAt = in.nextLong(); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, BatchCompleteRequest.Completion value) throws IOException {
+            out.name("clientId").value(value.clientId);
+            out.name("activityId").value(value.activityId);
+            out.name("completedAt").value(value.completedAt);
+        }
+    };
+
+    static final ModelAdapter<BatchCompleteRequest> BATCH_COMPLETE_REQUEST = new ModelAdapter<BatchCompleteRequest>() {
+        @Override
+        BatchCompleteRequest create() {
+            return new BatchCompleteRequest();
+        }
+
+        @Override
+        boolean readField(JsonReader in, BatchCompleteRequest value, String name) throws IOException {
+            if (name.equals("completions")) {
+                value.completions = readList(in, BATCH_COMPLETION);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        void writeFields(JsonWriter out, BatchCompleteRequest value) throws IOException {
+            writeList(out, "completions", value.completions, BATCH_COMPLETION);
+        }
+    };
+
+    static final ModelAdapter<BatchCompleteResponse.Result> BATCH_RESULT = new ModelAdapter<BatchCompleteResponse.Result>() {
+        @Override
+        BatchCompleteResponse.Result create() {
+            return new BatchCompleteResponse.Result();
+        }
+
+        @Override
+        boolean readField(JsonReader in, BatchCompleteResponse.Result value, String name) throws IOException {
+            switch (name) {
+                case "clientId": value.clientId = readString(in); return true;
+                case "status": value.status = readString(in); return true;
+                case "pointsEarned": value.pointsEarned = in.nextInt(); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, BatchCompleteResponse.Result value) throws IOException {
+            out.name("clientId").value(value.clientId);
+            out.name("status").value(value.status);
+            out.name("pointsEarned").value(value.pointsEarned);
+        }
+    };
+
+    static final ModelAdapter<BatchCompleteResponse> BATCH_COMPLETE_RESPONSE = new ModelAdapter<BatchCompleteResponse>() {
+        @Override
+        BatchCompleteResponse create() {
+            return new BatchCompleteResponse();
+        }
+
+        @Override
+        boolean readField(JsonReader in, BatchCompleteResponse value, String name) throws IOException {
+            switch (name) {
+                case "results": value.results = readList(in, BATCH_RESULT); return true;
+                case "totalPoints": value.totalPoints = in.nextInt(); return true;
+                case "level": value.level = in.nextInt(); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, BatchCompleteResponse value) throws IOException {
+            writeList(out, "results", value.results, BATCH_RESULT);
+            out.name("totalPoints").value(value.totalPoints);
+            out.name("level").value(value.level);
+        }
+    };
+
+    static final ModelAdapter<TodayActivitiesResponse.UserActivityData> USER_ACTIVITY_DATA = new ModelAdapter<TodayActivitiesResponse.UserActivityData>() {
+        @Override
+        TodayActivitiesResponse.UserActivityData create() {
+            return new TodayActivitiesResponse.UserActivityData();
+        }
+
+        @Override
+        boolean readField(JsonReader in, TodayActivitiesResponse.UserActivityData value, String name) throws IOException {
+            switch (name) {
+                case "id": value.id = readString(in); return true;
+                case "activity": value.activity = ACTIVITY_DATA.read(in); return true;
+                case "pointsEarned": value.pointsEarned = in.nextInt(); return true;
+                case "completedAt": value.completedAt = readString(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, TodayActivitiesResponse.UserActivityData value) throws IOException {
+            out.name("id").value(value.id);
+            writeObject(out, "activity", value.activity, ACTIVITY_DATA);
+            out.name("pointsEarned").value(value.pointsEarned);
+            out.name("completedAt").value(value.completedAt);
+        }
+    };
+
+    static final ModelAdapter<TodayActivitiesResponse> TODAY_ACTIVITIES_RESPONSE = new ModelAdapter<TodayActivitiesResponse>() {
+        @Override
+        TodayActivitiesResponse create() {
+            return new TodayActivitiesResponse();
+        }
+
+        @Override
+        boolean readField(JsonReader in, TodayActivitiesResponse value, String name) throws IOException {
+            switch (name) {
+                case "activities": value.activities = readList(in, USER_ACTIVITY_DATA); return true;
+                case "count": value.count = in.nextInt(); return true;
+                case "totalPoints": value.totalPoints = in.nextInt(); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, TodayActivitiesResponse value) throws IOException {
+            writeList(out, "activities", value.activities, USER_ACTIVITY_DATA);
+            out.name("count").value(value.count);
+            out.name("totalPoints").value(value.totalPoints);
+        }
+    };
+
+    static final ModelAdapter<HistoryItem> HISTORY_ITEM = new ModelAdapter<HistoryItem>() {
+        @Override
+        HistoryItem create() {
+            return new HistoryItem();
+        }
+
+        @Override
+        boolean readField(JsonReader in, HistoryItem value, String name) throws IOException {
+            switch (name) {
+                case "id": value.id = readString(in); return true;
+                case "activity": value.activity = ACTIVITY_DATA.read(in); return true;
+                case "pointsEarned": value.pointsEarned = in.nextInt(); return true;
+                case "completedAt": value.completedAt = readString(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, HistoryItem value) throws IOException {
+            out.name("id").value(value.id);
+            writeObject(out, "activity", value.activity, ACTIVITY_DATA);
+            out.name("pointsEarned").value(value.pointsEarned);
+            out.name("completedAt").value(value.completedAt);
+        }
+    };
+
+    static final ModelAdapter<ActivityHistoryResponse.Pagination> PAGINATION = new ModelAdapter<ActivityHistoryResponse.Pagination>() {
+        @Override
+        ActivityHistoryResponse.Pagination create() {
+            return new ActivityHistoryResponse.Pagination();
+        }
+
+        @Override
+        boolean readField(JsonReader in, ActivityHistoryResponse.Pagination value, String name) throws IOException {
+            switch (name) {
+                case "page": value.page = in.nextInt(); return true;
+                case "limit": value.limit = in.nextInt(); return true;
+                case "total": value.total = in.nextInt(); return true;
+                case "pages": value.pages = in.nextInt(); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, ActivityHistoryResponse.Pagination value) throws IOException {
+            out.name("page").value(value.page);
+            out.name("limit").value(value.limit);
+            out.name("total").value(value.total);
+            out.name("pages").value(value.pages);
+        }
+    };
+
+    static final ModelAdapter<HistoryCursor> HISTORY_CURSOR = new ModelAdapter<HistoryCursor>() {
+        @Override
+        HistoryCursor create() {
+            return new HistoryCursor();
+        }
+
+        @Override
+        boolean readField(JsonReader in, HistoryCursor value, String name) throws IOException {
+            switch (name) {
+                case "completedAt": value.completedAt = readString(in); return true;
+                case "id": value.id = readString(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, HistoryCursor value) throws IOException {
+            out.name("completedAt").value(value.completedAt);
+            out.name("id").value(value.id);
+        }
+    };
+
+    static final ModelAdapter<ActivityHistoryResponse> ACTIVITY_HISTORY_RESPONSE = new ModelAdapter<ActivityHistoryResponse>() {
+        @Override
+        ActivityHistoryResponse create() {
+            return new ActivityHistoryResponse();
+        }
+
+        @Override
+        boolean readField(JsonReader in, ActivityHistoryResponse value, String name) throws IOException {
+            switch (name) {
+                case "history": value.history = readList(in, HISTORY_ITEM); return true;
+                case "pagination": value.pagination = PAGINATION.read(in); return true;
+                case "nextCursor": value.nextCursor = HISTORY_CURSOR.read(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, ActivityHistoryResponse value) throws IOException {
+            writeList(out, "history", value.history, HISTORY_ITEM);
+            writeObject(out, "pagination", value.pagination, PAGINATION);
+            writeObject(out, "nextCursor", value.nextCursor, HISTORY_CURSOR);
+        }
+    };
+
+    // ==================== USERS ====================
+
+    static final ModelAdapter<ProfileStats> PROFILE_STATS = new ModelAdapter<ProfileStats>() {
+        @Override
+        ProfileStats create() {
+            return new ProfileStats();
+        }
+
+        @Override
+        boolean readField(JsonReader in, ProfileStats value, String name) throws IOException {
+            switch (name) {
+                case "totalActivities": value.totalActivities = in.nextInt(); return true;
+                case "rank": value.rank = in.nextInt(); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, ProfileStats value) throws IOException {
+            out.name("totalActivities").value(value.totalActivities);
+            out.name("rank").value(value.rank);
+        }
+    };
+
+    static final ModelAdapter<ProfileResponse> PROFILE_RESPONSE = new ModelAdapter<ProfileResponse>() {
+        @Override
+        ProfileResponse create() {
+            return new ProfileResponse();
+        }
+
+        @Override
+        boolean readField(JsonReader in, ProfileResponse value, String name) throws IOException {
+            switch (name) {
+                case "user": value.user = USER_DATA.read(in); return true;
+                case "stats": value.stats = PROFILE_STATS.read(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, ProfileResponse value) throws IOException {
+            writeObject(out, "user", value.user, USER_DATA);
+            writeObject(out, "stats", value.stats, PROFILE_STATS);
+        }
+    };
+
+    static final ModelAdapter<UpdateProfileRequest> UPDATE_PROFILE_REQUEST = new ModelAdapter<UpdateProfileRequest>() {
+        @Override
+        UpdateProfileRequest create() {
+            return new UpdateProfileRequest(null, null);
+        }
+
+        @Override
+        boolean readField(JsonReader in, UpdateProfileRequest value, String name) throws IOException {
+            switch (name) {
+                case "fullname": value.fullname = readString(in); return true;
+                case "avatar": value.avatar = readString(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, UpdateProfileRequest value) throws IOException {
+            out.name("fullname").value(value.fullname);
+            out.name("avatar").value(value.avatar);
+        }
+    };
+
+    static final ModelAdapter<StatsResponse.DayStats> DAY_STATS = new ModelAdapter<StatsResponse.DayStats>() {
+        @Override
+        StatsResponse.DayStats create() {
+            return new StatsResponse.DayStats();
+        }
+
+        @Override
+        boolean readField(JsonReader in, StatsResponse.DayStats value, String name) throws IOException {
+            switch (name) {
+                case "points": value.points = in.nextInt(); return true;
+                case "activities": value.activities = in.nextInt(); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, StatsResponse.DayStats value) throws IOException {
+            out.name("points").value(value.points);
+            out.name("activities").value(value.activities);
+        }
+    };
+
+    static final ModelAdapter<TotalStats> TOTAL_STATS = new ModelAdapter<TotalStats>() {
+        @Override
+        TotalStats create() {
+            return new TotalStats();
+        }
+
+        @Override
+        boolean readField(JsonReader in, TotalStats value, String name) throws IOException {
+            switch (name) {
+                case "points": value.points = in.nextInt(); return true;
+                case "activities": value.activities = in.nextInt(); return true;
+                case "level": value.level = in.nextInt(); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, TotalStats value) throws IOException {
+            out.name("points").value(value.points);
+            out.name("activities").value(value.activities);
+            out.name("level").value(value.level);
+        }
+    };
+
+    static final ModelAdapter<CategoryStat> CATEGORY_STAT = new ModelAdapter<CategoryStat>() {
+        @Override
+        CategoryStat create() {
+            return new CategoryStat();
+        }
+
+        @Override
+        boolean readField(JsonReader in, CategoryStat value, String name) throws IOException {
+            switch (name) {
+                case "_id": value.category = readString(in); return true;
+                case "count": value.count = in.nextInt(); return true;
+                case "points": value.points = in.nextInt(); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, CategoryStat value) throws IOException {
+            out.name("_id").value(value.category);
+            out.name("count").value(value.count);
+            out.name("points").value(value.points);
+        }
+    };
+
+    static final ModelAdapter<StatsResponse.WeeklyChartData> WEEKLY_CHART_DATA = new ModelAdapter<StatsResponse.WeeklyChartData>() {
+        @Override
+        StatsResponse.WeeklyChartData create() {
+            return new StatsResponse.WeeklyChartData();
+        }
+
+        @Override
+        boolean readField(JsonReader in, StatsResponse.WeeklyChartData value, String name) throws IOException {
+            switch (name) {
+                case "date": value.date = readString(in); return true;
+                case "points": value.points = in.nextInt(); return true;
+                case "count": value.count = in.nextInt(); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, StatsResponse.WeeklyChartData value) throws IOException {
+            out.name("date").value(value.date);
+            out.name("points").value(value.points);
+            out.name("count").value(value.count);
+        }
+    };
+
+    static final ModelAdapter<StatsResponse> STATS_RESPONSE = new ModelAdapter<StatsResponse>() {
+        @Override
+        StatsResponse create() {
+            return new StatsResponse();
+        }
+
+        @Override
+        boolean readField(JsonReader in, StatsResponse value, String name) throws IOException {
+            switch (name) {
+                case "today": value.today = DAY_STATS.read(in); return true;
+                case "week": value.week = DAY_STATS.read(in); return true;
+                case "total": value.total = TOTAL_STATS.read(in); return true;
+                case "categories": value.categories = readList(in, CATEGORY_STAT); return true;
+                case "weeklyChart": value.weeklyChart = readList(in, WEEKLY_CHART_DATA); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, StatsResponse value) throws IOException {
+            writeObject(out, "today", value.today, DAY_STATS);
+            writeObject(out, "week", value.week, DAY_STATS);
+            writeObject(out, "total", value.total, TOTAL_STATS);
+            writeList(out, "categories", value.categories, CATEGORY_STAT);
+            writeList(out, "weeklyChart", value.weeklyChart, WEEKLY_CHART_DATA);
+        }
+    };
+
+    // ==================== DASHBOARD ====================
+
+    static final ModelAdapter<DashboardResponse.Period> DASHBOARD_PERIOD = new ModelAdapter<DashboardResponse.Period>() {
+        @Override
+        DashboardResponse.Period create() {
+            return new DashboardResponse.Period();
+        }
+
+        @Override
+        boolean readField(JsonReader in, DashboardResponse.Period value, String name) throws IOException {
+            switch (name) {
+                case "points": value.points = in.nextInt(); return true;
+                case "activities": value.activities = in.nextInt(); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, DashboardResponse.Period value) throws IOException {
+            out.name("points").value(value.points);
+            out.name("activities").value(value.activities);
+        }
+    };
+
+    static final ModelAdapter<DashboardResponse.ChartDay> DASHBOARD_CHART_DAY = new ModelAdapter<DashboardResponse.ChartDay>() {
+        @Override
+        DashboardResponse.ChartDay create() {
+            return new DashboardResponse.ChartDay();
+        }
+
+        @Override
+        boolean readField(JsonReader in, DashboardResponse.ChartDay value, String name) throws IOException {
+            switch (name) {
+                case "date": value.date = readString(in); return true;
+                case "points": value.points = in.nextInt(); return true;
+                case "count": value.count = in.nextInt(); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, DashboardResponse.ChartDay value) throws IOException {
+            out.name("date").value(value.date);
+            out.name("points").value(value.points);
+            out.name("count").value(value.count);
+        }
+    };
+
+    static final ModelAdapter<DashboardResponse> DASHBOARD_RESPONSE = new ModelAdapter<DashboardResponse>() {
+        @Override
+        DashboardResponse create() {
+            return new DashboardResponse();
+        }
+
+        @Override
+        boolean readField(JsonReader in, DashboardResponse value, String name) throws IOException {
+            switch (name) {
+                case "user": value.user = USER_DATA.read(in); return true;
+                case "today": value.today = DASHBOARD_PERIOD.read(in); return true;
+                case "week": value.week = DASHBOARD_PERIOD.read(in); return true;
+                case "totalActivities": value.totalActivities = in.nextInt(); return true;
+                case "rank": value.rank = in.nextInt(); return true;
+                case "weeklyChart": value.weeklyChart = readList(in, DASHBOARD_CHART_DAY); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, DashboardResponse value) throws IOException {
+            writeObject(out, "user", value.user, USER_DATA);
+            writeObject(out, "today", value.today, DASHBOARD_PERIOD);
+            writeObject(out, "week", value.week, DASHBOARD_PERIOD);
+            out.name("totalActivities").value(value.totalActivities);
+            out.name("rank").value(value.rank);
+            writeList(out, "weeklyChart", value.weeklyChart, DASHBOARD_CHART_DAY);
+        }
+    };
+
+    // ==================== LEADERBOARD ====================
+
+    static final ModelAdapter<LeaderboardResponse.LeaderboardUser> LEADERBOARD_USER = new ModelAdapter<LeaderboardResponse.LeaderboardUser>() {
+        @Override
+        LeaderboardResponse.LeaderboardUser create() {
+            return new LeaderboardResponse.LeaderboardUser();
+        }
+
+        @Override
+        boolean readField(JsonReader in, LeaderboardResponse.LeaderboardUser value, String name) throws IOException {
+            switch (name) {
+                case "rank": value.rank = in.nextInt(); return true;
+                case "id": value.id = readString(in); return true;
+                case "username": value.username = readString(in); return true;
+                case "fullname": value.fullname = readString(in); return true;
+                case "points": value.points = in.nextInt(); return true;
+                case "level": value.level = in.nextInt(); return true;
+                case "avatar": value.avatar = readString(in); return true;
+                case "isCurrentUser": value.isCurrentUser = readBoolean(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, LeaderboardResponse.LeaderboardUser value) throws IOException {
+            out.name("rank").value(value.rank);
+            out.name("id").value(value.id);
+            out.name("username").value(value.username);
+            out.name("fullname").value(value.fullname);
+            out.name("points").value(value.points);
+            out.name("level").value(value.level);
+            out.name("avatar").value(value.avatar);
+            out.name("isCurrentUser").value(value.isCurrentUser);
+        }
+    };
+
+    static final ModelAdapter<LeaderboardResponse.CurrentUserRank> CURRENT_USER_RANK = new ModelAdapter<LeaderboardResponse.CurrentUserRank>() {
+        @Override
+        LeaderboardResponse.CurrentUserRank create() {
+            return new LeaderboardResponse.CurrentUserRank();
+        }
+
+        @Override
+        boolean readField(JsonReader in, LeaderboardResponse.CurrentUserRank value, String name) throws IOException {
+            switch (name) {
+                case "rank": value.rank = in.nextInt(); return true;
+                case "points": value.points = in.nextInt(); return true;
+                case "level": value.level = in.nextInt(); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, LeaderboardResponse.CurrentUserRank value) throws IOException {
+            out.name("rank").value(value.rank);
+            out.name("points").value(value.points);
+            out.name("level").value(value.level);
+        }
+    };
+
+    static final ModelAdapter<LeaderboardResponse> LEADERBOARD_RESPONSE = new ModelAdapter<LeaderboardResponse>() {
+        @Override
+        LeaderboardResponse create() {
+            return new LeaderboardResponse();
+        }
+
+        @Override
+        boolean readField(JsonReader in, LeaderboardResponse value, String name) throws IOException {
+            switch (name) {
+                case "leaderboard": value.leaderboard = readList(in, LEADERBOARD_USER); return true;
+                case "currentUser": value.currentUser = CURRENT_USER_RANK.read(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, LeaderboardResponse value) throws IOException {
+            writeList(out, "leaderboard", value.leaderboard, LEADERBOARD_USER);
+            writeObject(out, "currentUser", value.currentUser, CURRENT_USER_RANK);
+        }
+    };
+
+    static final ModelAdapter<WeeklyLeaderboardResponse.WeeklyLeaderboardUser> WEEKLY_LEADERBOARD_USER = new ModelAdapter<WeeklyLeaderboardResponse.WeeklyLeaderboardUser>() {
+        @Override
+        WeeklyLeaderboardResponse.WeeklyLeaderboardUser create() {
+            return new WeeklyLeaderboardResponse.WeeklyLeaderboardUser();
+        }
+
+        @Override
+        boolean readField(JsonReader in, WeeklyLeaderboardResponse.WeeklyLeaderboardUser value, String name) throws IOException {
+            switch (name) {
+                case "rank": value.rank = in.nextInt(); return true;
+                case "id": value.id = readString(in); return true;
+                case "username": value.username = readString(in); return true;
+                case "fullname": value.fullname = readString(in); return true;
+                case "weeklyPoints": value.weeklyPoints = in.nextInt(); return true;
+                case "level": value.level = in.nextInt(); return true;
+                case "avatar": value.avatar = readString(in); return true;
+                case "isCurrentUser": value.isCurrentUser = readBoolean(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, WeeklyLeaderboardResponse.WeeklyLeaderboardUser value) throws IOException {
+            out.name("rank").value(value.rank);
+            out.name("id").value(value.id);
+            out.name("username").value(value.username);
+            out.name("fullname").value(value.fullname);
+            out.name("weeklyPoints").value(value.weeklyPoints);
+            out.name("level").value(value.level);
+            out.name("avatar").value(value.avatar);
+            out.name("isCurrentUser").value(value.isCurrentUser);
+        }
+    };
+
+    static final ModelAdapter<WeeklyLeaderboardResponse.WeeklyCurrentUser> WEEKLY_CURRENT_USER = new ModelAdapter<WeeklyLeaderboardResponse.WeeklyCurrentUser>() {
+        @Override
+        WeeklyLeaderboardResponse.WeeklyCurrentUser create() {
+            return new WeeklyLeaderboardResponse.WeeklyCurrentUser();
+        }
+
+        @Override
+        boolean readField(JsonReader in, WeeklyLeaderboardResponse.WeeklyCurrentUser value, String name) throws IOException {
+            if (name.equals("weeklyPoints")) {
+                value.weeklyPoints = in.nextInt();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        void writeFields(JsonWriter out, WeeklyLeaderboardResponse.WeeklyCurrentUser value) throws IOException {
+            out.name("weeklyPoints").value(value.weeklyPoints);
+        }
+    };
+
+    static final ModelAdapter<WeeklyLeaderboardResponse> WEEKLY_LEADERBOARD_RESPONSE = new ModelAdapter<WeeklyLeaderboardResponse>() {
+        @Override
+        WeeklyLeaderboardResponse create() {
+            return new WeeklyLeaderboardResponse();
+        }
+
+        @Override
+        boolean readField(JsonReader in, WeeklyLeaderboardResponse value, String name) throws IOException {
+            switch (name) {
+                case "leaderboard": value.leaderboard = readList(in, WEEKLY_LEADERBOARD_USER); return true;
+                case "currentUser": value.currentUser = WEEKLY_CURRENT_USER.read(in); return true;
+                default: return false;
+            }
+        }
+
+        @Override
+        void writeFields(JsonWriter out, WeeklyLeaderboardResponse value) throws IOException {
+            writeList(out, "leaderboard", value.leaderboard, WEEKLY_LEADERBOARD_USER);
+            writeObject(out, "currentUser", value.currentUser, WEEKLY_CURRENT_USER);
+        }
+    };
+
+    static {
+        register(UserData.class, USER_DATA);
+        register(ActivityData.class, ACTIVITY_DATA);
+        register(LoginRequest.class, LOGIN_REQUEST);
+        register(RegisterRequest.class, REGISTER_REQUEST);
+        register(AuthResponse.class, AUTH_RESPONSE);
+        register(UserResponse.class, USER_RESPONSE);
+        register(ActivitiesResponse.class, ACTIVITIES_RESPONSE);
+        register(ActivityCatalogResponse.class, ACTIVITY_CATALOG_RESPONSE);
+        register(CompletedTodayResponse.class, COMPLETED_TODAY_RESPONSE);
+        register(CompleteActivityResponse.class, COMPLETE_ACTIVITY_RESPONSE);
+        register(BatchCompleteRequest.Completion.class, BATCH_COMPLETION);
+        register(BatchCompleteRequest.class, BATCH_COMPLETE_REQUEST);
+        register(BatchCompleteResponse.Result.class, BATCH_RESULT);
+        register(BatchCompleteResponse.class, BATCH_COMPLETE_RESPONSE);
+        register(TodayActivitiesResponse.UserActivityData.class, USER_ACTIVITY_DATA);
+        register(TodayActivitiesResponse.class, TODAY_ACTIVITIES_RESPONSE);
+        register(HistoryItem.class, HISTORY_ITEM);
+        register(ActivityHistoryResponse.Pagination.class, PAGINATION);
+        register(HistoryCursor.class, HISTORY_CURSOR);
+        register(ActivityHistoryResponse.class, ACTIVITY_HISTORY_RESPONSE);
+        register(ProfileStats.class, PROFILE_STATS);
+        register(ProfileResponse.class, PROFILE_RESPONSE);
+        register(UpdateProfileRequest.class, UPDATE_PROFILE_REQUEST);
+        register(StatsResponse.DayStats.class, DAY_STATS);
+        register(TotalStats.class, TOTAL_STATS);
+        register(CategoryStat.class, CATEGORY_STAT);
+        register(StatsResponse.WeeklyChartData.class, WEEKLY_CHART_DATA);
+        register(StatsResponse.class, STATS_RESPONSE);
+        register(DashboardResponse.Period.class, DASHBOARD_PERIOD);
+        register(DashboardResponse.ChartDay.class, DASHBOARD_CHART_DAY);
+        register(DashboardResponse.class, DASHBOARD_RESPONSE);
+        register(LeaderboardResponse.LeaderboardUser.class, LEADERBOARD_USER);
+        register(LeaderboardResponse.CurrentUserRank.class, CURRENT_USER_RANK);
+        register(LeaderboardResponse.class, LEADERBOARD_RESPONSE);
+        register(WeeklyLeaderboardResponse.WeeklyLeaderboardUser.class, WEEKLY_LEADERBOARD_USER);
+        register(WeeklyLeaderboardResponse.WeeklyCurrentUser.class, WEEKLY_CURRENT_USER);
+        register(WeeklyLeaderboardResponse.class, WEEKLY_LEADERBOARD_RESPONSE);
+    }
+}
@@ -4,8 +4,3 @@ public class ProfileResponse {
     public UserData user;
     public ProfileStats stats;
 }
-
-class ProfileStats {
-    public int totalActivities;
-    public int rank;
-}
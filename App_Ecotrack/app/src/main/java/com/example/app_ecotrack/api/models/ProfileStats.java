@@ -0,0 +1,6 @@
+package com.example.app_ecotrack.api.models;
+
+public class ProfileStats {
+    public int totalActivities;
+    public int rank;
+}
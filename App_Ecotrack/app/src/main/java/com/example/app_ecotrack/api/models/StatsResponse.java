@@ -9,28 +9,15 @@ public class StatsResponse {
     public TotalStats total;
     public List<CategoryStat> categories;
     public List<WeeklyChartData> weeklyChart;
-}
-
-class DayStats {
-    public int points;
-    public int activities;
-}
 
-class TotalStats {
-    public int points;
-    public int activities;
-    public int level;
-}
-
-class CategoryStat {
-    @SerializedName("_id")
-    public String category;
-    public int count;
-    public int points;
-}
+    static class DayStats {
+        public int points;
+        public int activities;
+    }
 
-class WeeklyChartData {
-    public String date;
-    public int points;
-    public int count;
+    static class WeeklyChartData {
+        public String date;
+        public int points;
+        public int count;
+    }
 }
@@ -6,11 +6,11 @@ public class TodayActivitiesResponse {
     public List<UserActivityData> activities;
     public int count;
     public int totalPoints;
-}
 
-class UserActivityData {
-    public String id;
-    public ActivityData activity;
-    public int pointsEarned;
-    public String completedAt;
+    static class UserActivityData {
+        public String id;
+        public ActivityData activity;
+        public int pointsEarned;
+        public String completedAt;
+    }
 }
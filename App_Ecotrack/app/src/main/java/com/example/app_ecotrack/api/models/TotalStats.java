@@ -0,0 +1,7 @@
+package com.example.app_ecotrack.api.models;
+
+public class TotalStats {
+    public int points;
+    public int activities;
+    public int level;
+}
@@ -1,6 +1,8 @@
 package com.example.app_ecotrack.fragments;
 
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.Editable;
 import android.text.TextWatcher;
 import android.view.LayoutInflater;
@@ -18,39 +20,55 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.app_ecotrack.Activity;
+import com.example.app_ecotrack.ActivityCatalog;
+import com.example.app_ecotrack.ActivitySearchIndex;
+import com.example.app_ecotrack.AppContainer;
+import com.example.app_ecotrack.CompletionOutbox;
 import com.example.app_ecotrack.adapters.ActivityAdapter;
 import com.example.app_ecotrack.MainActivity;
 import com.example.app_ecotrack.R;
-import com.example.app_ecotrack.api.ApiClient;
-import com.example.app_ecotrack.api.models.ActivitiesResponse;
-import com.example.app_ecotrack.api.models.ActivityData;
-import com.example.app_ecotrack.api.models.CompleteActivityResponse;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 public class ActivitiesFragment extends Fragment {
+    // Wait for typing to pause before searching
+    private static final long SEARCH_DEBOUNCE_MS = 150;
+
     private RecyclerView recyclerView;
     private ActivityAdapter adapter;
     private List<Activity> activityList;
-    private List<Activity> filteredList;
     private EditText etSearch;
     private Spinner spCategory;
     private ProgressBar progressBar;
+    private CompletionOutbox outbox;
+    private ActivityCatalog catalog;
+    // Ids completed today according to the server; refreshed on every load, not stored locally
+    private final Set<String> completedToday = new HashSet<>();
+    // Index building and queries run here, one at a time (shared, owned by AppContainer)
+    private ExecutorService searchExecutor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable debouncedFilter = this::filterActivities;
+    // Only touched on the search thread
+    private ActivitySearchIndex searchIndex = new ActivitySearchIndex(new ArrayList<>());
+    // Main thread only: results of older queries are dropped
+    private int searchGeneration;
 
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_activity, container, false);
 
+        AppContainer appContainer = AppContainer.from(requireContext());
+        outbox = appContainer.getCompletionOutbox();
+        catalog = appContainer.getActivityCatalog();
+        searchExecutor = appContainer.getSearchExecutor();
         initViews(view);
         setupRecyclerView();
         setupFilters();
-        loadActivities();
 
         return view;
     }
@@ -64,9 +82,8 @@ public class ActivitiesFragment extends Fragment {
 
     private void setupRecyclerView() {
         activityList = new ArrayList<>();
-        filteredList = new ArrayList<>();
 
-        adapter = new ActivityAdapter(requireContext(), filteredList, activity -> completeActivity(activity));
+        adapter = new ActivityAdapter(requireContext(), activity -> completeActivity(activity));
 
         recyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
         recyclerView.setAdapter(adapter);
@@ -91,66 +108,87 @@ public class ActivitiesFragment extends Fragment {
         etSearch.addTextChangedListener(new TextWatcher() {
             @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
             @Override public void onTextChanged(CharSequence s, int start, int before, int count) {
-                filterActivities();
+                mainHandler.removeCallbacks(debouncedFilter);
+                mainHandler.postDelayed(debouncedFilter, SEARCH_DEBOUNCE_MS);
             }
             @Override public void afterTextChanged(Editable s) {}
         });
     }
 
+    // Renders the local catalog right away; the server is only asked for catalog changes since
+    // the last sync and for today's completions
     private void loadActivities() {
-        if (progressBar != null) progressBar.setVisibility(View.VISIBLE);
+        if (progressBar != null && activityList.isEmpty()) progressBar.setVisibility(View.VISIBLE);
 
-        ApiClient.getApiService().getActivities().enqueue(new Callback<ActivitiesResponse>() {
+        catalog.load(new ActivityCatalog.Callback() {
             @Override
-            public void onResponse(Call<ActivitiesResponse> call, Response<ActivitiesResponse> response) {
+            public void onCatalog(List<Activity> activities, boolean fromCache) {
+                if (!isAdded()) return;
                 if (progressBar != null) progressBar.setVisibility(View.GONE);
-                
-                if (response.isSuccessful() && response.body() != null) {
-                    activityList.clear();
-                    for (ActivityData data : response.body().activities) {
-                        Activity activity = new Activity();
-                        activity.setId(data.id.hashCode()); // Convert string ID to int for compatibility
-                        activity.setApiId(data.id); // Store original API ID
-                        activity.setName(data.name);
-                        activity.setDescription(data.description);
-                        activity.setPoints(data.points);
-                        activity.setCategory(data.category);
-                        activity.setIcon(data.icon);
-                        activity.setCompleted(data.completedToday);
-                        activityList.add(activity);
-                    }
-                    filterActivities();
-                } else {
-                    Toast.makeText(requireContext(), "Không thể tải hoạt động", Toast.LENGTH_SHORT).show();
-                }
+                activityList.clear();
+                activityList.addAll(activities);
+                rebuildSearchIndex();
+                applyCompletedFlags();
+            }
+
+            @Override
+            public void onCompletedToday(Set<String> activityIds) {
+                if (!isAdded()) return;
+                completedToday.clear();
+                completedToday.addAll(activityIds);
+                applyCompletedFlags();
             }
 
             @Override
-            public void onFailure(Call<ActivitiesResponse> call, Throwable t) {
+            public void onError(Exception e) {
+                if (!isAdded()) return;
                 if (progressBar != null) progressBar.setVisibility(View.GONE);
-                Toast.makeText(requireContext(), "Lỗi kết nối: " + t.getMessage(), Toast.LENGTH_SHORT).show();
+                Toast.makeText(requireContext(), "Lỗi kết nối: " + e.getMessage(), Toast.LENGTH_SHORT).show();
             }
         });
     }
 
-    private void filterActivities() {
-        filteredList.clear();
-        String searchText = etSearch.getText().toString().toLowerCase().trim();
-        String selectedCategory = spCategory.getSelectedItem().toString();
-
+    private void applyCompletedFlags() {
         for (Activity activity : activityList) {
-            boolean matchesSearch = searchText.isEmpty() ||
-                    activity.getName().toLowerCase().contains(searchText) ||
-                    activity.getDescription().toLowerCase().contains(searchText);
+            // Completions still waiting in the outbox count as done today
+            activity.setCompleted(completedToday.contains(activity.getApiId())
+                    || outbox.isPendingToday(activity.getApiId()));
+        }
+        filterActivities();
+    }
 
-            boolean matchesCategory = selectedCategory.equals("Tất cả") ||
-                    getCategoryInVietnamese(activity.getCategory()).equals(selectedCategory);
+    // Built once per catalog load, on the search thread; queries submitted later see the new index
+    private void rebuildSearchIndex() {
+        List<Activity> snapshot = new ArrayList<>(activityList);
+        searchExecutor.execute(() -> searchIndex = new ActivitySearchIndex(snapshot));
+    }
 
-            if (matchesSearch && matchesCategory) {
-                filteredList.add(activity);
-            }
-        }
-        adapter.notifyDataSetChanged();
+    /**
+     * Runs the query against the search index off the main thread, then submits copies of the
+     * ranked matches in the selected category; the adapter diffs them off the main thread too.
+     */
+    private void filterActivities() {
+        mainHandler.removeCallbacks(debouncedFilter);
+        int generation = ++searchGeneration;
+        String query = etSearch.getText().toString();
+        String selectedCategory = spCategory.getSelectedItem().toString();
+
+        searchExecutor.execute(() -> {
+            List<Activity> matches = searchIndex.search(query);
+            mainHandler.post(() -> {
+                if (generation != searchGeneration || !isAdded()) return;
+
+                List<Activity> filteredList = new ArrayList<>();
+                for (Activity activity : matches) {
+                    boolean matchesCategory = selectedCategory.equals("Tất cả") ||
+                            getCategoryInVietnamese(activity.getCategory()).equals(selectedCategory);
+                    if (matchesCategory) {
+                        filteredList.add(new Activity(activity));
+                    }
+                }
+                adapter.submitList(filteredList);
+            });
+        });
     }
 
     private String getCategoryInVietnamese(String category) {
@@ -171,32 +209,19 @@ public class ActivitiesFragment extends Fragment {
             return;
         }
 
-        ApiClient.getApiService().completeActivity(activity.getApiId()).enqueue(new Callback<CompleteActivityResponse>() {
-            @Override
-            public void onResponse(Call<CompleteActivityResponse> call, Response<CompleteActivityResponse> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    CompleteActivityResponse result = response.body();
-                    Toast.makeText(requireContext(), 
-                            "🎉 Hoàn thành! +" + result.pointsEarned + " điểm", 
-                            Toast.LENGTH_SHORT).show();
-                    
-                    // Reload activities
-                    loadActivities();
-                    
-                    // Refresh main activity
-                    if (getActivity() instanceof MainActivity) {
-                        ((MainActivity) getActivity()).refreshData();
-                    }
-                } else {
-                    Toast.makeText(requireContext(), "Có lỗi xảy ra!", Toast.LENGTH_SHORT).show();
-                }
-            }
-
-            @Override
-            public void onFailure(Call<CompleteActivityResponse> call, Throwable t) {
-                Toast.makeText(requireContext(), "Lỗi kết nối: " + t.getMessage(), Toast.LENGTH_SHORT).show();
-            }
-        });
+        // Apply immediately; CompletionOutbox uploads it in the background and counts it towards
+        // achievements once the server accepts it
+        outbox.enqueue(activity.getApiId(), activity.getPoints());
+        completedToday.add(activity.getApiId());
+        applyCompletedFlags();
+        Toast.makeText(requireContext(),
+                "🎉 Hoàn thành! +" + activity.getPoints() + " điểm",
+                Toast.LENGTH_SHORT).show();
+
+        // Refresh main activity
+        if (getActivity() instanceof MainActivity) {
+            ((MainActivity) getActivity()).refreshData();
+        }
     }
 
     @Override
@@ -204,4 +229,13 @@ public class ActivitiesFragment extends Fragment {
         super.onResume();
         loadActivities();
     }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        mainHandler.removeCallbacks(debouncedFilter);
+        // The catalog outlives this screen: only drop the results still on their way here
+        catalog.cancel();
+        searchGeneration++;
+    }
 }
@@ -1,6 +1,5 @@
 package com.example.app_ecotrack.fragments;
 import android.content.SharedPreferences;
-import android.database.Cursor;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -11,32 +10,22 @@ import androidx.annotation.Nullable;
 import androidx.cardview.widget.CardView;
 import androidx.fragment.app.Fragment;
 
-import com.example.app_ecotrack.DatabaseHelper;
 import com.example.app_ecotrack.MainActivity;
 import com.example.app_ecotrack.R;
+import com.example.app_ecotrack.api.models.DashboardResponse;
 
-public class HomeFragment extends Fragment {
+// Renders from the dashboard payload loaded by MainActivity (one api/dashboard call)
+public class HomeFragment extends Fragment implements MainActivity.DashboardListener {
     private TextView tvTodayPoints, tvWeekPoints, tvTotalPoints, tvTodayActivities, tvTotalActivities, tvRank;
     private CardView cardActivities, cardRewards, cardLeaderboard;
-    private DatabaseHelper db;
     private SharedPreferences prefs;
-    private int userId;
 
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_home, container, false);
 
-        db = new DatabaseHelper(requireContext());
         prefs = requireActivity().getSharedPreferences("EcoTrackPrefs", requireContext().MODE_PRIVATE);
-        
-        // userId is stored as String from API response
-        String userIdStr = prefs.getString("userId", "-1");
-        try {
-            userId = Integer.parseInt(userIdStr);
-        } catch (NumberFormatException e) {
-            userId = -1;
-        }
 
         initViews(view);
         loadData();
@@ -59,14 +48,6 @@ public class HomeFragment extends Fragment {
     }
 
     private void loadData() {
-        // Today's points
-        int todayPoints = db.getTodayPoints(userId);
-        tvTodayPoints.setText(String.valueOf(todayPoints));
-
-        // Week points
-        int weekPoints = getWeekPoints();
-        tvWeekPoints.setText(String.valueOf(weekPoints));
-
         // Total points - stored as int but may be string from API
         int totalPoints = 0;
         try {
@@ -81,61 +62,24 @@ public class HomeFragment extends Fragment {
             }
         }
         tvTotalPoints.setText(String.valueOf(totalPoints));
-
-        // Today's activities count
-        Cursor todayCursor = db.getTodayActivities(userId);
-        int todayCount = todayCursor != null ? todayCursor.getCount() : 0;
-        tvTodayActivities.setText(String.valueOf(todayCount));
-        if (todayCursor != null) todayCursor.close();
-
-        // Total activities count
-        Cursor totalCursor = db.getUserActivities(userId);
-        int totalCount = totalCursor != null ? totalCursor.getCount() : 0;
-        tvTotalActivities.setText(String.valueOf(totalCount));
-        if (totalCursor != null) totalCursor.close();
-
-        // Rank
-        int rank = getUserRank();
-        tvRank.setText("#" + rank);
     }
 
-    private int getWeekPoints() {
-        long weekAgo = System.currentTimeMillis() - (7 * 24 * 60 * 60 * 1000);
-        Cursor cursor = db.getUserActivities(userId);
-        int weekPoints = 0;
-
-        if (cursor != null) {
-            while (cursor.moveToNext()) {
-                String dateStr = cursor.getString(cursor.getColumnIndexOrThrow("completed_date"));
-                try {
-                    java.text.SimpleDateFormat sdf = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss", java.util.Locale.getDefault());
-                    java.util.Date date = sdf.parse(dateStr);
-                    if (date != null && date.getTime() > weekAgo) {
-                        weekPoints += cursor.getInt(cursor.getColumnIndexOrThrow("points_earned"));
-                    }
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            }
-            cursor.close();
-        }
-        return weekPoints;
-    }
+    @Override
+    public void onDashboard(DashboardResponse dashboard) {
+        if (!isAdded()) return;
 
-    private int getUserRank() {
-        Cursor leaderboard = db.getLeaderboard();
-        int rank = 1;
-        if (leaderboard != null) {
-            while (leaderboard.moveToNext()) {
-                int id = leaderboard.getInt(leaderboard.getColumnIndexOrThrow("id"));
-                if (id == userId) {
-                    break;
-                }
-                rank++;
-            }
-            leaderboard.close();
+        if (dashboard.user != null) {
+            tvTotalPoints.setText(String.valueOf(dashboard.user.points));
+        }
+        if (dashboard.today != null) {
+            tvTodayPoints.setText(String.valueOf(dashboard.today.points));
+            tvTodayActivities.setText(String.valueOf(dashboard.today.activities));
         }
-        return rank;
+        if (dashboard.week != null) {
+            tvWeekPoints.setText(String.valueOf(dashboard.week.points));
+        }
+        tvTotalActivities.setText(String.valueOf(dashboard.totalActivities));
+        tvRank.setText("#" + dashboard.rank);
     }
 
     private void setupClickListeners() {
@@ -163,7 +107,17 @@ public class HomeFragment extends Fragment {
         super.onResume();
         loadData();
         if (getActivity() instanceof MainActivity) {
-            ((MainActivity) getActivity()).refreshData();
+            MainActivity mainActivity = (MainActivity) getActivity();
+            mainActivity.addDashboardListener(this);
+            mainActivity.refreshDataIfChanged();
+        }
+    }
+
+    @Override
+    public void onPause() {
+        super.onPause();
+        if (getActivity() instanceof MainActivity) {
+            ((MainActivity) getActivity()).removeDashboardListener(this);
         }
     }
 }
\ No newline at end of file
@@ -2,7 +2,6 @@ package com.example.app_ecotrack.fragments;
 
 import android.content.Intent;
 import android.content.SharedPreferences;
-import android.database.Cursor;
 import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -13,30 +12,51 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.cardview.widget.CardView;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 
-import com.example.app_ecotrack.DatabaseHelper;
+import com.example.app_ecotrack.Achievement;
+import com.example.app_ecotrack.AchievementRule;
+import com.example.app_ecotrack.AchievementRules;
+import com.example.app_ecotrack.AppContainer;
+import com.example.app_ecotrack.DataVersion;
 import com.example.app_ecotrack.R;
+import com.example.app_ecotrack.User;
+import com.example.app_ecotrack.UserStatsSnapshot;
+import com.example.app_ecotrack.UserStatsViewModel;
+import com.example.app_ecotrack.api.ApiFutures;
+import com.example.app_ecotrack.api.AsyncApiService;
+import com.example.app_ecotrack.api.models.CategoryStat;
+import com.example.app_ecotrack.api.models.ProfileResponse;
+import com.example.app_ecotrack.api.models.StatsResponse;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public class ProfileFragment extends Fragment {
     private TextView tvFullname, tvUsername, tvEmail, tvTotalPoints, tvLevel, tvTotalActivities, tvRank;
     private CardView cardLeaderboard, cardRewards, cardSettings;
     private LinearLayout containerAchievements;
-    private DatabaseHelper db;
+    private UserStatsViewModel statsViewModel;
     private SharedPreferences prefs;
-    private int userId;
+    private String ownerId;
+    // Rendered list; the engine hands back the same instance until a badge is unlocked
+    private List<Achievement> shownAchievements;
+    private CompletableFuture<Void> pendingRemote;
 
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_profile, container, false);
 
-        db = new DatabaseHelper(requireContext());
         prefs = requireActivity().getSharedPreferences("EcoTrackPrefs", requireContext().MODE_PRIVATE);
-        userId = prefs.getInt("userId", -1);
+        statsViewModel = new ViewModelProvider(requireActivity()).get(UserStatsViewModel.class);
+        ownerId = prefs.getString("userId", "");
+        shownAchievements = null;
 
         initViews(view);
-        loadProfileData();
-        loadAchievements();
+        statsViewModel.getSnapshot().observe(getViewLifecycleOwner(), this::showLocalProfile);
 //        setupClickListeners();
 
         return view;
@@ -58,103 +78,115 @@ public class ProfileFragment extends Fragment {
         containerAchievements = view.findViewById(R.id.containerAchievements);
     }
 
-    private void loadProfileData() {
-        Cursor cursor = db.getUserById(userId);
+    // Local numbers from the snapshot shared with the other tabs; the remote profile replaces them when it arrives
+    private void showLocalProfile(UserStatsSnapshot snapshot) {
+        User user = snapshot.getUser();
+        if (user != null) {
+            tvFullname.setText(user.getFullname());
+            tvUsername.setText("@" + user.getUsername());
+            tvEmail.setText(user.getEmail());
+            tvTotalPoints.setText(String.valueOf(user.getPoints()));
+            tvLevel.setText(String.valueOf(user.getLevel()));
+        }
 
-        if (cursor != null && cursor.moveToFirst()) {
-            String fullname = cursor.getString(cursor.getColumnIndexOrThrow("fullname"));
-            String username = cursor.getString(cursor.getColumnIndexOrThrow("username"));
-            String email = cursor.getString(cursor.getColumnIndexOrThrow("email"));
-            int points = cursor.getInt(cursor.getColumnIndexOrThrow("points"));
-            int level = cursor.getInt(cursor.getColumnIndexOrThrow("level"));
+        // Total activities
+        tvTotalActivities.setText(String.valueOf(snapshot.getTotalActivities()));
 
-            tvFullname.setText(fullname);
-            tvUsername.setText("@" + username);
-            tvEmail.setText(email);
-            tvTotalPoints.setText(String.valueOf(points));
-            tvLevel.setText(String.valueOf(level));
+        // Rank
+        tvRank.setText("#" + snapshot.getRank());
+    }
+
+    // Unlocks are kept in memory by the engine, so this only reads the database on the first visit
+    private void loadAchievements() {
+        if (ownerId.isEmpty()) return;
+        AppContainer appContainer = AppContainer.from(requireContext());
+        String owner = ownerId;
+        appContainer.getRepository().execute(db -> appContainer.getAchievementEngine().getAchievements(owner),
+                achievements -> {
+                    if (!isAdded()) return;
+                    showAchievements(achievements);
+                });
+    }
 
-            cursor.close();
+    // Profile and stats are independent requests: start both, render once the slower one returns.
+    // The local data stays on screen if either fails. Skipped while nothing has changed since the
+    // last successful load, so switching back to this tab makes no requests.
+    private void loadRemoteProfile() {
+        if (!statsViewModel.needsRemoteRefresh(System.currentTimeMillis())) {
+            return;
         }
+        cancelRemoteProfile();
+        long version = DataVersion.current();
+        AsyncApiService api = AppContainer.from(requireContext()).getAsyncApiService();
+        pendingRemote = ApiFutures.both(api.getProfile(), api.getStats(), (profile, stats) -> {
+            statsViewModel.onRemoteRefreshed(version, System.currentTimeMillis());
+            if (isAdded()) {
+                showRemoteProfile(profile, stats);
+            }
+            return null;
+        });
+    }
 
-        // Total activities
-        Cursor actCursor = db.getUserActivities(userId);
-        int totalAct = actCursor != null ? actCursor.getCount() : 0;
-        tvTotalActivities.setText(String.valueOf(totalAct));
-        if (actCursor != null) actCursor.close();
+    private void cancelRemoteProfile() {
+        if (pendingRemote != null) {
+            pendingRemote.cancel(true);
+            pendingRemote = null;
+        }
+    }
 
-        // Rank
-        int rank = getUserRank();
-        tvRank.setText("#" + rank);
+    private void showRemoteProfile(ProfileResponse profile, StatsResponse stats) {
+        if (profile != null && profile.user != null) {
+            tvFullname.setText(profile.user.fullname);
+            tvUsername.setText("@" + profile.user.username);
+            tvEmail.setText(profile.user.email);
+            tvTotalPoints.setText(String.valueOf(profile.user.points));
+            tvLevel.setText(String.valueOf(profile.user.level));
+            if (profile.stats != null) {
+                tvTotalActivities.setText(String.valueOf(profile.stats.totalActivities));
+                tvRank.setText("#" + profile.stats.rank);
+            }
+        }
+
+        if (stats != null && stats.total != null) {
+            syncAchievementTotals(stats);
+        }
     }
 
-    private int getUserRank() {
-        Cursor leaderboard = db.getLeaderboard();
-        int rank = 1;
-        if (leaderboard != null) {
-            while (leaderboard.moveToNext()) {
-                int id = leaderboard.getInt(leaderboard.getColumnIndexOrThrow("id"));
-                if (id == userId) {
-                    break;
+    // Server totals catch the counters up with progress made before they existed or on another device
+    private void syncAchievementTotals(StatsResponse stats) {
+        if (ownerId.isEmpty()) return;
+        Map<String, Long> totals = new HashMap<>();
+        totals.put(AchievementRules.COUNTER_ACTIVITIES, (long) stats.total.activities);
+        totals.put(AchievementRules.COUNTER_POINTS, (long) stats.total.points);
+        if (stats.categories != null) {
+            for (CategoryStat category : stats.categories) {
+                if (category.category != null) {
+                    totals.put(AchievementRules.categoryCounter(category.category), (long) category.count);
                 }
-                rank++;
             }
-            leaderboard.close();
         }
-        return rank;
+
+        AppContainer appContainer = AppContainer.from(requireContext());
+        String owner = ownerId;
+        long now = System.currentTimeMillis();
+        appContainer.getRepository().execute(db -> appContainer.getAchievementEngine().syncTotals(owner, totals, now),
+                unlocked -> {
+                    if (!isAdded() || unlocked.isEmpty()) return;
+                    loadAchievements();
+                });
     }
 
-    private void loadAchievements() {
+    private void showAchievements(List<Achievement> achievements) {
+        if (achievements == shownAchievements) return;
+        shownAchievements = achievements;
         containerAchievements.removeAllViews();
 
-        int points = prefs.getInt("points", 0);
-        Cursor cursor = db.getUserActivities(userId);
-        int activitiesCount = cursor != null ? cursor.getCount() : 0;
-        if (cursor != null) cursor.close();
-
-        // Define achievements
-        Achievement[] achievements = {
-                new Achievement("🌟", "Người mới", "Hoàn thành đăng ký", true),
-                new Achievement("🔥", "Nhiệt huyết", "10 hoạt động", activitiesCount >= 10),
-                new Achievement("💯", "Trăm điểm", "Đạt 100 điểm", points >= 100),
-                new Achievement("⚔️", "Chiến binh", "50 hoạt động", activitiesCount >= 50),
-                new Achievement("👑", "Huyền thoại", "500 điểm", points >= 500),
-                new Achievement("🌳", "Cây xanh", "Trồng 5 cây", getCategoryCount("green") >= 5)
-        };
-
         for (Achievement ach : achievements) {
             View achView = createAchievementView(ach);
             containerAchievements.addView(achView);
         }
     }
 
-    private int getCategoryCount(String category) {
-        Cursor cursor = db.getUserActivities(userId);
-        int count = 0;
-
-        if (cursor != null) {
-            while (cursor.moveToNext()) {
-                int activityId = cursor.getInt(cursor.getColumnIndexOrThrow("activity_id"));
-                Cursor actCursor = db.getAllActivities();
-
-                if (actCursor != null) {
-                    while (actCursor.moveToNext()) {
-                        if (actCursor.getInt(actCursor.getColumnIndexOrThrow("id")) == activityId) {
-                            String cat = actCursor.getString(actCursor.getColumnIndexOrThrow("category"));
-                            if (cat.equals(category)) {
-                                count++;
-                            }
-                            break;
-                        }
-                    }
-                    actCursor.close();
-                }
-            }
-            cursor.close();
-        }
-        return count;
-    }
-
     private View createAchievementView(Achievement achievement) {
         View view = LayoutInflater.from(requireContext()).inflate(R.layout.item_achievement, containerAchievements, false);
 
@@ -163,11 +195,12 @@ public class ProfileFragment extends Fragment {
         TextView tvDesc = view.findViewById(R.id.tvAchievementDesc);
         View overlay = view.findViewById(R.id.achievementOverlay);
 
-        tvIcon.setText(achievement.icon);
-        tvName.setText(achievement.name);
-        tvDesc.setText(achievement.description);
+        AchievementRule rule = achievement.getRule();
+        tvIcon.setText(rule.getIcon());
+        tvName.setText(rule.getName());
+        tvDesc.setText(rule.getDescription());
 
-        if (!achievement.unlocked) {
+        if (!achievement.isUnlocked()) {
             overlay.setVisibility(View.VISIBLE);
             view.setAlpha(0.5f);
         } else {
@@ -198,21 +231,14 @@ public class ProfileFragment extends Fragment {
     @Override
     public void onResume() {
         super.onResume();
-        loadProfileData();
+        statsViewModel.refresh();
         loadAchievements();
+        loadRemoteProfile();
     }
 
-    private static class Achievement {
-        String icon;
-        String name;
-        String description;
-        boolean unlocked;
-
-        Achievement(String icon, String name, String description, boolean unlocked) {
-            this.icon = icon;
-            this.name = name;
-            this.description = description;
-            this.unlocked = unlocked;
-        }
+    @Override
+    public void onPause() {
+        super.onPause();
+        cancelRemoteProfile();
     }
 }
\ No newline at end of file
@@ -1,7 +1,7 @@
 package com.example.app_ecotrack.fragments;
 
+import android.content.Intent;
 import android.content.SharedPreferences;
-import android.database.Cursor;
 import android.graphics.Color;
 import android.os.Bundle;
 import android.view.LayoutInflater;
@@ -13,38 +13,56 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
 
-import com.example.app_ecotrack.DatabaseHelper;
+import com.example.app_ecotrack.CategoryStat;
+import com.example.app_ecotrack.HistoryActivity;
+import com.example.app_ecotrack.HistoryEntry;
 import com.example.app_ecotrack.R;
+import com.example.app_ecotrack.UserStatsSnapshot;
+import com.example.app_ecotrack.UserStatsViewModel;
+import com.example.app_ecotrack.views.PointsChartView;
 
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
 public class StatisticsFragment extends Fragment {
-    private TextView tvLevelProgress, tvProgressPercent;
+    private static final int[] CHART_RANGES = {7, 30, 90, 365};
+    // Longer ranges are drawn as a line, shorter ones as bars
+    private static final int MAX_BAR_RANGE = 30;
+    private static final String[] CATEGORIES = {"transport", "energy", "water", "waste", "green", "consumption"};
+    private static final String[] CATEGORY_NAMES = {"Giao thông", "Năng lượng", "Nước", "Rác thải", "Cây xanh", "Tiêu dùng"};
+    private static final String[] CATEGORY_ICONS = {"🚴", "💡", "💧", "♻️", "🌳", "🛒"};
+    private static final String[] CATEGORY_COLORS = {"#4CAF50", "#FFC107", "#03A9F4", "#8BC34A", "#009688", "#9C27B0"};
+    private static final String[] WEEKDAYS = {"CN", "T2", "T3", "T4", "T5", "T6", "T7"};
+
+    private TextView tvLevelProgress, tvProgressPercent, tvChartTitle;
     private ProgressBar progressLevel;
-    private LinearLayout containerCategories, containerRecent, containerWeekly;
-    private DatabaseHelper db;
+    private LinearLayout containerCategories, containerRecent;
+    private PointsChartView chartPoints;
+    // One row per category, inflated once and updated in place
+    private TextView[] categoryCounts;
+    private ProgressBar[] categoryProgress;
+    private UserStatsViewModel statsViewModel;
+    private UserStatsSnapshot snapshot;
     private SharedPreferences prefs;
-    private int userId;
+    private int chartDays = CHART_RANGES[0];
 
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.fragment_statistics, container, false);
 
-        db = new DatabaseHelper(requireContext());
         prefs = requireActivity().getSharedPreferences("EcoTrackPrefs", requireContext().MODE_PRIVATE);
-        userId = prefs.getInt("userId", -1);
+        statsViewModel = new ViewModelProvider(requireActivity()).get(UserStatsViewModel.class);
 
         initViews(view);
-        loadStatistics();
+        loadLevelProgress();
+        statsViewModel.getSnapshot().observe(getViewLifecycleOwner(), this::showStatistics);
 
         return view;
     }
@@ -55,14 +73,22 @@ public class StatisticsFragment extends Fragment {
         progressLevel = view.findViewById(R.id.progressLevel);
         containerCategories = view.findViewById(R.id.containerCategories);
         containerRecent = view.findViewById(R.id.containerRecent);
-        containerWeekly = view.findViewById(R.id.containerWeekly);
+        chartPoints = view.findViewById(R.id.chartPoints);
+        tvChartTitle = view.findViewById(R.id.tvChartTitle);
+        createCategoryViews();
+
+        // Chạm vào tiêu đề để chuyển giữa 7, 30, 90 và 365 ngày
+        tvChartTitle.setOnClickListener(v -> switchChartRange());
+        view.findViewById(R.id.tvSeeAllHistory).setOnClickListener(v ->
+                startActivity(new Intent(getActivity(), HistoryActivity.class)));
     }
 
-    private void loadStatistics() {
-        loadLevelProgress();
-        loadCategoryStats();
-        loadRecentActivities();
-        loadWeeklyChart();
+    // Everything below the level card comes from the shared snapshot, recomputed only when the data changed
+    private void showStatistics(UserStatsSnapshot snapshot) {
+        this.snapshot = snapshot;
+        showCategoryStats(snapshot.getCategoryStats());
+        showRecentActivities(snapshot.getRecentActivities());
+        showChart(snapshot.getDailyPoints(chartDays));
     }
 
     private void loadLevelProgress() {
@@ -77,102 +103,50 @@ public class StatisticsFragment extends Fragment {
         tvProgressPercent.setText("Cấp " + level);
     }
 
-    private void loadCategoryStats() {
-        containerCategories.removeAllViews();
-
-        String[] categories = {"transport", "energy", "water", "waste", "green", "consumption"};
-        String[] categoryNames = {"Giao thông", "Năng lượng", "Nước", "Rác thải", "Cây xanh", "Tiêu dùng"};
-        String[] categoryIcons = {"🚴", "💡", "💧", "♻️", "🌳", "🛒"};
-        int[] categoryColors = {
-                Color.parseColor("#4CAF50"),
-                Color.parseColor("#FFC107"),
-                Color.parseColor("#03A9F4"),
-                Color.parseColor("#8BC34A"),
-                Color.parseColor("#009688"),
-                Color.parseColor("#9C27B0")
-        };
-
-        for (int i = 0; i < categories.length; i++) {
-            int count = getCategoryCount(categories[i]);
-            View categoryView = createCategoryView(categoryIcons[i], categoryNames[i], count, categoryColors[i]);
-            containerCategories.addView(categoryView);
-        }
-    }
+    private void createCategoryViews() {
+        categoryCounts = new TextView[CATEGORIES.length];
+        categoryProgress = new ProgressBar[CATEGORIES.length];
+        LayoutInflater inflater = LayoutInflater.from(requireContext());
 
-    private int getCategoryCount(String category) {
-        Cursor cursor = db.getUserActivities(userId);
-        int count = 0;
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            View view = inflater.inflate(R.layout.item_category_stat, containerCategories, false);
 
-        if (cursor != null) {
-            while (cursor.moveToNext()) {
-                int activityId = cursor.getInt(cursor.getColumnIndexOrThrow("activity_id"));
-                Cursor actCursor = db.getAllActivities();
+            ((TextView) view.findViewById(R.id.tvCategoryIcon)).setText(CATEGORY_ICONS[i]);
+            ((TextView) view.findViewById(R.id.tvCategoryName)).setText(CATEGORY_NAMES[i]);
+            categoryCounts[i] = view.findViewById(R.id.tvCategoryCount);
+            categoryProgress[i] = view.findViewById(R.id.progressCategory);
 
-                if (actCursor != null) {
-                    while (actCursor.moveToNext()) {
-                        if (actCursor.getInt(actCursor.getColumnIndexOrThrow("id")) == activityId) {
-                            String cat = actCursor.getString(actCursor.getColumnIndexOrThrow("category"));
-                            if (cat.equals(category)) {
-                                count++;
-                            }
-                            break;
-                        }
-                    }
-                    actCursor.close();
-                }
-            }
-            cursor.close();
+            categoryProgress[i].setMax(20);
+            categoryProgress[i].getProgressDrawable().setColorFilter(Color.parseColor(CATEGORY_COLORS[i]),
+                    android.graphics.PorterDuff.Mode.SRC_IN);
+            containerCategories.addView(view);
         }
-        return count;
     }
 
-    private View createCategoryView(String icon, String name, int count, int color) {
-        View view = LayoutInflater.from(requireContext()).inflate(R.layout.item_category_stat, containerCategories, false);
-
-        TextView tvIcon = view.findViewById(R.id.tvCategoryIcon);
-        TextView tvName = view.findViewById(R.id.tvCategoryName);
-        TextView tvCount = view.findViewById(R.id.tvCategoryCount);
-        ProgressBar progressBar = view.findViewById(R.id.progressCategory);
-
-        tvIcon.setText(icon);
-        tvName.setText(name);
-        tvCount.setText(count + " lần");
-
-        progressBar.setMax(20);
-        progressBar.setProgress(Math.min(count, 20));
-        progressBar.getProgressDrawable().setColorFilter(color, android.graphics.PorterDuff.Mode.SRC_IN);
-
-        return view;
+    private void showCategoryStats(Map<String, CategoryStat> stats) {
+        for (int i = 0; i < CATEGORIES.length; i++) {
+            CategoryStat stat = stats.get(CATEGORIES[i]);
+            int count = stat != null ? stat.getCount() : 0;
+            categoryCounts[i].setText(count + " lần");
+            categoryProgress[i].setProgress(Math.min(count, 20));
+        }
     }
 
-    private void loadRecentActivities() {
+    private void showRecentActivities(List<HistoryEntry> recentActivities) {
         containerRecent.removeAllViews();
+        SimpleDateFormat displayFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm", Locale.getDefault());
 
-        Cursor cursor = db.getUserActivities(userId);
-        List<Map<String, Object>> recentActivities = new ArrayList<>();
-
-        if (cursor != null) {
-            while (cursor.moveToNext() && recentActivities.size() < 10) {
-                Map<String, Object> activity = new HashMap<>();
-                activity.put("name", cursor.getString(cursor.getColumnIndexOrThrow("name")));
-                activity.put("points", cursor.getInt(cursor.getColumnIndexOrThrow("points_earned")));
-                activity.put("date", cursor.getString(cursor.getColumnIndexOrThrow("completed_date")));
-                recentActivities.add(0, activity);
-            }
-            cursor.close();
-        }
-
-        for (Map<String, Object> activity : recentActivities) {
+        for (HistoryEntry activity : recentActivities) {
             View activityView = createRecentActivityView(
-                    (String) activity.get("name"),
-                    (Integer) activity.get("points"),
-                    (String) activity.get("date")
+                    activity.getActivityName(),
+                    activity.getPointsEarned(),
+                    displayFormat.format(new Date(activity.getCompletedAtMs()))
             );
             containerRecent.addView(activityView);
         }
     }
 
-    private View createRecentActivityView(String name, int points, String dateStr) {
+    private View createRecentActivityView(String name, int points, String date) {
         View view = LayoutInflater.from(requireContext()).inflate(R.layout.item_recent_activity, containerRecent, false);
 
         TextView tvName = view.findViewById(R.id.tvActivityName);
@@ -181,85 +155,50 @@ public class StatisticsFragment extends Fragment {
 
         tvName.setText(name);
         tvPoints.setText("+" + points);
-
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault());
-            Date date = sdf.parse(dateStr);
-            SimpleDateFormat displayFormat = new SimpleDateFormat("dd/MM/yyyy HH:mm", Locale.getDefault());
-            tvDate.setText(displayFormat.format(date));
-        } catch (Exception e) {
-            tvDate.setText(dateStr);
-        }
+        tvDate.setText(date);
 
         return view;
     }
 
-    private void loadWeeklyChart() {
-        containerWeekly.removeAllViews();
-
-        String[] days = {"CN", "T2", "T3", "T4", "T5", "T6", "T7"};
-        int[] weekPoints = getWeeklyPoints();
-        int maxPoints = 1;
-        for (int points : weekPoints) {
-            if (points > maxPoints) maxPoints = points;
-        }
-
-        for (int i = 0; i < 7; i++) {
-            View barView = createBarView(days[i], weekPoints[i], maxPoints);
-            containerWeekly.addView(barView);
-        }
-    }
-
-    private int[] getWeeklyPoints() {
-        int[] weekPoints = new int[7];
-        Calendar calendar = Calendar.getInstance();
-
-        for (int i = 6; i >= 0; i--) {
-            String dateStr = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault()).format(calendar.getTime());
-            weekPoints[i] = getPointsForDate(dateStr);
-            calendar.add(Calendar.DAY_OF_MONTH, -1);
-        }
-
-        return weekPoints;
+    private void showChart(int[] dailyPoints) {
+        tvChartTitle.setText("Điểm " + chartDays + " ngày gần đây");
+
+        // Ngày đầu tiên của biểu đồ; nhãn của mỗi điểm tính từ ngày này
+        Calendar first = Calendar.getInstance();
+        first.add(Calendar.DAY_OF_MONTH, -(dailyPoints.length - 1));
+        SimpleDateFormat labelFormat = new SimpleDateFormat("dd/MM", Locale.getDefault());
+        boolean weekdays = dailyPoints.length <= WEEKDAYS.length;
+
+        chartPoints.setData(dailyPoints,
+                chartDays <= MAX_BAR_RANGE ? PointsChartView.STYLE_BARS : PointsChartView.STYLE_LINE,
+                index -> {
+                    Calendar day = (Calendar) first.clone();
+                    day.add(Calendar.DAY_OF_MONTH, index);
+                    return weekdays
+                            ? WEEKDAYS[day.get(Calendar.DAY_OF_WEEK) - 1]
+                            : labelFormat.format(day.getTime());
+                });
     }
 
-    private int getPointsForDate(String dateStr) {
-        Cursor cursor = db.getUserActivities(userId);
-        int points = 0;
-
-        if (cursor != null) {
-            while (cursor.moveToNext()) {
-                String completedDate = cursor.getString(cursor.getColumnIndexOrThrow("completed_date"));
-                if (completedDate.startsWith(dateStr)) {
-                    points += cursor.getInt(cursor.getColumnIndexOrThrow("points_earned"));
-                }
+    private void switchChartRange() {
+        int index = 0;
+        for (int i = 0; i < CHART_RANGES.length; i++) {
+            if (CHART_RANGES[i] == chartDays) {
+                index = i;
+                break;
             }
-            cursor.close();
         }
-        return points;
-    }
-
-    private View createBarView(String day, int points, int maxPoints) {
-        View view = LayoutInflater.from(requireContext()).inflate(R.layout.item_weekly_bar, containerWeekly, false);
-
-        TextView tvDay = view.findViewById(R.id.tvDay);
-        TextView tvPoints = view.findViewById(R.id.tvPoints);
-        View bar = view.findViewById(R.id.bar);
-
-        tvDay.setText(day);
-        tvPoints.setText(String.valueOf(points));
-
-        int height = maxPoints > 0 ? (int) (200 * ((float) points / maxPoints)) : 0;
-        ViewGroup.LayoutParams params = bar.getLayoutParams();
-        params.height = Math.max(height, 20);
-        bar.setLayoutParams(params);
-
-        return view;
+        chartDays = CHART_RANGES[(index + 1) % CHART_RANGES.length];
+        // The snapshot already holds every range: switching costs no query
+        if (snapshot != null) {
+            showChart(snapshot.getDailyPoints(chartDays));
+        }
     }
 
     @Override
     public void onResume() {
         super.onResume();
-        loadStatistics();
+        loadLevelProgress();
+        statsViewModel.refresh();
     }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.example.app_ecotrack.views;
+
+/**
+ * Reduces a daily series to what a chart can actually show.
+ * Lines use Largest-Triangle-Three-Buckets, which keeps the peaks and dips a plain average
+ * would flatten; bars are summed into wider buckets so the total stays the same.
+ */
+final class ChartDownsampler {
+
+    private ChartDownsampler() {
+    }
+
+    /**
+     * Indices (ascending, first and last always included) of at most {@code threshold} points
+     * chosen by LTTB. Every index is returned when the series already fits.
+     */
+    static int[] lttb(int[] data, int threshold) {
+        int length = data.length;
+        if (threshold >= length || length <= 2) {
+            return allIndices(length);
+        }
+        if (threshold < 3) {
+            return threshold <= 1 ? new int[]{length - 1} : new int[]{0, length - 1};
+        }
+
+        int[] sampled = new int[threshold];
+        // The first and last points are fixed, the rest is split into threshold - 2 buckets
+        double bucketSize = (double) (length - 2) / (threshold - 2);
+        int a = 0;
+        sampled[0] = 0;
+
+        for (int i = 0; i < threshold - 2; i++) {
+            // Average of the next bucket, the third corner of the triangle
+            int nextStart = (int) Math.floor((i + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((i + 2) * bucketSize) + 1, length);
+            double avgX = 0;
+            double avgY = 0;
+            for (int j = nextStart; j < nextEnd; j++) {
+                avgX += j;
+                avgY += data[j];
+            }
+            int nextCount = nextEnd - nextStart;
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            // The point of the current bucket forming the largest triangle with a and the average
+            int start = (int) Math.floor(i * bucketSize) + 1;
+            int end = (int) Math.floor((i + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int chosen = start;
+            for (int j = start; j < end; j++) {
+                double area = Math.abs((a - avgX) * (data[j] - data[a]) - (a - j) * (avgY - data[a]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = j;
+                }
+            }
+            sampled[i + 1] = chosen;
+            a = chosen;
+        }
+
+        sampled[threshold - 1] = length - 1;
+        return sampled;
+    }
+
+    // Bucket width (in days) needed to fit the series into maxBuckets bars
+    static int bucketSize(int length, int maxBuckets) {
+        return Math.max(1, (length + maxBuckets - 1) / Math.max(1, maxBuckets));
+    }
+
+    // Sums of consecutive runs of bucketSize values; the last bucket may be shorter
+    static int[] bucketSums(int[] data, int bucketSize) {
+        int[] sums = new int[(data.length + bucketSize - 1) / bucketSize];
+        for (int i = 0; i < data.length; i++) {
+            sums[i / bucketSize] += data[i];
+        }
+        return sums;
+    }
+
+    private static int[] allIndices(int length) {
+        int[] indices = new int[length];
+        for (int i = 0; i < length; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.app_ecotrack.views;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.util.AttributeSet;
+import android.view.View;
+
+/**
+ * Daily points chart drawn in a single onDraw pass, without child views.
+ *
+ * setData() takes the raw per-day values (oldest first) and lays everything out once:
+ * bars are summed into wider buckets when they would get thinner than MIN_BAR_WIDTH_DP,
+ * and a line keeps at most one point per pixel (LTTB, see ChartDownsampler). onDraw only
+ * replays the precomputed geometry, so an update costs one layout pass and one invalidate.
+ */
+public class PointsChartView extends View {
+    public static final int STYLE_BARS = 0;
+    public static final int STYLE_LINE = 1;
+
+    // Label for the day at the given index of the values passed to setData
+    public interface LabelProvider {
+        String getLabel(int index);
+    }
+
+    private static final float MIN_BAR_WIDTH_DP = 6f;
+    private static final float MIN_BAR_HEIGHT_DP = 4f;
+    private static final float BAR_WIDTH_RATIO = 0.6f;
+    private static final float TEXT_SIZE_SP = 12f;
+    private static final float TEXT_GAP_DP = 4f;
+    private static final float LINE_WIDTH_DP = 2f;
+    private static final int MAX_LABELS = 7;
+    // Bars get their value written above them only while there is room for it
+    private static final int MAX_VALUE_LABELS = 7;
+
+    private final Paint barPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint labelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint valuePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Path linePath = new Path();
+    private final Path fillPath = new Path();
+    private final float density;
+
+    private int[] values = new int[0];
+    private int style = STYLE_BARS;
+    private LabelProvider labelProvider;
+
+    // Geometry from the last layout, drawn as is by onDraw
+    private float[] barRects = new float[0];   // left, top, right, bottom per bar
+    private int barCount;
+    private String[] valueTexts = new String[0];
+    private String[] labelTexts = new String[0];
+    private float[] labelX = new float[0];
+    private float valueBaseline;
+    private float labelBaseline;
+    private boolean hasLine;
+
+    public PointsChartView(Context context) {
+        this(context, null);
+    }
+
+    public PointsChartView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public PointsChartView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        density = getResources().getDisplayMetrics().density;
+        float scaledDensity = getResources().getDisplayMetrics().scaledDensity;
+
+        int green = Color.parseColor("#4CAF50");
+        barPaint.setColor(green);
+        linePaint.setColor(green);
+        linePaint.setStyle(Paint.Style.STROKE);
+        linePaint.setStrokeWidth(LINE_WIDTH_DP * density);
+        linePaint.setStrokeJoin(Paint.Join.ROUND);
+        linePaint.setStrokeCap(Paint.Cap.ROUND);
+        fillPaint.setColor(green);
+        fillPaint.setAlpha(40);
+        labelPaint.setColor(Color.parseColor("#9E9E9E"));
+        labelPaint.setTextSize(TEXT_SIZE_SP * scaledDensity);
+        labelPaint.setTextAlign(Paint.Align.CENTER);
+        valuePaint.setColor(green);
+        valuePaint.setTextSize(TEXT_SIZE_SP * scaledDensity);
+        valuePaint.setTextAlign(Paint.Align.CENTER);
+        valuePaint.setFakeBoldText(true);
+    }
+
+    /**
+     * Replaces the series. {@code values} is not copied and must not change afterwards
+     */
+    public void setData(int[] values, int style, LabelProvider labelProvider) {
+        this.values = values != null ? values : new int[0];
+        this.style = style;
+        this.labelProvider = labelProvider;
+        layoutChart();
+        invalidate();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        layoutChart();
+    }
+
+    private void layoutChart() {
+        barCount = 0;
+        hasLine = false;
+        valueTexts = new String[0];
+        labelTexts = new String[0];
+        linePath.reset();
+        fillPath.reset();
+
+        float left = getPaddingLeft();
+        float right = getWidth() - getPaddingRight();
+        float width = right - left;
+        if (width <= 0 || getHeight() <= 0 || values.length == 0) {
+            return;
+        }
+
+        float gap = TEXT_GAP_DP * density;
+        Paint.FontMetrics labelMetrics = labelPaint.getFontMetrics();
+        Paint.FontMetrics valueMetrics = valuePaint.getFontMetrics();
+        labelBaseline = getHeight() - getPaddingBottom() - labelMetrics.descent;
+        float bottom = labelBaseline + labelMetrics.ascent - gap;
+
+        if (style == STYLE_LINE) {
+            layoutLine(left, width, getPaddingTop() + gap, bottom);
+        } else {
+            float top = getPaddingTop() + (valueMetrics.descent - valueMetrics.ascent) + gap;
+            layoutBars(left, width, top, bottom, valueMetrics);
+        }
+    }
+
+    private void layoutBars(float left, float width, float top, float bottom, Paint.FontMetrics valueMetrics) {
+        int maxBars = Math.max(1, (int) (width / (MIN_BAR_WIDTH_DP * density)));
+        int bucketSize = ChartDownsampler.bucketSize(values.length, maxBars);
+        int[] bars = bucketSize == 1 ? values : ChartDownsampler.bucketSums(values, bucketSize);
+        int max = Math.max(1, max(bars));
+
+        barCount = bars.length;
+        if (barRects.length < barCount * 4) {
+            barRects = new float[barCount * 4];
+        }
+        float slot = width / barCount;
+        float barWidth = slot * BAR_WIDTH_RATIO;
+        float minHeight = MIN_BAR_HEIGHT_DP * density;
+        float maxHeight = bottom - top;
+        for (int i = 0; i < barCount; i++) {
+            float center = left + slot * (i + 0.5f);
+            float height = Math.max(minHeight, maxHeight * bars[i] / max);
+            barRects[i * 4] = center - barWidth / 2;
+            barRects[i * 4 + 1] = bottom - height;
+            barRects[i * 4 + 2] = center + barWidth / 2;
+            barRects[i * 4 + 3] = bottom;
+        }
+
+        if (barCount <= MAX_VALUE_LABELS) {
+            valueTexts = new String[barCount];
+            for (int i = 0; i < barCount; i++) {
+                valueTexts[i] = String.valueOf(bars[i]);
+            }
+            valueBaseline = -valueMetrics.descent - TEXT_GAP_DP * density;
+        } else {
+            valueTexts = new String[0];
+        }
+
+        // Each label names the first day of its bucket
+        layoutLabels(barCount, index -> left + slot * (index + 0.5f), bucketSize);
+    }
+
+    private void layoutLine(float left, float width, float top, float bottom) {
+        int max = Math.max(1, max(values));
+        int last = Math.max(1, values.length - 1);
+        float step = width / last;
+        float height = bottom - top;
+
+        // No more points than pixels; x stays at the original day so the shape is not shifted
+        int[] indices = ChartDownsampler.lttb(values, Math.max(2, (int) width));
+        for (int i = 0; i < indices.length; i++) {
+            int day = indices[i];
+            float x = values.length == 1 ? left + width / 2 : left + step * day;
+            float y = bottom - height * values[day] / max;
+            if (i == 0) {
+                linePath.moveTo(x, y);
+                fillPath.moveTo(x, bottom);
+            }
+            linePath.lineTo(x, y);
+            fillPath.lineTo(x, y);
+            if (i == indices.length - 1) {
+                fillPath.lineTo(x, bottom);
+                fillPath.close();
+            }
+        }
+        hasLine = true;
+
+        layoutLabels(values.length, index -> values.length == 1 ? left + width / 2 : left + step * index, 1);
+    }
+
+    private interface Position {
+        float x(int index);
+    }
+
+    // Up to MAX_LABELS labels spread evenly over the slots, kept inside the view horizontally
+    private void layoutLabels(int slots, Position position, int daysPerSlot) {
+        if (labelProvider == null) {
+            return;
+        }
+        int count = Math.min(slots, MAX_LABELS);
+        labelTexts = new String[count];
+        labelX = new float[count];
+        float minX = getPaddingLeft();
+        float maxX = getWidth() - getPaddingRight();
+        for (int i = 0; i < count; i++) {
+            int slot = count == 1 ? 0 : Math.round((float) i * (slots - 1) / (count - 1));
+            String text = labelProvider.getLabel(slot * daysPerSlot);
+            float halfWidth = labelPaint.measureText(text) / 2;
+            labelTexts[i] = text;
+            labelX[i] = Math.max(minX + halfWidth, Math.min(maxX - halfWidth, position.x(slot)));
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        if (hasLine) {
+            canvas.drawPath(fillPath, fillPaint);
+            canvas.drawPath(linePath, linePaint);
+        }
+        for (int i = 0; i < barCount; i++) {
+            canvas.drawRect(barRects[i * 4], barRects[i * 4 + 1], barRects[i * 4 + 2], barRects[i * 4 + 3], barPaint);
+        }
+        for (int i = 0; i < valueTexts.length; i++) {
+            float center = (barRects[i * 4] + barRects[i * 4 + 2]) / 2;
+            canvas.drawText(valueTexts[i], center, barRects[i * 4 + 1] + valueBaseline, valuePaint);
+        }
+        for (int i = 0; i < labelTexts.length; i++) {
+            canvas.drawText(labelTexts[i], labelX[i], labelBaseline, labelPaint);
+        }
+    }
+
+    private static int max(int[] data) {
+        int max = 0;
+        for (int value : data) {
+            if (value > max) max = value;
+        }
+        return max;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.app_ecotrack;
+
+import org.junit.Test;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the shipped achievement rules and the threshold lookup used on every completion.
+ */
+public class AchievementRulesTest {
+
+    @Test
+    public void shippedRules_parseWithUniqueIds() throws IOException {
+        AchievementRules rules;
+        // Unit tests run from the module directory
+        try (Reader reader = new InputStreamReader(
+                new FileInputStream("src/main/assets/" + AchievementRules.ASSET), StandardCharsets.UTF_8)) {
+            rules = AchievementRules.parse(reader);
+        }
+
+        assertFalse(rules.getAll().isEmpty());
+        Set<String> ids = new HashSet<>();
+        for (AchievementRule rule : rules.getAll()) {
+            assertTrue("Duplicate id " + rule.getId(), ids.add(rule.getId()));
+            assertNotNull(rule.getName());
+            assertTrue(rule.getThreshold() >= 0);
+        }
+        assertEquals(Arrays.asList("newcomer"), ids(rules.initial()));
+    }
+
+    @Test
+    public void crossed_returnsOnlyThresholdsPassedByTheChange() {
+        AchievementRules rules = AchievementRules.parse(new StringReader("["
+                + "{\"id\":\"ten\",\"counter\":\"activities\",\"threshold\":10},"
+                + "{\"id\":\"one\",\"counter\":\"activities\",\"threshold\":1},"
+                + "{\"id\":\"fifty\",\"counter\":\"activities\",\"threshold\":50},"
+                + "{\"id\":\"trees\",\"counter\":\"category.green\",\"threshold\":5}]"));
+
+        assertEquals(Arrays.asList("one"), ids(rules.crossed("activities", 0, 1)));
+        assertTrue(rules.crossed("activities", 1, 9).isEmpty());
+        assertEquals(Arrays.asList("ten"), ids(rules.crossed("activities", 9, 10)));
+        assertEquals(Arrays.asList("one", "ten", "fifty"), ids(rules.crossed("activities", 0, 120)));
+        assertEquals(Arrays.asList("trees"), ids(rules.crossed(AchievementRules.categoryCounter("green"), 4, 5)));
+        assertTrue(rules.crossed("points", 0, 1000).isEmpty());
+        assertTrue(rules.crossed("activities", 10, 10).isEmpty());
+        // File order is kept for display
+        assertEquals(Arrays.asList("ten", "one", "fifty", "trees"), ids(rules.getAll()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_rejectsRuleWithoutCounter() {
+        AchievementRules.parse(new StringReader("[{\"id\":\"broken\",\"threshold\":1}]"));
+    }
+
+    private static List<String> ids(List<AchievementRule> rules) {
+        List<String> ids = new ArrayList<>();
+        for (AchievementRule rule : rules) {
+            ids.add(rule.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.app_ecotrack;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks accent-insensitive matching and ranking of ActivitySearchIndex, and prints query
+ * latency for catalogs of growing size.
+ */
+public class ActivitySearchIndexTest {
+    private static final String[] NAMES = {
+            "Đi xe đạp đi làm", "Tắt đèn khi ra khỏi phòng", "Trồng cây xanh", "Mang bình nước cá nhân",
+            "Phân loại rác thải", "Đi xe buýt", "Tắm nhanh dưới 5 phút", "Mua sắm đồ tái chế"
+    };
+
+    @Test
+    public void fold_removesVietnameseDiacritics() {
+        assertEquals("di xe dap", ActivitySearchIndex.fold("Đi xe đạp"));
+        assertEquals("tat den khi ra khoi phong", ActivitySearchIndex.fold("Tắt ĐÈN khi ra khỏi phòng"));
+        assertEquals("5 phut ", ActivitySearchIndex.fold("5 phút!"));
+    }
+
+    @Test
+    public void search_isAccentInsensitiveAndPrefixBased() {
+        ActivitySearchIndex index = new ActivitySearchIndex(catalog(NAMES.length));
+
+        assertEquals(Arrays.asList("Đi xe đạp đi làm"), names(index.search("xe dap")));
+        assertEquals(Arrays.asList("Đi xe đạp đi làm"), names(index.search("XE ĐẠP")));
+        assertEquals(Arrays.asList("Tắt đèn khi ra khỏi phòng"), names(index.search("tat de")));
+        assertTrue(index.search("xe dap bay").isEmpty());
+        assertEquals(NAMES.length, index.search("  ").size());
+    }
+
+    @Test
+    public void search_ranksNameAndPhraseMatchesFirst() {
+        List<Activity> activities = new ArrayList<>();
+        activities.add(activity("a1", "Tiết kiệm nước", "Không đi xe máy khi đi gần"));
+        activities.add(activity("a2", "Đi bộ", "Thay cho xe đạp hoặc xe máy"));
+        activities.add(activity("a3", "Sửa xe đạp cũ", "Tái sử dụng"));
+        activities.add(activity("a4", "Đi xe đạp", "Đi làm bằng xe đạp"));
+        ActivitySearchIndex index = new ActivitySearchIndex(activities);
+
+        // Khớp cả cụm trong tên (cùng điểm thì giữ thứ tự catalog) > chỉ khớp mô tả
+        assertEquals(Arrays.asList("a3", "a4", "a2"), apiIds(index.search("xe dap")));
+        assertEquals("a4", apiIds(index.search("di xe")).get(0));
+    }
+
+    @Test
+    public void benchmark_queryLatencyByCatalogSize() {
+        for (int size : new int[]{500, 5000, 50000}) {
+            ActivitySearchIndex index = new ActivitySearchIndex(catalog(size));
+            String[] queries = {"xe dap", "tat den", "rac", "cay xanh 12"};
+            for (int i = 0; i < 200; i++) {
+                index.search(queries[i % queries.length]);
+            }
+
+            int rounds = 1000;
+            long start = System.nanoTime();
+            int results = 0;
+            for (int i = 0; i < rounds; i++) {
+                results += index.search(queries[i % queries.length]).size();
+            }
+            long perQuery = (System.nanoTime() - start) / rounds;
+            System.out.println(String.format(Locale.US, "%,d activities: %.1f us per query (%d results)",
+                    size, perQuery / 1e3, results / rounds));
+            assertEquals(size, index.size());
+        }
+    }
+
+    private static List<Activity> catalog(int size) {
+        List<Activity> activities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String name = size == NAMES.length ? NAMES[i] : NAMES[i % NAMES.length] + " " + i;
+            activities.add(activity("id" + i, name, "Mô tả hoạt động " + i));
+        }
+        return activities;
+    }
+
+    private static Activity activity(String apiId, String name, String description) {
+        Activity activity = new Activity(apiId.hashCode(), name, description, 10, "energy", null);
+        activity.setApiId(apiId);
+        return activity;
+    }
+
+    private static List<String> names(List<Activity> activities) {
+        List<String> names = new ArrayList<>();
+        for (Activity activity : activities) {
+            names.add(activity.getName());
+        }
+        return names;
+    }
+
+    private static List<String> apiIds(List<Activity> activities) {
+        List<String> ids = new ArrayList<>();
+        for (Activity activity : activities) {
+            ids.add(activity.getApiId());
+        }
+        return ids;
+    }
+}
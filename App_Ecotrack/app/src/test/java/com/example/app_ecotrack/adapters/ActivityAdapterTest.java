@@ -0,0 +1,141 @@
+package com.example.app_ecotrack.adapters;
+
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import com.example.app_ecotrack.Activity;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that filtering a 500-item catalog only touches the rows that actually change,
+ * and that stable ids are unique for ObjectId-style server ids.
+ */
+public class ActivityAdapterTest {
+    private static final int CATALOG_SIZE = 500;
+
+    @Test
+    public void filtering_onlyRemovesHiddenRows() {
+        List<Activity> all = catalog();
+        List<Activity> energy = new ArrayList<>();
+        for (Activity activity : all) {
+            if (activity.getCategory().equals("energy")) {
+                energy.add(new Activity(activity));
+            }
+        }
+
+        Counts counts = diff(all, energy);
+
+        assertEquals(CATALOG_SIZE - energy.size(), counts.removed);
+        assertEquals(0, counts.inserted);
+        assertEquals(0, counts.changed);
+    }
+
+    @Test
+    public void completing_changesOneRowWithPayload() {
+        List<Activity> before = catalog();
+        List<Activity> after = new ArrayList<>();
+        for (Activity activity : before) {
+            after.add(new Activity(activity));
+        }
+        after.get(42).setCompleted(true);
+
+        Counts counts = diff(before, after);
+
+        assertEquals(1, counts.changed);
+        assertEquals(1, counts.payloads);
+        assertEquals(0, counts.removed + counts.inserted + counts.moved);
+    }
+
+    @Test
+    public void stableIds_areUnique() {
+        Set<Long> ids = new HashSet<>();
+        for (Activity activity : catalog()) {
+            assertTrue(ids.add(ActivityAdapter.stableId(activity.getApiId())));
+        }
+        assertEquals(ActivityAdapter.stableId("65f0ac71000000000000002a"),
+                ActivityAdapter.stableId("65f0ac71000000000000002a"));
+    }
+
+    private static List<Activity> catalog() {
+        String[] categories = {"transport", "energy", "water", "waste", "green", "consumption"};
+        List<Activity> activities = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 0; i < CATALOG_SIZE; i++) {
+            String apiId = String.format(Locale.US, "65f0ac71%016x", i);
+            Activity activity = new Activity(apiId.hashCode(), "Hoạt động " + i, "Mô tả " + i,
+                    10 + i % 5 * 5, categories[i % categories.length], null);
+            activity.setApiId(apiId);
+            activities.add(activity);
+        }
+        return activities;
+    }
+
+    private static Counts diff(List<Activity> oldList, List<Activity> newList) {
+        DiffUtil.ItemCallback<Activity> items = ActivityAdapter.DIFF_CALLBACK;
+        DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldList.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newList.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                return items.areItemsTheSame(oldList.get(oldPosition), newList.get(newPosition));
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                return items.areContentsTheSame(oldList.get(oldPosition), newList.get(newPosition));
+            }
+
+            @Override
+            public Object getChangePayload(int oldPosition, int newPosition) {
+                return items.getChangePayload(oldList.get(oldPosition), newList.get(newPosition));
+            }
+        });
+
+        Counts counts = new Counts();
+        result.dispatchUpdatesTo(counts);
+        return counts;
+    }
+
+    private static class Counts implements ListUpdateCallback {
+        int inserted, removed, moved, changed, payloads;
+
+        @Override
+        public void onInserted(int position, int count) {
+            inserted += count;
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            removed += count;
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            moved++;
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            changed += count;
+            if (payload != null) {
+                payloads += count;
+            }
+        }
+    }
+}
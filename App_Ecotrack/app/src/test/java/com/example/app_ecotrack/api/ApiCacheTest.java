@@ -0,0 +1,116 @@
+package com.example.app_ecotrack.api;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the stale-if-error path of ApiCache against a MockWebServer: a 5xx on a cached
+ * endpoint is answered from disk when a copy exists, and passed through when it does not.
+ */
+public class ApiCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private ApiCache apiCache;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        apiCache = new ApiCache(folder.getRoot());
+        client = new OkHttpClient.Builder()
+                .cache(apiCache.getCache())
+                .addInterceptor(apiCache.staleIfErrorInterceptor())
+                .addNetworkInterceptor(apiCache.maxAgeInterceptor())
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+        apiCache.getCache().close();
+    }
+
+    @Test
+    public void serverError_servesStaleCopy() throws Exception {
+        // Already expired, so the second request goes to the network
+        server.enqueue(new MockResponse().setHeader("Cache-Control", "max-age=0").setBody("{\"points\":10}"));
+        server.enqueue(new MockResponse().setResponseCode(500).setBody("{\"error\":\"boom\"}"));
+
+        try (Response first = execute("/api/dashboard")) {
+            assertEquals("{\"points\":10}", first.body().string());
+        }
+        try (Response second = execute("/api/dashboard")) {
+            assertEquals(200, second.code());
+            assertEquals("{\"points\":10}", second.body().string());
+        }
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void serverError_withoutCopy_returnsError() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(500).setBody("{\"error\":\"first\"}"));
+        server.enqueue(new MockResponse().setResponseCode(500).setBody("{\"error\":\"retry\"}"));
+
+        // The caller gets the error the server sent, and the failing server is only hit once
+        try (Response response = execute("/api/dashboard")) {
+            assertEquals(500, response.code());
+            assertEquals("{\"error\":\"first\"}", response.body().string());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void serverError_onEnqueue_reachesCallback() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503).setBody("{\"error\":\"busy\"}"));
+
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Object> result = new AtomicReference<>();
+        client.newCall(request("/api/users/profile")).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                result.set(e);
+                done.countDown();
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                result.set(response.code());
+                response.close();
+                done.countDown();
+            }
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(503, result.get());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    private Response execute(String path) throws IOException {
+        return client.newCall(request(path)).execute();
+    }
+
+    private Request request(String path) {
+        return new Request.Builder().url(server.url(path)).build();
+    }
+}
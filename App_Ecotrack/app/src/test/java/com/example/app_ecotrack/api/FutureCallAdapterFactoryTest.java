@@ -0,0 +1,122 @@
+package com.example.app_ecotrack.api;
+
+import com.example.app_ecotrack.api.models.ProfileResponse;
+import com.example.app_ecotrack.api.models.StatsResponse;
+import com.example.app_ecotrack.api.models.TodayActivitiesResponse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.HttpException;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that AsyncApiService requests run in parallel, so a fan-out of three delayed calls
+ * takes about as long as the slowest one, and that errors and cancellation propagate.
+ */
+public class FutureCallAdapterFactoryTest {
+    private static final long DELAY_MS = 400;
+
+    private MockWebServer server;
+    private AsyncApiService api;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(new OkHttpClient())
+                .addCallAdapterFactory(new FutureCallAdapterFactory())
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(AsyncApiService.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void fanOut_takesAboutAsLongAsSlowestCall() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setBodyDelay(DELAY_MS, TimeUnit.MILLISECONDS).setBody("{}"));
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<ProfileResponse> profile = api.getProfile();
+        CompletableFuture<StatsResponse> stats = api.getStats();
+        CompletableFuture<TodayActivitiesResponse> today = api.getTodayActivities();
+        ApiFutures.all(profile, stats, today).get(5, TimeUnit.SECONDS);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println(String.format(Locale.US,
+                "3 calls of %d ms each: %d ms in parallel (%d ms sequential)", DELAY_MS, elapsedMs, 3 * DELAY_MS));
+        assertNotNull(profile.join());
+        assertNotNull(stats.join());
+        assertNotNull(today.join());
+        assertEquals(3, server.getRequestCount());
+        assertTrue("calls did not overlap: " + elapsedMs + " ms", elapsedMs < 2 * DELAY_MS);
+    }
+
+    @Test
+    public void httpError_failsWithHttpException() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(401).setBody("{\"message\":\"Unauthorized\"}"));
+
+        try {
+            api.getProfile().get(5, TimeUnit.SECONDS);
+            fail("expected HttpException");
+        } catch (Exception e) {
+            Throwable cause = ApiFutures.unwrap(e);
+            assertTrue(cause instanceof HttpException);
+            assertEquals(401, ((HttpException) cause).code());
+        }
+    }
+
+    @Test
+    public void failure_cancelsOtherRequests() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        CompletableFuture<ProfileResponse> failing = api.getProfile();
+        failing.handle((value, error) -> null).get(5, TimeUnit.SECONDS);
+
+        server.enqueue(new MockResponse().setBodyDelay(2, TimeUnit.SECONDS).setBody("{}"));
+        CompletableFuture<StatsResponse> slow = api.getStats();
+        CompletableFuture<Void> all = ApiFutures.all(failing, slow);
+
+        assertTrue(all.isCompletedExceptionally());
+        assertTrue(slow.isCancelled());
+    }
+
+    @Test
+    public void cancellingCombinedFuture_cancelsRequests() {
+        server.enqueue(new MockResponse().setBodyDelay(2, TimeUnit.SECONDS).setBody("{}"));
+        server.enqueue(new MockResponse().setBodyDelay(2, TimeUnit.SECONDS).setBody("{}"));
+        CompletableFuture<ProfileResponse> profile = api.getProfile();
+        CompletableFuture<StatsResponse> stats = api.getStats();
+
+        CompletableFuture<Void> both = ApiFutures.both(profile, stats, (p, s) -> null);
+        both.cancel(true);
+
+        assertTrue(both.isCancelled());
+        try {
+            profile.join();
+            fail("expected CancellationException");
+        } catch (CancellationException expected) {
+            // cancelled together with the combined future
+        }
+        assertTrue(stats.isCancelled());
+    }
+}
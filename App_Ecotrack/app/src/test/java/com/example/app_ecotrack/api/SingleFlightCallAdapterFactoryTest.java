@@ -0,0 +1,151 @@
+package com.example.app_ecotrack.api;
+
+import com.google.gson.JsonObject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+import retrofit2.http.GET;
+import retrofit2.http.POST;
+import retrofit2.http.Query;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that identical GETs share one request, that a write drops reusable responses and
+ * that finished flights are evicted once they are no longer fresh.
+ */
+public class SingleFlightCallAdapterFactoryTest {
+    private static final long FRESH_MILLIS = 200;
+
+    interface Service {
+        @GET("api/users/profile")
+        Call<JsonObject> profile();
+
+        @GET("api/activities/history")
+        Call<JsonObject> history(@Query("before") String before);
+
+        @POST("api/activities/complete")
+        Call<JsonObject> complete();
+    }
+
+    private MockWebServer server;
+    private SingleFlightCallAdapterFactory singleFlight;
+    private Service service;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        singleFlight = new SingleFlightCallAdapterFactory(FRESH_MILLIS);
+        service = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(new OkHttpClient())
+                .addCallAdapterFactory(singleFlight)
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(Service.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void concurrentGets_shareOneRequest() throws Exception {
+        server.enqueue(new MockResponse().setBodyDelay(300, TimeUnit.MILLISECONDS).setBody("{\"points\":10}"));
+
+        CountDownLatch done = new CountDownLatch(3);
+        AtomicInteger successes = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            service.profile().enqueue(new Recorder(done, successes));
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(3, successes.get());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void successfulWrite_dropsReusableResponses() throws Exception {
+        server.enqueue(new MockResponse().setBody("{}"));
+        server.enqueue(new MockResponse().setBody("{}"));
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        await(service.profile());
+        // Still fresh: answered without a request
+        await(service.profile());
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, singleFlight.size());
+
+        await(service.complete());
+        assertEquals(0, singleFlight.size());
+
+        await(service.profile());
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void finishedFlights_expire() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(new MockResponse().setBody("{}"));
+        }
+
+        await(service.history("page-1"));
+        await(service.history("page-2"));
+        assertEquals(2, singleFlight.size());
+
+        Thread.sleep(FRESH_MILLIS * 2);
+        await(service.history("page-3"));
+        // Only the page that is still fresh is held
+        assertEquals(1, singleFlight.size());
+
+        await(service.history("page-1"));
+        assertEquals(4, server.getRequestCount());
+    }
+
+    private static void await(Call<JsonObject> call) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        call.enqueue(new Recorder(done, successes));
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, successes.get());
+    }
+
+    private static class Recorder implements Callback<JsonObject> {
+        private final CountDownLatch done;
+        private final AtomicInteger successes;
+
+        Recorder(CountDownLatch done, AtomicInteger successes) {
+            this.done = done;
+            this.successes = successes;
+        }
+
+        @Override
+        public void onResponse(Call<JsonObject> call, Response<JsonObject> response) {
+            if (response.isSuccessful()) {
+                successes.incrementAndGet();
+            }
+            done.countDown();
+        }
+
+        @Override
+        public void onFailure(Call<JsonObject> call, Throwable t) {
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.app_ecotrack.api.models;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the hand-written adapters decode exactly like reflective Gson, and that the first
+ * decode of a 1,000-item history page on a fresh Gson allocates less than the reflective adapter.
+ */
+public class ModelTypeAdaptersTest {
+    private static final int HISTORY_ITEMS = 1000;
+
+    private final Gson reflective = new Gson();
+    private final Gson adapters = new GsonBuilder()
+            .registerTypeAdapterFactory(ModelTypeAdapters.FACTORY)
+            .create();
+
+    @Test
+    public void historyPage_decodesLikeReflection() {
+        String json = historyPageJson(HISTORY_ITEMS);
+
+        ActivityHistoryResponse expected = reflective.fromJson(json, ActivityHistoryResponse.class);
+        ActivityHistoryResponse actual = adapters.fromJson(json, ActivityHistoryResponse.class);
+
+        assertEquals(reflective.toJson(expected), adapters.toJson(actual));
+        assertEquals(HISTORY_ITEMS, actual.history.size());
+        assertEquals("Đạp xe đi làm", actual.history.get(1).activity.name);
+        assertNull(actual.history.get(0).activity.icon);
+        assertEquals(3, actual.pagination.pages);
+    }
+
+    @Test
+    public void unknownFieldsAndNulls_areHandledLikeReflection() {
+        String json = "{\"leaderboard\":[{\"rank\":1,\"id\":\"a1\",\"points\":\"120\",\"avatar\":null,"
+                + "\"isCurrentUser\":\"true\",\"extra\":{\"nested\":[1,2,3]}}],"
+                + "\"currentUser\":null,\"unknown\":true}";
+
+        LeaderboardResponse expected = reflective.fromJson(json, LeaderboardResponse.class);
+        LeaderboardResponse actual = adapters.fromJson(json, LeaderboardResponse.class);
+
+        assertEquals(reflective.toJson(expected), adapters.toJson(actual));
+        assertEquals(120, actual.leaderboard.get(0).points);
+        assertTrue(actual.leaderboard.get(0).isCurrentUser);
+        assertNull(actual.currentUser);
+    }
+
+    @Test
+    public void categoryStat_readsSerializedName() {
+        String json = "{\"categories\":[{\"_id\":\"transport\",\"count\":4,\"points\":60}]}";
+
+        StatsResponse actual = adapters.fromJson(json, StatsResponse.class);
+
+        assertEquals("transport", actual.categories.get(0).category);
+        assertEquals(reflective.toJson(reflective.fromJson(json, StatsResponse.class)), adapters.toJson(actual));
+    }
+
+    @Test
+    public void dashboard_decodesLikeReflection() {
+        String json = "{\"user\":{\"id\":\"65f0a11ce000000000000000\",\"username\":\"user\",\"fullname\":\"Eco User\","
+                + "\"points\":120,\"level\":2},\"today\":{\"points\":30,\"activities\":2},"
+                + "\"week\":{\"points\":90,\"activities\":6},\"totalActivities\":14,\"rank\":3,"
+                + "\"weeklyChart\":[{\"date\":\"2026-10-11\",\"points\":0,\"count\":0},"
+                + "{\"date\":\"2026-10-17\",\"points\":30,\"count\":2}]}";
+
+        DashboardResponse expected = reflective.fromJson(json, DashboardResponse.class);
+        DashboardResponse actual = adapters.fromJson(json, DashboardResponse.class);
+
+        assertEquals(reflective.toJson(expected), adapters.toJson(actual));
+        assertEquals(90, actual.week.points);
+        assertEquals("2026-10-17", actual.weeklyChart.get(1).date);
+    }
+
+    @Test
+    public void catalogDelta_decodesLikeReflection() {
+        String json = "{\"activities\":[{\"id\":\"a2\",\"name\":\"Đạp xe đi làm\",\"points\":15,"
+                + "\"category\":\"transport\",\"icon\":\"🚲\"}],\"removed\":[\"a3\"],"
+                + "\"watermark\":\"2026-10-02T00:00:00.000Z\",\"full\":false}";
+
+        ActivityCatalogResponse expected = reflective.fromJson(json, ActivityCatalogResponse.class);
+        ActivityCatalogResponse actual = adapters.fromJson(json, ActivityCatalogResponse.class);
+
+        assertEquals(reflective.toJson(expected), adapters.toJson(actual));
+        assertEquals("a3", actual.removed.get(0));
+        assertEquals(reflective.toJson(reflective.fromJson("{\"activityIds\":[\"a1\",\"a3\"]}", CompletedTodayResponse.class)),
+                adapters.toJson(adapters.fromJson("{\"activityIds\":[\"a1\",\"a3\"]}", CompletedTodayResponse.class)));
+    }
+
+    @Test
+    public void requests_serializeLikeReflection() {
+        BatchCompleteRequest batch = new BatchCompleteRequest();
+        batch.completions.add(new BatchCompleteRequest.Completion("c-1", "a-1", 1700000000000L));
+        UpdateProfileRequest update = new UpdateProfileRequest("Nguyễn Văn A", null);
+
+        assertEquals(reflective.toJson(batch), adapters.toJson(batch));
+        assertEquals(reflective.toJson(update), adapters.toJson(update));
+        assertEquals(reflective.toJson(new LoginRequest("user", "secret")),
+                adapters.toJson(new LoginRequest("user", "secret")));
+    }
+
+    @Test
+    public void benchmark_historyPage_firstDecode() {
+        String json = historyPageJson(HISTORY_ITEMS);
+        // Load Gson's streaming and reflection classes and the adapter table up front, so each
+        // side only pays for building and running its own adapters
+        new Gson().fromJson("{\"value\":1}", Warmup.class);
+        new GsonBuilder().registerTypeAdapterFactory(ModelTypeAdapters.FACTORY).create();
+
+        long reflectiveBytes = firstDecodeBytes(new GsonBuilder(), json);
+        long adapterBytes = firstDecodeBytes(new GsonBuilder().registerTypeAdapterFactory(ModelTypeAdapters.FACTORY), json);
+
+        // Wall time depends on which side runs first in the JVM, so only allocation is compared
+        if (reflectiveBytes >= 0) {
+            assertTrue("adapters allocated " + adapterBytes + " B, reflective " + reflectiveBytes + " B",
+                    adapterBytes < reflectiveBytes);
+        }
+    }
+
+    // Bytes allocated building a fresh Gson and decoding one page with it, as on a cold app
+    // start; -1 when the JVM cannot report them
+    private static long firstDecodeBytes(GsonBuilder builder, String json) {
+        long allocatedBefore = allocatedBytes();
+        ActivityHistoryResponse response = builder.create().fromJson(json, ActivityHistoryResponse.class);
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        assertEquals(HISTORY_ITEMS, response.history.size());
+        return allocatedBefore < 0 ? -1 : allocated;
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static class Warmup {
+        int value;
+    }
+
+    // Same shape as GET api/activities/history: populated activity plus fields the app ignores
+    private static String historyPageJson(int items) {
+        StringBuilder sb = new StringBuilder("{\"history\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"_id\":\"65f0c0ffee").append(String.format(Locale.US, "%014d", i)).append('"')
+                    .append(",\"user\":\"65f0a11ce00000000000000\"")
+                    .append(",\"activity\":{\"_id\":\"65f0ac7100000000000000").append(i % 20)
+                    .append("\",\"name\":\"").append(i % 2 == 0 ? "Tắt đèn khi ra khỏi phòng" : "Đạp xe đi làm")
+                    .append("\",\"description\":\"Mô tả hoạt động số ").append(i % 20)
+                    .append("\",\"points\":").append(10 + i % 5 * 5)
+                    .append(",\"category\":\"energy\"")
+                    .append(i % 2 == 0 ? ",\"icon\":null" : ",\"icon\":\"🚲\"")
+                    .append(",\"isActive\":true,\"__v\":0}")
+                    .append(",\"pointsEarned\":").append(10 + i % 5 * 5)
+                    .append(",\"completedAt\":\"2026-10-").append(String.format(Locale.US, "%02d", 1 + i % 28))
+                    .append("T08:30:00.000Z\",\"__v\":0}");
+        }
+        sb.append("],\"pagination\":{\"page\":1,\"limit\":").append(items)
+                .append(",\"total\":").append(items * 3 - 1)
+                .append(",\"pages\":3}}");
+        return sb.toString();
+    }
+}
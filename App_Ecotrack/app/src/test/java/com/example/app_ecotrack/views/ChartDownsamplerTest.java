@@ -0,0 +1,74 @@
+package com.example.app_ecotrack.views;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the chart downsampling keeps the shape (LTTB) and the totals (bar buckets).
+ */
+public class ChartDownsamplerTest {
+
+    @Test
+    public void lttb_keepsSeriesThatAlreadyFits() {
+        int[] data = {3, 1, 4, 1, 5, 9, 2};
+
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6}, ChartDownsampler.lttb(data, 7));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6}, ChartDownsampler.lttb(data, 300));
+    }
+
+    @Test
+    public void lttb_keepsEndpointsAndPeaks() {
+        int[] data = new int[365];
+        data[100] = 50;
+        data[250] = 80;
+
+        int[] indices = ChartDownsampler.lttb(data, 40);
+
+        assertEquals(40, indices.length);
+        assertEquals(0, indices[0]);
+        assertEquals(364, indices[39]);
+        assertTrue(contains(indices, 100));
+        assertTrue(contains(indices, 250));
+        for (int i = 1; i < indices.length; i++) {
+            assertTrue(indices[i] > indices[i - 1]);
+        }
+    }
+
+    @Test
+    public void lttb_tinyThresholds() {
+        int[] data = {1, 2, 3, 4};
+
+        assertArrayEquals(new int[]{0, 3}, ChartDownsampler.lttb(data, 2));
+        assertArrayEquals(new int[]{3}, ChartDownsampler.lttb(data, 1));
+    }
+
+    @Test
+    public void bucketSums_preserveTotal() {
+        int[] data = new int[90];
+        int total = 0;
+        for (int i = 0; i < data.length; i++) {
+            data[i] = i % 7;
+            total += data[i];
+        }
+
+        int bucketSize = ChartDownsampler.bucketSize(data.length, 40);
+        int[] sums = ChartDownsampler.bucketSums(data, bucketSize);
+
+        assertEquals(3, bucketSize);
+        assertEquals(30, sums.length);
+        int sum = 0;
+        for (int value : sums) {
+            sum += value;
+        }
+        assertEquals(total, sum);
+        assertEquals(1, ChartDownsampler.bucketSize(30, 46));
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) return true;
+        }
+        return false;
+    }
+}
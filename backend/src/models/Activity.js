@@ -32,6 +32,11 @@ const activitySchema = new mongoose.Schema({
     type: Date,
     default: Date.now
   }
+}, {
+  // updatedAt là mốc đồng bộ catalog cho app (GET /api/activities/catalog?since=...)
+  timestamps: { createdAt: false, updatedAt: true }
 });
 
+activitySchema.index({ updatedAt: 1 });
+
 module.exports = mongoose.model('Activity', activitySchema);
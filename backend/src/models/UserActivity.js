@@ -18,11 +18,20 @@ const userActivitySchema = new mongoose.Schema({
   completedAt: {
     type: Date,
     default: Date.now
+  },
+  // Idempotency key generated by the app for offline completions
+  clientId: {
+    type: String
   }
 });
 
 // Index for faster queries
-userActivitySchema.index({ user: 1, completedAt: -1 });
+// _id breaks ties between completions with the same timestamp for keyset paging of history
+userActivitySchema.index({ user: 1, completedAt: -1, _id: -1 });
 userActivitySchema.index({ completedAt: -1 });
+userActivitySchema.index(
+  { user: 1, clientId: 1 },
+  { unique: true, partialFilterExpression: { clientId: { $type: 'string' } } }
+);
 
 module.exports = mongoose.model('UserActivity', userActivitySchema);
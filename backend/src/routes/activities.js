@@ -1,4 +1,5 @@
 const express = require('express');
+const mongoose = require('mongoose');
 const Activity = require('../models/Activity');
 const UserActivity = require('../models/UserActivity');
 const { auth, adminOnly } = require('../middleware/auth');
@@ -37,6 +38,76 @@ router.get('/', auth, async (req, res) => {
   }
 });
 
+// Catalog delta: các hoạt động thay đổi từ mốc `since` (updatedAt, ISO).
+// Không có `since` thì trả toàn bộ catalog đang hoạt động. Hoạt động bị tắt/xóa trả về trong `removed`.
+// `watermark` là mốc cho lần gọi sau; dùng $gte nên bản ghi cùng mốc có thể lặp lại (app ghi đè theo id)
+router.get('/catalog', auth, async (req, res) => {
+  try {
+    let since = null;
+    if (req.query.since) {
+      since = new Date(req.query.since);
+      if (isNaN(since.getTime())) {
+        return res.status(400).json({ error: 'Invalid since' });
+      }
+    }
+
+    const startedAt = new Date();
+    const query = since ? { updatedAt: { $gte: since } } : { isActive: true };
+    const changed = await Activity.find(query)
+      .select('name description points category icon isActive updatedAt')
+      .sort({ updatedAt: 1 })
+      .lean();
+
+    // Catalog cũ chưa có updatedAt: lấy thời điểm bắt đầu truy vấn làm mốc
+    let watermark = since || startedAt;
+    const activities = [];
+    const removed = [];
+    for (const activity of changed) {
+      if (activity.updatedAt && activity.updatedAt > watermark) {
+        watermark = activity.updatedAt;
+      }
+      if (activity.isActive === false) {
+        removed.push(activity._id);
+        continue;
+      }
+      activities.push({
+        id: activity._id,
+        name: activity.name,
+        description: activity.description,
+        points: activity.points,
+        category: activity.category,
+        icon: activity.icon
+      });
+    }
+
+    res.json({
+      activities,
+      removed,
+      watermark: watermark.toISOString(),
+      full: !since
+    });
+  } catch (error) {
+    res.status(500).json({ error: error.message });
+  }
+});
+
+// Id các hoạt động user đã hoàn thành hôm nay (phần duy nhất của catalog phụ thuộc user)
+router.get('/completed-today', auth, async (req, res) => {
+  try {
+    const today = new Date();
+    today.setHours(0, 0, 0, 0);
+
+    const activityIds = await UserActivity.distinct('activity', {
+      user: req.user._id,
+      completedAt: { $gte: today }
+    });
+
+    res.json({ activityIds });
+  } catch (error) {
+    res.status(500).json({ error: error.message });
+  }
+});
+
 // Complete an activity
 router.post('/:id/complete', auth, async (req, res) => {
   try {
@@ -68,32 +139,156 @@ router.post('/:id/complete', auth, async (req, res) => {
   }
 });
 
+// Complete a batch of activities queued offline by the app.
+// Each item carries a clientId; an item whose clientId was already recorded is acknowledged
+// as a duplicate without awarding points again, so the app can safely retry a batch.
+const MAX_BATCH_SIZE = 50;
+
+router.post('/complete-batch', auth, async (req, res) => {
+  try {
+    const completions = Array.isArray(req.body.completions) ? req.body.completions : [];
+    if (completions.length === 0 || completions.length > MAX_BATCH_SIZE) {
+      return res.status(400).json({ error: `completions must contain 1-${MAX_BATCH_SIZE} items` });
+    }
+
+    const clientIds = completions.map(c => c.clientId).filter(id => typeof id === 'string');
+    const existing = await UserActivity.find({ user: req.user._id, clientId: { $in: clientIds } })
+      .select('clientId pointsEarned');
+    const recorded = new Map(existing.map(ua => [ua.clientId, ua.pointsEarned]));
+
+    const activityIds = completions
+      .map(c => c.activityId)
+      .filter(id => mongoose.Types.ObjectId.isValid(id));
+    const activities = await Activity.find({ _id: { $in: activityIds }, isActive: true }).select('points');
+    const activityPoints = new Map(activities.map(a => [a._id.toString(), a.points]));
+
+    const now = Date.now();
+    const results = [];
+    const newRecords = [];
+    let pointsToAdd = 0;
+
+    for (const completion of completions) {
+      const { clientId, activityId, completedAt } = completion;
+      if (typeof clientId !== 'string' || clientId.length === 0) {
+        results.push({ clientId, status: 'invalid' });
+      } else if (recorded.has(clientId)) {
+        results.push({ clientId, status: 'duplicate', pointsEarned: recorded.get(clientId) });
+      } else if (!activityPoints.has(String(activityId))) {
+        results.push({ clientId, status: 'not_found' });
+      } else {
+        const points = activityPoints.get(String(activityId));
+        const time = Number(completedAt);
+        newRecords.push({
+          user: req.user._id,
+          activity: activityId,
+          pointsEarned: points,
+          completedAt: Number.isFinite(time) && time <= now ? new Date(time) : new Date(now),
+          clientId
+        });
+        recorded.set(clientId, points);
+        pointsToAdd += points;
+        results.push({ clientId, status: 'completed', pointsEarned: points });
+      }
+    }
+
+    if (newRecords.length > 0) {
+      let inserted;
+      try {
+        inserted = await UserActivity.insertMany(newRecords, { ordered: false });
+      } catch (error) {
+        // A concurrent retry recorded some of the same clientIds first
+        if (!error.writeErrors) throw error;
+        inserted = error.insertedDocs || [];
+        const insertedIds = new Set(inserted.map(ua => ua.clientId));
+        for (const result of results) {
+          if (result.status === 'completed' && !insertedIds.has(result.clientId)) {
+            result.status = 'duplicate';
+            pointsToAdd -= result.pointsEarned;
+          }
+        }
+      }
+      if (pointsToAdd > 0) {
+        await req.user.addPoints(pointsToAdd);
+      }
+    }
+
+    res.json({
+      results,
+      totalPoints: req.user.points,
+      level: req.user.level
+    });
+  } catch (error) {
+    res.status(500).json({ error: error.message });
+  }
+});
+
 // Get user's activity history
+// Without `page` the history is keyset-paginated: pass the `nextCursor` of the previous
+// response back as `before` (completedAt) and `beforeId` to get the next, older page.
 router.get('/history', auth, async (req, res) => {
   try {
-    const { page = 1, limit = 20 } = req.query;
-    
-    const history = await UserActivity.find({ user: req.user._id })
+    const { page, before, beforeId } = req.query;
+    const limit = Math.min(Math.max(parseInt(req.query.limit) || 20, 1), 100);
+    const toItem = h => ({
+      id: h._id,
+      activity: h.activity,
+      pointsEarned: h.pointsEarned,
+      completedAt: h.completedAt
+    });
+
+    if (page !== undefined) {
+      const pageNumber = Math.max(parseInt(page) || 1, 1);
+      const history = await UserActivity.find({ user: req.user._id })
+        .populate('activity', 'name description category points icon')
+        .sort({ completedAt: -1, _id: -1 })
+        .skip((pageNumber - 1) * limit)
+        .limit(limit);
+
+      const total = await UserActivity.countDocuments({ user: req.user._id });
+
+      return res.json({
+        history: history.map(toItem),
+        pagination: {
+          page: pageNumber,
+          limit,
+          total,
+          pages: Math.ceil(total / limit)
+        }
+      });
+    }
+
+    const filter = { user: req.user._id };
+    if (before !== undefined) {
+      const beforeDate = new Date(before);
+      if (isNaN(beforeDate.getTime())) {
+        return res.status(400).json({ error: 'Invalid before cursor' });
+      }
+      if (beforeId !== undefined) {
+        if (!mongoose.Types.ObjectId.isValid(beforeId)) {
+          return res.status(400).json({ error: 'Invalid beforeId cursor' });
+        }
+        filter.$or = [
+          { completedAt: { $lt: beforeDate } },
+          { completedAt: beforeDate, _id: { $lt: new mongoose.Types.ObjectId(beforeId) } }
+        ];
+      } else {
+        filter.completedAt = { $lt: beforeDate };
+      }
+    }
+
+    // One extra row tells whether an older page exists, without counting
+    const history = await UserActivity.find(filter)
       .populate('activity', 'name description category points icon')
-      .sort({ completedAt: -1 })
-      .skip((page - 1) * limit)
-      .limit(parseInt(limit));
+      .sort({ completedAt: -1, _id: -1 })
+      .limit(limit + 1);
 
-    const total = await UserActivity.countDocuments({ user: req.user._id });
+    const hasMore = history.length > limit;
+    const items = hasMore ? history.slice(0, limit) : history;
+    const last = items[items.length - 1];
 
     res.json({
-      history: history.map(h => ({
-        id: h._id,
-        activity: h.activity,
-        pointsEarned: h.pointsEarned,
-        completedAt: h.completedAt
-      })),
-      pagination: {
-        page: parseInt(page),
-        limit: parseInt(limit),
-        total,
-        pages: Math.ceil(total / limit)
-      }
+      history: items.map(toItem),
+      nextCursor: hasMore ? { completedAt: last.completedAt, id: last._id } : null
     });
   } catch (error) {
     res.status(500).json({ error: error.message });
@@ -159,9 +354,14 @@ router.put('/:id', auth, adminOnly, async (req, res) => {
 });
 
 // Admin: Delete activity
+// Xóa mềm (isActive = false) để app thấy thay đổi qua catalog delta và lịch sử vẫn giữ được tên hoạt động
 router.delete('/:id', auth, adminOnly, async (req, res) => {
   try {
-    const activity = await Activity.findByIdAndDelete(req.params.id);
+    const activity = await Activity.findByIdAndUpdate(
+      req.params.id,
+      { isActive: false },
+      { new: true }
+    );
     
     if (!activity) {
       return res.status(404).json({ error: 'Activity not found' });
@@ -0,0 +1,82 @@
+const express = require('express');
+const User = require('../models/User');
+const UserActivity = require('../models/UserActivity');
+const { auth } = require('../middleware/auth');
+
+const router = express.Router();
+
+// yyyy-MM-dd of a date in server-local time (toISOString would shift it to UTC)
+const localDate = date => [
+  date.getFullYear(),
+  String(date.getMonth() + 1).padStart(2, '0'),
+  String(date.getDate()).padStart(2, '0')
+].join('-');
+
+// Everything the home screen shows, in one round trip:
+// profile, today/last 7 days totals, total activity count, rank and the 7-day chart
+router.get('/', auth, async (req, res) => {
+  try {
+    const today = new Date();
+    today.setHours(0, 0, 0, 0);
+
+    // "This week" is the last 7 days (today included), the same window as the chart
+    const chartStart = new Date(today);
+    chartStart.setDate(chartStart.getDate() - 6);
+
+    const [recentActivities, totalActivities, usersAbove] = await Promise.all([
+      UserActivity.find({ user: req.user._id, completedAt: { $gte: chartStart } })
+        .select('pointsEarned completedAt')
+        .lean(),
+      UserActivity.countDocuments({ user: req.user._id }),
+      User.countDocuments({ role: 'user', points: { $gt: req.user.points } })
+    ]);
+
+    const todayStats = { points: 0, activities: 0 };
+    const weekStats = { points: 0, activities: 0 };
+    const weeklyChart = [];
+    for (let i = 0; i < 7; i++) {
+      const date = new Date(chartStart);
+      date.setDate(date.getDate() + i);
+      weeklyChart.push({ date: localDate(date), points: 0, count: 0 });
+    }
+
+    for (const ua of recentActivities) {
+      weekStats.points += ua.pointsEarned;
+      weekStats.activities++;
+      if (ua.completedAt >= today) {
+        todayStats.points += ua.pointsEarned;
+        todayStats.activities++;
+      }
+      const day = new Date(ua.completedAt);
+      day.setHours(0, 0, 0, 0);
+      const index = Math.round((day - chartStart) / (24 * 60 * 60 * 1000));
+      if (index >= 0 && index < 7) {
+        weeklyChart[index].points += ua.pointsEarned;
+        weeklyChart[index].count++;
+      }
+    }
+
+    res.json({
+      user: {
+        id: req.user._id,
+        username: req.user.username,
+        email: req.user.email,
+        fullname: req.user.fullname,
+        role: req.user.role,
+        points: req.user.points,
+        level: req.user.level,
+        avatar: req.user.avatar,
+        createdAt: req.user.createdAt
+      },
+      today: todayStats,
+      week: weekStats,
+      totalActivities,
+      rank: usersAbove + 1,
+      weeklyChart
+    });
+  } catch (error) {
+    res.status(500).json({ error: error.message });
+  }
+});
+
+module.exports = router;
@@ -29,11 +29,13 @@ const authRoutes = require('./routes/auth');
 const userRoutes = require('./routes/users');
 const activityRoutes = require('./routes/activities');
 const leaderboardRoutes = require('./routes/leaderboard');
+const dashboardRoutes = require('./routes/dashboard');
 
 app.use('/api/auth', authRoutes);
 app.use('/api/users', userRoutes);
 app.use('/api/activities', activityRoutes);
 app.use('/api/leaderboard', leaderboardRoutes);
+app.use('/api/dashboard', dashboardRoutes);
 
 // Error handling middleware
 app.use((err, req, res, next) => {